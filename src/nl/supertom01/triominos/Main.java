@@ -4,6 +4,7 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import nl.supertom01.triominos.metrics.Metrics;
 import nl.supertom01.triominos.model.Board;
 import nl.supertom01.triominos.model.Move;
 import nl.supertom01.triominos.model.Stone;
@@ -27,6 +28,7 @@ public class Main extends Application {
     }
 
     public static void main(String[] args) {
+        Metrics.registerMBeans();
         launch(args);
     }
 
@@ -0,0 +1,333 @@
+package nl.supertom01.triominos.ai;
+
+import java.util.Arrays;
+import java.util.Random;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Keeps track of what a player believes about the stones it has not seen yet.
+ * Each unseen stone is either in the hand of one of the opponents or on the stack. For every (opponent, stone) pair
+ * the tracker keeps the probability that the opponent holds that stone. When an opponent takes a stone from the stack
+ * (or passes) instead of placing one, the stones that could have been placed at that moment become unlikely for that
+ * opponent. The probabilities are kept consistent with the known hand and stack sizes by a few rounds of iterative
+ * proportional fitting, which makes every update O(players * stones) instead of a replay of the game.
+ *
+ * The owner should be seated in the game itself, a tracker of a player that is not (such as the bot behind a
+ * {@link nl.supertom01.triominos.bots.BudgetedPlayer}) does not track any opponents.
+ */
+public class BeliefTracker implements GameListener {
+
+    /** The factor with which the likelihood of a stone is multiplied when the opponent could have placed it. */
+    public static final double DRAW_EVIDENCE = 0.05;
+
+    /** The number of fitting iterations after an update. */
+    private static final int ITERATIONS = 6;
+
+    /** The player that holds the beliefs. */
+    private final Player owner;
+
+    /** The other players in the game, the last row of the probabilities belongs to the stack. */
+    private Player[] opponents;
+
+    /** The probability that the player of a row holds the stone with a given id. */
+    private double[][] probabilities;
+
+    /** The stones that the owner has not seen yet. */
+    private long unseen;
+
+    /** The players that have taken a stone from the stack in the current turn. */
+    private Player drawn;
+
+    /** Reused buffer for the replies of an opponent. */
+    private final LongList replies;
+
+    /** The most points of each stone in the replies of an opponent, by the id of the stone. */
+    private final int[] replyPoints;
+
+    public BeliefTracker(Player owner) {
+        this.owner = owner;
+        this.opponents = new Player[0];
+        this.probabilities = new double[1][Board.NR_STONES];
+        this.replies = new LongList();
+        this.replyPoints = new int[Board.NR_STONES];
+    }
+
+    public Player[] getOpponents() {
+        return opponents;
+    }
+
+    public long getUnseenMask() {
+        return unseen;
+    }
+
+    /**
+     * Get the probability that an opponent holds a stone.
+     * @param opponent The opponent.
+     * @param id       The id of the stone.
+     * @return The probability, which is 0 for stones that the owner has seen.
+     */
+    public double getProbability(Player opponent, int id) {
+        int row = rowOf(opponent);
+        return row < 0 ? 0 : probabilities[row][id];
+    }
+
+    /**
+     * Get the probability that a stone is still on the stack.
+     * @param id The id of the stone.
+     * @return The probability, which is 0 for stones that the owner has seen.
+     */
+    public double getStackProbability(int id) {
+        return probabilities[opponents.length][id];
+    }
+
+    /**
+     * Get the stones that an opponent could possibly hold.
+     * @param opponent The opponent.
+     * @return A bit mask with the stones that have a non-zero probability.
+     */
+    public long getPossibleMask(Player opponent) {
+        int row = rowOf(opponent);
+        long possible = 0;
+        if(row >= 0) {
+            for (long mask = unseen; mask != 0; mask &= mask - 1) {
+                int id = Long.numberOfTrailingZeros(mask);
+                if(probabilities[row][id] > 0) {
+                    possible |= 1L << id;
+                }
+            }
+        }
+        return possible;
+    }
+
+    /**
+     * Samples a complete assignment of the unseen stones which is consistent with the hand sizes of the opponents.
+     * Each opponent's hand is drawn, without replacement, proportional to the current probabilities. The stones that
+     * are not assigned to an opponent form the stack.
+     * @param random The source of randomness.
+     * @return The sampled hands, in the order of {@link #getOpponents()}.
+     */
+    public long[] sampleHands(Random random) {
+        long[] hands = new long[opponents.length];
+        long pool = unseen;
+        for (int row = 0; row < opponents.length; row++) {
+            int size = opponents[row].getStoneCount();
+            for (int i = 0; i < size && pool != 0; i++) {
+                int id = pick(probabilities[row], pool, random);
+                hands[row] |= 1L << id;
+                pool &= ~(1L << id);
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * Picks a stone from a pool, proportional to the provided weights. Falls back on a uniform choice when all the
+     * stones in the pool have a weight of 0.
+     */
+    private static int pick(double[] weights, long pool, Random random) {
+        double total = 0;
+        for (long mask = pool; mask != 0; mask &= mask - 1) {
+            total += weights[Long.numberOfTrailingZeros(mask)];
+        }
+        if(total > 0) {
+            double target = random.nextDouble() * total;
+            int last = -1;
+            for (long mask = pool; mask != 0; mask &= mask - 1) {
+                last = Long.numberOfTrailingZeros(mask);
+                target -= weights[last];
+                if(target < 0) {
+                    return last;
+                }
+            }
+            return last;
+        }
+        int skip = random.nextInt(Long.bitCount(pool));
+        long mask = pool;
+        for (int i = 0; i < skip; i++) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Estimates the points of the best reply of an opponent, as if the opponent holds each unseen stone independently
+     * with its probability. Going from the stone with the most points down, a stone is the one that is played when the
+     * opponent holds it and none of the better ones. When the opponent holds none of the stones that fit, it draws.
+     * @param board    The board on which the opponent replies.
+     * @param opponent The opponent.
+     * @return The expected points, 0 if the opponent is not tracked.
+     */
+    public double getExpectedReply(Board board, Player opponent) {
+        int row = rowOf(opponent);
+        if(row < 0) {
+            return 0;
+        }
+        long possible = getPossibleMask(opponent);
+        replies.clear();
+        board.generatePlacements(possible, replies);
+        Arrays.fill(replyPoints, Integer.MIN_VALUE);
+        long fitting = 0;
+        for (int i = 0; i < replies.size(); i++) {
+            long placement = replies.get(i);
+            int id = Placement.getId(placement);
+            int points = board.determinePoints(Placement.toMove(placement, board.getStone(id)),
+                opponent.getStoneCount());
+            replyPoints[id] = Math.max(replyPoints[id], points);
+            fitting |= 1L << id;
+        }
+
+        double expected = 0;
+        double none = 1;
+        while (fitting != 0) {
+            int best = Long.numberOfTrailingZeros(fitting);
+            for (long mask = fitting & fitting - 1; mask != 0; mask &= mask - 1) {
+                int id = Long.numberOfTrailingZeros(mask);
+                if(replyPoints[id] > replyPoints[best]) {
+                    best = id;
+                }
+            }
+            double probability = Math.min(1, probabilities[row][best]);
+            expected += none * probability * replyPoints[best];
+            none *= 1 - probability;
+            fitting &= ~(1L << best);
+        }
+        return expected + none * board.determinePoints(null, opponent.getStoneCount());
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        Player[] players = game.getPlayers();
+        if(game.getPlayerIndex(owner) < 0) {
+            players = new Player[0];
+        }
+        this.opponents = Arrays.stream(players).filter(player -> player != owner).toArray(Player[]::new);
+        this.probabilities = new double[opponents.length + 1][Board.NR_STONES];
+        this.unseen = game.getBoard().getUnseenMask(owner);
+        for (double[] row : probabilities) {
+            for (long mask = unseen; mask != 0; mask &= mask - 1) {
+                row[Long.numberOfTrailingZeros(mask)] = 1;
+            }
+        }
+        fit(game.getBoard(), null);
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        this.drawn = null;
+    }
+
+    @Override
+    public void stoneDrawn(Game game, Player player) {
+        this.drawn = player;
+        reveal(game.getBoard());
+        int row = rowOf(player);
+        if(row < 0) {
+            fit(game.getBoard(), null);
+            return;
+        }
+
+        // The opponent did not hold any of the stones that fit, given the hand before the draw.
+        Board board = game.getBoard();
+        avoid(row, board.getPlayableStones(unseen));
+        fit(board, player);
+
+        // One of the stones on the stack moved into the hand of the opponent.
+        double[] stack = probabilities[opponents.length];
+        double share = 1.0 / (board.getStackSize() + 1);
+        for (long mask = unseen; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            probabilities[row][id] += stack[id] * share;
+            stack[id] *= 1 - share;
+        }
+        fit(board, null);
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        Board board = game.getBoard();
+        reveal(board);
+        int row = rowOf(player);
+        if(move == null && drawn != player && row >= 0) {
+            // The opponent passed, so nothing that fits is in their hand.
+            avoid(row, board.getPlayableStones(unseen));
+        }
+        fit(board, null);
+    }
+
+    /**
+     * Removes the stones that have become visible to the owner from the beliefs.
+     */
+    private void reveal(Board board) {
+        long now = board.getUnseenMask(owner);
+        for (long mask = unseen & ~now; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            for (double[] row : probabilities) {
+                row[id] = 0;
+            }
+        }
+        this.unseen = now;
+    }
+
+    private void avoid(int row, long stones) {
+        for (long mask = stones & unseen; mask != 0; mask &= mask - 1) {
+            probabilities[row][Long.numberOfTrailingZeros(mask)] *= DRAW_EVIDENCE;
+        }
+    }
+
+    /**
+     * Scales the probabilities such that every unseen stone is somewhere with probability 1 and every row holds as
+     * many stones as the hand (or stack) it belongs to.
+     * @param board   The board, from which the stack size is read.
+     * @param drawing A player whose last drawn stone should not be counted yet, or null.
+     */
+    private void fit(Board board, Player drawing) {
+        int rows = opponents.length + 1;
+        double[] targets = new double[rows];
+        for (int row = 0; row < opponents.length; row++) {
+            targets[row] = opponents[row].getStoneCount() - (opponents[row] == drawing ? 1 : 0);
+        }
+        targets[opponents.length] = board.getStackSize() + (drawing != null ? 1 : 0);
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            for (int row = 0; row < rows; row++) {
+                double sum = 0;
+                for (long mask = unseen; mask != 0; mask &= mask - 1) {
+                    sum += probabilities[row][Long.numberOfTrailingZeros(mask)];
+                }
+                double scale = sum > 0 ? targets[row] / sum : 0;
+                for (long mask = unseen; mask != 0; mask &= mask - 1) {
+                    probabilities[row][Long.numberOfTrailingZeros(mask)] *= scale;
+                }
+            }
+            for (long mask = unseen; mask != 0; mask &= mask - 1) {
+                int id = Long.numberOfTrailingZeros(mask);
+                double sum = 0;
+                for (int row = 0; row < rows; row++) {
+                    sum += probabilities[row][id];
+                }
+                for (int row = 0; row < rows; row++) {
+                    if(sum > 0) {
+                        probabilities[row][id] /= sum;
+                    } else {
+                        probabilities[row][id] = targets[row] > 0 ? 1.0 / rows : 0;
+                    }
+                }
+            }
+        }
+    }
+
+    private int rowOf(Player player) {
+        for (int row = 0; row < opponents.length; row++) {
+            if(opponents[row] == player) {
+                return row;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,292 @@
+package nl.supertom01.triominos.ai;
+
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Zobrist;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Plays the end of a two-player round perfectly.
+ * Once the stack is empty, the hand of the opponent is known: it consists of all the stones that are neither on the
+ * board nor in the own hand. What is left of the round is then a game of perfect information, which is solved with a
+ * negamax search (alpha-beta pruning, iterative deepening by a {@link SearchController}) on the difference in points
+ * between the two players. Results are memoized in a {@link TranspositionTable}, keyed on the {@link Zobrist} hash of
+ * the board, both hands, the number of passes in a row and the player to move. Solvers on several threads can share
+ * a table, such that each of them profits from the positions the others have searched.
+ *
+ * The board is changed during the search, but it is always restored before {@link #solve} returns. Interrupting the
+ * searching thread stops the search like an exhausted time budget does.
+ */
+public class EndgameSolver {
+
+    /** The placement that is returned when the best option is to pass. */
+    public static final long PASS = -1;
+
+    /** The default number of entries in the transposition table, as a power of two. */
+    public static final int DEFAULT_TABLE_BITS = 18;
+
+    /** The number of points that are lost when a player cannot place a stone. */
+    private static final int PASS_POINTS = -5;
+
+    private static final int MAX_PLY = 128;
+
+
+    /** Thrown (without a stack trace) when the time budget has been used up. */
+    private static final RuntimeException TIMEOUT = new RuntimeException("timeout", null, false, false) {
+    };
+
+    /**
+     * The searched positions. The flag of an entry is set when its value depends on a position in which the search was
+     * cut off.
+     */
+    private final TranspositionTable table;
+
+    /** Reused buffers for the placements and their points, per ply. */
+    private final LongList[] moves;
+    private final int[][] points;
+
+    private final SearchController controller;
+    private final SearchController.IterativeSearch iterations;
+
+    // The position that is being solved.
+    private Board board;
+    private long hand;
+    private long opponentHand;
+    private int passes;
+    private long nodes;
+    private boolean cutOff;
+    private long rootBest;
+
+    /**
+     * Creates a solver that searches until the round has been solved or its time is up.
+     * @param tableBits The number of entries of the transposition table, as a power of two.
+     */
+    public EndgameSolver(int tableBits) {
+        this(tableBits, SearchController.NEVER);
+    }
+
+    /**
+     * Creates a solver with a transposition table of its own.
+     * @param tableBits        The number of entries of the transposition table, as a power of two.
+     * @param stableIterations The number of iterations with the same best placement after which the search stops, or
+     *                         {@link SearchController#NEVER}.
+     */
+    public EndgameSolver(int tableBits, int stableIterations) {
+        this(new TranspositionTable(tableBits), stableIterations);
+    }
+
+    /**
+     * Creates a solver.
+     * @param table            The transposition table, which may be shared with solvers on other threads.
+     * @param stableIterations The number of iterations with the same best placement after which the search stops, or
+     *                         {@link SearchController#NEVER}.
+     */
+    public EndgameSolver(TranspositionTable table, int stableIterations) {
+        this.controller = new SearchController("Endgame Solver", stableIterations);
+        this.iterations = new SearchController.IterativeSearch() {
+            @Override
+            public SearchController.Iteration iterate(int depth) {
+                return EndgameSolver.this.iterate(depth);
+            }
+
+            @Override
+            public long getNodes() {
+                return nodes;
+            }
+        };
+        this.table = table;
+        this.moves = new LongList[MAX_PLY];
+        this.points = new int[MAX_PLY][];
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            this.moves[ply] = new LongList();
+            this.points[ply] = new int[64];
+        }
+    }
+
+    /**
+     * Searches the best move for the player to move.
+     * @param board        The board, of which the stack should be empty.
+     * @param hand         The stones of the player to move.
+     * @param opponentHand The stones of the opponent.
+     * @param passes       The number of players that have passed in a row just before this move.
+     * @param budgetNanos  The time that may be spent.
+     * @return The deepest completed result, or null if not even a single ply could be searched in time.
+     */
+    public SearchController.Result solve(Board board, long hand, long opponentHand, int passes, long budgetNanos) {
+        this.board = board;
+        this.hand = hand;
+        this.opponentHand = opponentHand;
+        this.passes = passes;
+        this.nodes = 0;
+        table.newSearch();
+        int maxDepth = Math.min(MAX_PLY - 1, 2 * (Long.bitCount(hand) + Long.bitCount(opponentHand)) + 2);
+        return controller.search(iterations, maxDepth, budgetNanos);
+    }
+
+    /**
+     * Searches the current position to a fixed depth.
+     * @return The iteration, or null if the time was up.
+     */
+    private SearchController.Iteration iterate(int depth) {
+        cutOff = false;
+        int score;
+        try {
+            score = negamax(hand, opponentHand, Zobrist.hand(0, hand), Zobrist.hand(1, opponentHand), passes, depth,
+                -Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2, 0);
+        } catch (RuntimeException e) {
+            if(e != TIMEOUT) {
+                throw e;
+            }
+            return null;
+        }
+        return new SearchController.Iteration(rootBest, score, !cutOff);
+    }
+
+    /**
+     * Searches a position. The player to move at the root is side 0, the hands are hashed by their side.
+     */
+    private int negamax(long mover, long other, long moverKey, long otherKey, int passes, int depth, int alpha,
+                        int beta, int ply) {
+        if((++nodes & 1023) == 0 && controller.isTimeUp()) {
+            throw TIMEOUT;
+        }
+        if(depth == 0) {
+            cutOff = true;
+            return 0;
+        }
+
+        // Look the position up in the transposition table.
+        int side = ply & 1;
+        long key = board.getHash() ^ moverKey ^ otherKey ^ Zobrist.passes(passes) ^ (side == 0 ? 0 : Zobrist.SIDE);
+        long entry = table.probe(key);
+        long ttMove = PASS;
+        if(entry != TranspositionTable.MISSING) {
+            ttMove = TranspositionTable.getMove(entry);
+            boolean inexact = TranspositionTable.getFlag(entry);
+            if(ply > 0 && (!inexact || TranspositionTable.getDepth(entry) >= depth)) {
+                int value = TranspositionTable.getValue(entry);
+                int bound = TranspositionTable.getBound(entry);
+                if(bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && value >= beta)
+                        || (bound == TranspositionTable.UPPER && value <= alpha)) {
+                    cutOff |= inexact;
+                    return value;
+                }
+            }
+        }
+
+        boolean cutOffBefore = cutOff;
+        cutOff = false;
+        int alphaBefore = alpha;
+        int best;
+        long bestMove = PASS;
+
+        LongList list = moves[ply];
+        list.clear();
+        int count = board.generatePlacements(mover, list);
+        if(count == 0) {
+            // Pass, the round ends when both players have passed.
+            if(passes + 1 >= 2) {
+                best = PASS_POINTS;
+            } else {
+                best = PASS_POINTS - negamax(other, mover, otherKey, moverKey, passes + 1, depth - 1,
+                    PASS_POINTS - beta, PASS_POINTS - alpha, ply + 1);
+            }
+        } else {
+            int[] scores = scoreMoves(list, count, mover, ply);
+            best = -Integer.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                selectNext(list, scores, i, count, ttMove);
+                long placement = list.get(i);
+                int gained = scores[i];
+                long rest = mover & ~(1L << Placement.getId(placement));
+                int value;
+                if(rest == 0) {
+                    // The round ends as soon as a player has placed all their stones.
+                    value = gained;
+                } else {
+                    Move move = place(placement);
+                    try {
+                        value = gained - negamax(other, rest, otherKey,
+                            moverKey ^ Zobrist.stone(side, Placement.getId(placement)), 0, depth - 1,
+                            gained - beta, gained - alpha, ply + 1);
+                    } finally {
+                        board.removeStone(move);
+                    }
+                }
+                if(value > best) {
+                    best = value;
+                    bestMove = placement;
+                }
+                alpha = Math.max(alpha, value);
+                if(alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        // Store the result.
+        boolean inexact = cutOff;
+        cutOff |= cutOffBefore;
+        int bound = best <= alphaBefore ? TranspositionTable.UPPER
+            : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, TranspositionTable.pack(bestMove, best, depth, bound, inexact));
+        if(ply == 0) {
+            rootBest = bestMove;
+        }
+        return best;
+    }
+
+    /**
+     * Determines the points of each placement in the list.
+     */
+    private int[] scoreMoves(LongList list, int count, long mover, int ply) {
+        if(points[ply].length < count) {
+            points[ply] = new int[count * 2];
+        }
+        int[] scores = points[ply];
+        int stones = Long.bitCount(mover);
+        for (int i = 0; i < count; i++) {
+            long placement = list.get(i);
+            scores[i] = board.determinePoints(
+                Placement.toMove(placement, board), stones);
+        }
+        return scores;
+    }
+
+    /**
+     * Moves the most promising remaining placement to position i: the best move from the transposition table first,
+     * then the one that gains the most points.
+     */
+    private static void selectNext(LongList list, int[] scores, int i, int count, long ttMove) {
+        int best = i;
+        for (int j = i; j < count; j++) {
+            if(list.get(j) == ttMove) {
+                best = j;
+                break;
+            }
+            if(scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if(best != i) {
+            long placement = list.get(i);
+            list.set(i, list.get(best));
+            list.set(best, placement);
+            int score = scores[i];
+            scores[i] = scores[best];
+            scores[best] = score;
+        }
+    }
+
+    private Move place(long placement) {
+        Move move = Placement.toMove(placement, board);
+        try {
+            board.placeStone(move);
+        } catch (PlacementException e) {
+            throw new IllegalStateException(e);
+        }
+        return move;
+    }
+}
@@ -0,0 +1,50 @@
+package nl.supertom01.triominos.ai;
+
+/**
+ * The time a player has left for the rest of a game, with an optional increment per move. The budget of a move is an
+ * even share of the remaining time over the moves that are still expected, so a player that searches within its
+ * budgets does not run out of time.
+ */
+public class GameClock {
+
+    /** The largest part of the remaining time that is given to a single move. */
+    public static final double MAX_SHARE = 0.25;
+
+    private final long incrementNanos;
+    private long remainingNanos;
+
+    /**
+     * Creates a clock.
+     * @param totalNanos     The time for the whole game.
+     * @param incrementNanos The time that is added after each move.
+     */
+    public GameClock(long totalNanos, long incrementNanos) {
+        if(totalNanos < 0 || incrementNanos < 0) {
+            throw new IllegalArgumentException("The time of a clock cannot be negative.");
+        }
+        this.remainingNanos = totalNanos;
+        this.incrementNanos = incrementNanos;
+    }
+
+    public long getRemainingNanos() {
+        return remainingNanos;
+    }
+
+    /**
+     * Get the budget of the next move.
+     * @param movesToGo The number of moves the player still expects to make, including this one.
+     * @return The time that may be spent on the move.
+     */
+    public long allocate(int movesToGo) {
+        long share = remainingNanos / Math.max(1, movesToGo);
+        return Math.min(share, (long) (remainingNanos * MAX_SHARE)) + incrementNanos;
+    }
+
+    /**
+     * Takes the time of a move off the clock and adds the increment.
+     * @param nanos The time the move took.
+     */
+    public void spend(long nanos) {
+        remainingNanos = Math.max(0, remainingNanos - nanos) + incrementNanos;
+    }
+}
@@ -0,0 +1,360 @@
+package nl.supertom01.triominos.ai;
+
+import java.util.Arrays;
+import nl.supertom01.triominos.metrics.Metrics;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.StoneVariants;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Keeps the legal moves of a single hand: for every open field, the stones of the hand that fit on it in each
+ * rotation. Whether a stone fits only depends on the three cells that share an edge with the field, so after a
+ * placement only the cell of the stone and the four cells around it are recomputed. When stones enter or leave the
+ * hand, only those stones are checked against the open fields. The stones that can be played anywhere are counted
+ * per stone, so {@link #getPlayableStones()} does not have to look at the board at all.
+ *
+ * The fields are kept in the order in which they were opened, which is the order in which
+ * {@link Board#generatePlacements(long, LongList)} visits them as long as no stone has been taken back from the board.
+ * Stones that are placed and taken back between two updates (while searching) do not affect the legal moves, only
+ * their order. When a stone that was already on the board at the previous update has been taken back, everything is
+ * recomputed, see {@link Board#getPlacementModification(int)}.
+ */
+public class LegalMoveCache {
+
+    /** The bits of an entry in the table that hold the index of the field plus one, a cell leaves them 0. */
+    private static final long INDEX = 0x7FFF;
+
+    /** The number of fields there is room for at first, the buffers grow with the board. */
+    private static final int FIELDS = 16;
+
+    /**
+     * The open fields by their cell, see {@link #cell(int, int)}, with linear probing. An entry is the cell with the
+     * index of the field plus one in its {@link #INDEX} bits, 0 for an empty slot.
+     */
+    private long[] table;
+    private int mask;
+
+    /** The cells of the fields in the order in which they were opened, which is the order of the board. */
+    private final LongList cells;
+
+    // The fields by their index. A field on which a stone has been placed keeps its index, without an orientation.
+    private Orientation[] orientations;
+    private long[] fieldFits;
+    private long[] alls;
+    private int open;
+
+    /** The number of fields on which each stone fits, by id. */
+    private final int[] counts;
+
+    /** The stones of which the count is not 0. */
+    private long playable;
+
+    // The state of the board and the hand at the last update.
+    private Board board;
+    private int resets;
+    private int modifications;
+    private int synced;
+    private int stamp;
+    private long hand;
+
+    /** The number of times the stones have been fitted on a field during the last update. */
+    private int checks;
+
+    /** Reused buffer for the stones that fit on a field, per rotation. */
+    private final long[] fits;
+
+    public LegalMoveCache() {
+        this.table = new long[FIELDS * 4];
+        this.mask = table.length - 1;
+        this.cells = new LongList(FIELDS);
+        this.orientations = new Orientation[FIELDS];
+        this.fieldFits = new long[FIELDS * StoneVariants.ROTATIONS];
+        this.alls = new long[FIELDS];
+        this.counts = new int[Board.NR_STONES];
+        this.fits = new long[StoneVariants.ROTATIONS];
+    }
+
+    /**
+     * Brings the cache up to date with the board and the hand. Only the placements since the previous update are
+     * looked at, unless the board has been reset, is another board or a stone that was on it has been taken back, in
+     * which case everything is recomputed.
+     * @param board The board.
+     * @param hand  The stones in the hand, as a bit mask.
+     */
+    public void update(Board board, long hand) {
+        checks = 0;
+        int count = board.getPlacementCount();
+        if(board != this.board || board.getResetCount() != resets || synced == 0 || (
+            board.getModificationCount() != modifications
+                && (count < synced || board.getPlacementModification(synced - 1) != stamp))) {
+            rebuild(board, hand);
+            return;
+        }
+
+        // The stones that left the hand no longer fit anywhere, the stones that entered it are checked everywhere.
+        long removed = this.hand & ~hand;
+        long added = hand & ~this.hand;
+        if(removed != 0 || added != 0) {
+            for (int i = 0; i < cells.size(); i++) {
+                if(orientations[i] == null) {
+                    continue;
+                }
+                long cell = cells.get(i);
+                if(added != 0) {
+                    checks++;
+                    board.fitStones(Placement.getX(cell), Placement.getY(cell), orientations[i], added, fits);
+                } else {
+                    Arrays.fill(fits, 0);
+                }
+                long all = 0;
+                for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+                    int at = i * StoneVariants.ROTATIONS + rotation;
+                    fieldFits[at] = (fieldFits[at] & ~removed) | fits[rotation];
+                    all |= fieldFits[at];
+                }
+                setAll(i, all);
+            }
+        }
+        this.hand = hand;
+
+        // First refresh or drop the fields around the new placements, then add the new fields in the order of the
+        // board: by the stone that opened them, above or below it first and then to the left and the right.
+        for (int i = synced; i < count; i++) {
+            int x = board.getPlacementX(i);
+            int y = board.getPlacementY(i);
+            refresh(x, y);
+            refresh(x - 1, y);
+            refresh(x + 1, y);
+            refresh(x, y - 1);
+            refresh(x, y + 1);
+        }
+        for (int i = synced; i < count; i++) {
+            addFields(board.getPlacementX(i), board.getPlacementY(i));
+        }
+        synced(count);
+    }
+
+    private void rebuild(Board board, long hand) {
+        for (int i = 0; i < cells.size(); i++) {
+            setAll(i, 0);
+        }
+        Arrays.fill(table, 0);
+        Arrays.fill(orientations, 0, cells.size(), null);
+        cells.clear();
+        open = 0;
+        this.board = board;
+        this.resets = board.getResetCount();
+        this.hand = hand;
+        int count = board.getPlacementCount();
+        for (int i = 0; i < count; i++) {
+            addFields(board.getPlacementX(i), board.getPlacementY(i));
+        }
+        synced(count);
+    }
+
+    /**
+     * Remembers the state of the board up to which the fields are known.
+     */
+    private void synced(int count) {
+        this.synced = count;
+        this.modifications = board.getModificationCount();
+        this.stamp = count == 0 ? 0 : board.getPlacementModification(count - 1);
+    }
+
+    /**
+     * Adds the fields that are opened by the stone on a cell, if they are not known yet.
+     */
+    private void addFields(int x, int y) {
+        Stone stone = board.getStoneAt(x, y);
+        if(stone == null) {
+            return;
+        }
+        Orientation orientation = stone.getOrientation() == Orientation.TOP ? Orientation.DOWN : Orientation.TOP;
+        addField(x, stone.getOrientation() == Orientation.TOP ? y - 1 : y + 1, orientation);
+        addField(x - 1, y, orientation);
+        addField(x + 1, y, orientation);
+    }
+
+    private void addField(int x, int y, Orientation orientation) {
+        long cell = cell(x, y);
+        if(board.getStoneAt(x, y) != null || find(cell) >= 0) {
+            return;
+        }
+        int index = cells.size();
+        if(index == orientations.length) {
+            orientations = Arrays.copyOf(orientations, index * 2);
+            fieldFits = Arrays.copyOf(fieldFits, index * 2 * StoneVariants.ROTATIONS);
+            alls = Arrays.copyOf(alls, index * 2);
+        }
+        if(index * 2 >= table.length) {
+            grow();
+        }
+        cells.add(cell);
+        insert(cell, index);
+        orientations[index] = orientation;
+        alls[index] = 0;
+        open++;
+        compute(x, y, index);
+    }
+
+    /**
+     * Recomputes a known field, or drops it if a stone has been placed on it.
+     */
+    private void refresh(int x, int y) {
+        int index = find(cell(x, y));
+        if(index < 0 || orientations[index] == null) {
+            return;
+        }
+        if(board.getOpenFieldOrientation(x, y) == null) {
+            setAll(index, 0);
+            orientations[index] = null;
+            open--;
+        } else {
+            compute(x, y, index);
+        }
+    }
+
+    private void compute(int x, int y, int index) {
+        checks++;
+        setAll(index, board.fitStones(x, y, orientations[index], hand, fits));
+        System.arraycopy(fits, 0, fieldFits, index * StoneVariants.ROTATIONS, StoneVariants.ROTATIONS);
+    }
+
+    /**
+     * Changes the stones that fit on a field, keeping the counts of the stones up to date.
+     */
+    private void setAll(int index, long all) {
+        for (long mask = alls[index] & ~all; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            if(--counts[id] == 0) {
+                playable &= ~(1L << id);
+            }
+        }
+        for (long mask = all & ~alls[index]; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            if(counts[id]++ == 0) {
+                playable |= 1L << id;
+            }
+        }
+        alls[index] = all;
+    }
+
+    /**
+     * Looks up the index of a field.
+     * @return The index, or -1 if the cell has never been an open field since the last rebuild.
+     */
+    private int find(long cell) {
+        for (int slot = (int) mix(cell) & mask; ; slot = (slot + 1) & mask) {
+            long entry = table[slot];
+            if(entry == 0) {
+                return -1;
+            } else if((entry & ~INDEX) == cell) {
+                return (int) (entry & INDEX) - 1;
+            }
+        }
+    }
+
+    private void insert(long cell, int index) {
+        int slot = (int) mix(cell) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = cell | (index + 1);
+    }
+
+    /**
+     * Doubles the table, keeping at least half of the slots empty so a miss stays short.
+     */
+    private void grow() {
+        table = new long[table.length * 2];
+        mask = table.length - 1;
+        for (int i = 0; i < cells.size(); i++) {
+            insert(cells.get(i), i);
+        }
+    }
+
+    /**
+     * Get the stones of the hand that can be placed on at least one open field.
+     * @return The stones as a bit mask, all the stones of the hand on an empty board.
+     */
+    public long getPlayableStones() {
+        return board != null && board.isEmpty() ? hand : playable;
+    }
+
+    /**
+     * Get the stones of the hand that fit on a field.
+     * @param x The x-coordinate of the field.
+     * @param y The y-coordinate of the field.
+     * @return The stones that fit in any rotation, 0 if the cell is not an open field.
+     */
+    public long getStones(int x, int y) {
+        int index = find(cell(x, y));
+        return index < 0 ? 0 : alls[index];
+    }
+
+    /**
+     * Get the number of open fields.
+     * @return The number of fields, whether a stone of the hand fits on them or not.
+     */
+    public int getFieldCount() {
+        return open;
+    }
+
+    /**
+     * Get the number of times the stones of the hand have been fitted on a field during the last update, each time in
+     * every rotation at once. Only the fields around new placements are checked again, and all the fields when
+     * stones entered the hand.
+     * @return The number of checks, 0 if nothing changed since the update before.
+     */
+    public int getFitCheckCount() {
+        return checks;
+    }
+
+    /**
+     * Generates every legal placement of the stones in the hand, the same placements as
+     * {@link Board#generatePlacements(long, LongList)} gives.
+     * @param placements The list to which the placements are added, see {@link Placement}.
+     * @return The number of placements that have been added.
+     */
+    public int generatePlacements(LongList placements) {
+        if(board != null && board.isEmpty()) {
+            return board.generatePlacements(hand, placements);
+        }
+        int added = 0;
+        for (int i = 0; i < cells.size(); i++) {
+            if(alls[i] == 0) {
+                continue;
+            }
+            long cell = cells.get(i);
+            int x = Placement.getX(cell);
+            int y = Placement.getY(cell);
+            for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+                int rotations = StoneVariants.rightRotations(orientations[i], rotation);
+                for (long mask = fieldFits[i * StoneVariants.ROTATIONS + rotation]; mask != 0; mask &= mask - 1) {
+                    placements.add(Placement.of(x, y, Long.numberOfTrailingZeros(mask), rotations));
+                    added++;
+                }
+            }
+        }
+        Metrics.get().countLegalMoves(added);
+        return added;
+    }
+
+    /**
+     * Packs the coordinates of a cell into a placement without a stone, which leaves the {@link #INDEX} bits 0.
+     */
+    private static long cell(int x, int y) {
+        return Placement.of(x, y, 0, 0);
+    }
+
+    /**
+     * Spreads the cells over the slots, the low bits of a cell are always 0.
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return key ^ (key >>> 33);
+    }
+}
@@ -0,0 +1,22 @@
+package nl.supertom01.triominos.ai;
+
+import nl.supertom01.triominos.model.Board;
+
+/**
+ * A search that picks the best placement for a hand. Implementations may change the board while searching, but should
+ * restore it before returning, and should stop early when the searching thread is interrupted.
+ */
+@FunctionalInterface
+public interface MoveSearch {
+
+    /**
+     * Searches the best placement.
+     * @param board       The board, which is owned by the calling thread.
+     * @param hand        The stones of the player to move.
+     * @param budgetNanos The time that may be spent.
+     * @return The best placement (see {@link nl.supertom01.triominos.model.Placement}), or
+     *         {@link EndgameSolver#PASS} if no stone should be placed.
+     */
+    long search(Board board, long hand, long budgetNanos);
+
+}
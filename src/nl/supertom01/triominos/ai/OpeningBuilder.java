@@ -0,0 +1,275 @@
+package nl.supertom01.triominos.ai;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Computes an {@link OpeningTable} for two-player rounds. Every position that can arise in the first plies is
+ * enumerated, and each of them is valued by playing out the next plies from a number of random deals of the stones
+ * that are not on the board yet, with both players making the move with the most points. The value is the average of
+ * the points the player who made the last move gains on the opponent during those plies.
+ *
+ * The deals of a position are seeded with its canonical hash, so the table does not depend on the number of threads.
+ */
+public class OpeningBuilder {
+
+    /** The default number of plies of which the positions are valued. */
+    public static final int DEFAULT_PLIES = 2;
+
+    /** The default number of deals from which each position is played out. */
+    public static final int DEFAULT_SAMPLES = 64;
+
+    /** The number of plies that is played out from a position. */
+    public static final int HORIZON = 8;
+
+    /**
+     * The valued positions.
+     * @param keys   The canonical hashes of the positions, in ascending order.
+     * @param values The values of the positions, in hundredths of a point.
+     */
+    public record Entries(long[] keys, int[] values) {
+    }
+
+    private final int plies;
+    private final int samples;
+
+    /**
+     * Creates a builder.
+     * @param plies   The number of plies of which the positions are valued.
+     * @param samples The number of deals from which each position is played out.
+     */
+    public OpeningBuilder(int plies, int samples) {
+        if(plies < 1 || samples < 1) {
+            throw new IllegalArgumentException("An opening table needs at least a ply and a sample.");
+        }
+        this.plies = plies;
+        this.samples = samples;
+    }
+
+    /**
+     * Enumerates the positions after the first plies, each once, as the placements that lead to it.
+     * @return The positions, ordered by the number of stones on the board.
+     */
+    public List<long[]> enumerate() {
+        List<long[]> positions = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<long[]> frontier = List.of(new long[0]);
+        LongList placements = new LongList();
+        for (int ply = 1; ply <= plies; ply++) {
+            List<long[]> next = new ArrayList<>();
+            for (long[] position : frontier) {
+                Board board = replay(position);
+                placements.clear();
+                board.generatePlacements(Stone.ALL & ~board.getBoardMask(), placements);
+                for (int i = 0; i < placements.size(); i++) {
+                    Move move = place(board, placements.get(i));
+                    if(seen.add(board.getCanonicalHash())) {
+                        long[] extended = Arrays.copyOf(position, ply);
+                        extended[ply - 1] = placements.get(i);
+                        next.add(extended);
+                    }
+                    board.removeStone(move);
+                }
+            }
+            positions.addAll(next);
+            frontier = next;
+        }
+        return positions;
+    }
+
+    /**
+     * Values all the positions of the first plies.
+     * @param threads The number of threads.
+     * @return The positions and their values.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the positions.
+     */
+    public Entries build(int threads) throws InterruptedException {
+        List<long[]> positions = enumerate();
+        long[] keys = new long[positions.size()];
+        int[] values = new int[positions.size()];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < keys.length; i = next.getAndIncrement()) {
+                        Board board = replay(positions.get(i));
+                        keys[i] = board.getCanonicalHash();
+                        values[i] = evaluate(board, positions.get(i).length);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Sort the entries by their key.
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+        long[] sortedKeys = new long[keys.length];
+        int[] sortedValues = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        return new Entries(sortedKeys, sortedValues);
+    }
+
+    /**
+     * Builds the table and writes it to a file.
+     * @param path    The file.
+     * @param threads The number of threads.
+     * @return The number of positions in the table.
+     * @throws IOException          If the file cannot be written.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the positions.
+     */
+    public int write(Path path, int threads) throws IOException, InterruptedException {
+        Entries entries = build(threads);
+        OpeningTable.write(path, plies, entries.keys(), entries.values());
+        return entries.keys().length;
+    }
+
+    /**
+     * Values a position by playing it out from a number of deals.
+     * @param board  The board after the last move, it is restored before returning.
+     * @param placed The number of stones on the board, which were placed by the players in turn.
+     * @return The points the player who placed the last stone gains, on average, in hundredths.
+     */
+    private int evaluate(Board board, int placed) {
+        Random random = new Random(board.getCanonicalHash());
+        int[] rest = new int[Board.NR_STONES - placed];
+        int count = 0;
+        for (long mask = Stone.ALL & ~board.getBoardMask(); mask != 0; mask &= mask - 1) {
+            rest[count++] = Long.numberOfTrailingZeros(mask);
+        }
+        // The player who just moved placed the odd stones, the opponent the even ones.
+        int moverStones = Game.STOCK_SIZE - (placed + 1) / 2;
+        int opponentStones = Game.STOCK_SIZE - placed / 2;
+        LongList placements = new LongList();
+        List<Move> moves = new ArrayList<>();
+        long total = 0;
+        for (int sample = 0; sample < samples; sample++) {
+            for (int i = rest.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int id = rest[i];
+                rest[i] = rest[j];
+                rest[j] = id;
+            }
+            long[] hands = new long[2];
+            for (int i = 0; i < opponentStones; i++) {
+                hands[0] |= 1L << rest[i];
+            }
+            for (int i = opponentStones; i < opponentStones + moverStones; i++) {
+                hands[1] |= 1L << rest[i];
+            }
+            total += playOut(board, hands, rest, opponentStones + moverStones, placements, moves);
+        }
+        return (int) Math.round(total * 100.0 / samples);
+    }
+
+    /**
+     * Plays {@link #HORIZON} plies, the opponent (hand 0) first, with the move with the most points for each player.
+     * @return The points of the mover (hand 1) minus the points of the opponent.
+     */
+    private static int playOut(Board board, long[] hands, int[] stack, int stackIndex, LongList placements,
+                               List<Move> moves) {
+        int difference = 0;
+        int passes = 0;
+        moves.clear();
+        for (int ply = 0; ply < HORIZON && passes < 2; ply++) {
+            int player = ply & 1;
+            placements.clear();
+            board.generatePlacements(hands[player], placements);
+            int stones = Long.bitCount(hands[player]);
+            long best = EndgameSolver.PASS;
+            int points = board.determinePoints(null, stones);
+            for (int i = 0; i < placements.size(); i++) {
+                long placement = placements.get(i);
+                int gained = board.determinePoints(
+                    Placement.toMove(placement, board), stones);
+                if(best == EndgameSolver.PASS || gained > points) {
+                    best = placement;
+                    points = gained;
+                }
+            }
+            if(best != EndgameSolver.PASS) {
+                moves.add(place(board, best));
+                hands[player] &= ~(1L << Placement.getId(best));
+                passes = 0;
+            } else if(stackIndex < stack.length) {
+                hands[player] |= 1L << stack[stackIndex++];
+            } else {
+                passes++;
+            }
+            difference += player == 1 ? points : -points;
+            if(hands[player] == 0) {
+                break;
+            }
+        }
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            board.removeStone(moves.get(i));
+        }
+        return difference;
+    }
+
+    private static Board replay(long[] placements) {
+        Board board = new Board(0);
+        for (long placement : placements) {
+            place(board, placement);
+        }
+        return board;
+    }
+
+    private static Move place(Board board, long placement) {
+        Move move = Placement.toMove(placement, board);
+        try {
+            board.placeStone(move);
+        } catch (PlacementException e) {
+            throw new IllegalStateException(e);
+        }
+        return move;
+    }
+
+    /**
+     * Usage: {@code OpeningBuilder <table file> [plies] [samples]}
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 1) {
+            System.err.println("Usage: OpeningBuilder <table file> [plies] [samples]");
+            System.exit(2);
+        }
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SAMPLES;
+        long start = System.nanoTime();
+        int positions = new OpeningBuilder(plies, samples).write(Path.of(args[0]),
+            Runtime.getRuntime().availableProcessors());
+        System.out.printf("%d positions of %d plies in %.1f s%n", positions, plies, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,133 @@
+package nl.supertom01.triominos.ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import nl.supertom01.triominos.model.Board;
+
+/**
+ * The values of the positions of the first plies of a round, as computed by the {@link OpeningBuilder}. A position is
+ * identified by the {@link Board#getCanonicalHash() canonical hash} of the board right after a move, and its value is
+ * the number of points (in hundredths) that the player who made the move is expected to gain on the opponent during
+ * the next plies, averaged over the hands the players may hold. A player picks an opening by adding this value to the
+ * points of each placement.
+ *
+ * The table is read straight from a memory-mapped file. File layout (little endian): a header of {@value #HEADER}
+ * bytes with the magic number, the version, the number of plies and the number of entries, followed by the sorted
+ * keys (8 bytes each) and then the values (4 bytes each). A lookup is a binary search over the keys.
+ */
+public class OpeningTable {
+
+    /** Returned by {@link #get(long)} for positions that are not in the table. */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    static final int HEADER = 24;
+    private static final long MAGIC = 0x31304E50_4F495254L; // "TRIOPN01"
+    private static final int VERSION = 2;
+
+    private final ByteBuffer buffer;
+    private final int plies;
+    private final int size;
+
+    private OpeningTable(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.plies = buffer.getInt(12);
+        this.size = buffer.getInt(16);
+    }
+
+    /**
+     * Maps a table into memory.
+     * @param path The file.
+     * @return The table.
+     * @throws IOException If the file cannot be mapped or is not an opening table.
+     */
+    public static OpeningTable open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if(channel.size() < HEADER || buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION
+                || channel.size() != HEADER + 12L * buffer.getInt(16)) {
+                throw new IOException("Not an opening table: " + path);
+            }
+            return new OpeningTable(buffer);
+        }
+    }
+
+    /**
+     * Writes a table.
+     * @param path   The file, which is replaced if it exists.
+     * @param plies  The number of plies of which the positions are in the table.
+     * @param keys   The canonical hashes of the positions, in ascending order without duplicates.
+     * @param values The values of the positions.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, int plies, long[] keys, int[] values) throws IOException {
+        for (int i = 1; i < keys.length; i++) {
+            if(keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("The keys of an opening table should be ascending.");
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + 12 * keys.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(MAGIC).putInt(VERSION).putInt(plies).putInt(keys.length).putInt(0);
+        for (long key : keys) {
+            buffer.putLong(key);
+        }
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Get the number of plies that are covered: positions with more stones on the board are not in the table.
+     * @return The number of plies.
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up a position.
+     * @param key The canonical hash of the board after a move.
+     * @return The value in hundredths of a point, or {@link #MISSING}.
+     */
+    public int get(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long stored = buffer.getLong(HEADER + 8 * middle);
+            if(stored < key) {
+                low = middle + 1;
+            } else if(stored > key) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(HEADER + 8 * size + 4 * middle);
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Looks up the position on a board.
+     * @param board The board right after a move.
+     * @return The value in hundredths of a point, or {@link #MISSING}.
+     */
+    public int get(Board board) {
+        return get(board.getCanonicalHash());
+    }
+}
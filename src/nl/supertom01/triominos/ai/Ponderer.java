@@ -0,0 +1,157 @@
+package nl.supertom01.triominos.ai;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Searches ahead while the opponent is thinking.
+ * After the own move, the most likely replies of the opponent are determined (the placements that gain the most
+ * points, and not placing a stone at all). For each of them, the own answer is searched on a private copy of the board
+ * on a background thread. When the opponent has moved, the search that matches the actual board is reused and all the
+ * other searches are cancelled. The number of threads and replies caps the CPU that is used while pondering.
+ */
+public class Ponderer implements AutoCloseable {
+
+    private final MoveSearch search;
+    private final int maxReplies;
+    private final long budgetNanos;
+    private final ExecutorService executor;
+
+    /** The searches that are running or done, by the hash of the board after the predicted reply. */
+    private final Map<Long, Future<Long>> searches;
+
+    /** The hand for which the current searches are done. */
+    private volatile long hand;
+
+    /**
+     * Creates a ponderer.
+     * @param search      The search that is run for each predicted reply.
+     * @param threads     The maximum number of threads that are used.
+     * @param maxReplies  The maximum number of replies of the opponent that are searched.
+     * @param budgetNanos The time that may be spent on the search for a single reply.
+     */
+    public Ponderer(MoveSearch search, int threads, int maxReplies, long budgetNanos) {
+        this.search = search;
+        this.maxReplies = maxReplies;
+        this.budgetNanos = budgetNanos;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ponderer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.searches = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts pondering on the opponent's turn. Earlier searches are cancelled.
+     * @param board          The board after the own move, it is copied so it can be changed afterwards.
+     * @param hand           The own stones.
+     * @param opponentStones The stones the opponent could hold.
+     */
+    public void ponder(Board board, long hand, long opponentStones) {
+        cancel();
+        this.hand = hand;
+        Board snapshot = new Board(board);
+
+        // Not placing a stone leaves the board as it is.
+        submit(snapshot, EndgameSolver.PASS);
+
+        // The replies that gain the most points are the most likely ones.
+        LongList replies = new LongList();
+        snapshot.generatePlacements(opponentStones, replies);
+        int count = Math.min(maxReplies, replies.size());
+        int stones = Long.bitCount(opponentStones);
+        long[] candidates = replies.toArray();
+        int[] points = new int[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            long placement = candidates[i];
+            points[i] = snapshot.determinePoints(
+                Placement.toMove(placement, snapshot), stones);
+        }
+        for (int i = 0; i < count; i++) {
+            int best = i;
+            for (int j = i + 1; j < candidates.length; j++) {
+                if(points[j] > points[best]) {
+                    best = j;
+                }
+            }
+            long placement = candidates[best];
+            candidates[best] = candidates[i];
+            candidates[i] = placement;
+            points[best] = points[i];
+            submit(snapshot, placement);
+        }
+    }
+
+    /**
+     * Searches the own answer to a reply of the opponent on a copy of the board.
+     */
+    private void submit(Board snapshot, long reply) {
+        Board board = new Board(snapshot);
+        if(reply != EndgameSolver.PASS) {
+            try {
+                board.placeStone(Placement.toMove(reply, board));
+            } catch (PlacementException e) {
+                return;
+            }
+        }
+        long stones = hand;
+        searches.computeIfAbsent(board.getHash(), hash -> executor.submit(() -> search.search(board, stones,
+            budgetNanos)));
+    }
+
+    /**
+     * Takes the result of the search that matches the current board, waiting for it if it is still running. All the
+     * other searches are cancelled.
+     * @param board    The board after the opponent's move.
+     * @param hand     The own stones, which should not have changed since pondering started.
+     * @param maxWait  The maximum time to wait for a running search, in nanoseconds.
+     * @return The best placement, or nothing if this reply has not been pondered (in time).
+     */
+    public OptionalLong takeResult(Board board, long hand, long maxWait) {
+        Future<Long> future = this.hand == hand ? searches.remove(board.getHash()) : null;
+        cancel();
+        if(future == null) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(future.get(maxWait, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            future.cancel(true);
+            return OptionalLong.empty();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Cancels all the searches.
+     */
+    public void cancel() {
+        for (Future<Long> future : searches.values()) {
+            future.cancel(true);
+        }
+        searches.clear();
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
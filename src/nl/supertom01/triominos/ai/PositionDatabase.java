@@ -0,0 +1,237 @@
+package nl.supertom01.triominos.ai;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Placement;
+
+/**
+ * An on-disk table of positions with the best known move and its value, that is probed straight from a memory-mapped
+ * file. Nothing is deserialised: a probe hashes the position and reads two longs per slot of an open-addressed table
+ * with linear probing.
+ *
+ * Positions are identified by {@link #key(Board, long)}, which combines the translation invariant hash of the board
+ * with the hand of the player to move. Moves are stored relative to the bounding box of the stones, so an entry
+ * applies wherever the same shape lies on the grid.
+ *
+ * File layout (little endian): a header of {@value #HEADER} bytes with the magic number, the version, the capacity as
+ * a power of two and the number of entries, followed by the slots of 16 bytes each: the key and the entry, see
+ * {@link #entry(Board, long, int)}. A key of 0 marks an empty slot.
+ *
+ * Probes may run on any number of threads while another thread stores entries. The entry of a slot is written before
+ * its key is published, so a reader never sees a key with a half written entry.
+ */
+public class PositionDatabase implements AutoCloseable {
+
+    /** Returned by {@link #get(long)} for positions that are not in the database. */
+    public static final long MISSING = 0;
+
+    /** The largest capacity, as a power of two, that fits in a single mapping. */
+    public static final int MAX_CAPACITY_BITS = 26;
+
+    static final int HEADER = 64;
+    private static final int SLOT = 16;
+    private static final long MAGIC = 0x31304244_4F495254L; // "TRIODB01"
+    private static final int VERSION = 2;
+
+    private static final long VALID = 1L << 31;
+    private static final int PASS_ID = 0x3F;
+    private static final int OFFSET = 128;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+        ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int mask;
+    private long count;
+
+    private PositionDatabase(FileChannel channel, MappedByteBuffer buffer, int capacityBits, long count) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.mask = (1 << capacityBits) - 1;
+        this.count = count;
+    }
+
+    /**
+     * Opens a database, creating it if the file does not exist yet.
+     * @param path         The file.
+     * @param capacityBits The number of slots of a new database, as a power of two. An existing database keeps its
+     *                     own capacity.
+     * @return The database.
+     * @throws IOException If the file cannot be mapped or is not a position database.
+     */
+    public static PositionDatabase open(Path path, int capacityBits) throws IOException {
+        if(capacityBits < 1 || capacityBits > MAX_CAPACITY_BITS) {
+            throw new IllegalArgumentException("The capacity should be between 2^1 and 2^" + MAX_CAPACITY_BITS);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            if(!created) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                if(channel.size() < HEADER || header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+                    throw new IOException("Not a position database: " + path);
+                }
+                capacityBits = header.getInt(12);
+            }
+            long size = HEADER + ((long) SLOT << capacityBits);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if(created) {
+                buffer.putLong(0, MAGIC);
+                buffer.putInt(8, VERSION);
+                buffer.putInt(12, capacityBits);
+                buffer.putLong(16, 0);
+            }
+            return new PositionDatabase(channel, buffer, capacityBits, buffer.getLong(16));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the key of a position.
+     * @param board The board.
+     * @param hand  The stones in the hand of the player to move, as a bit mask.
+     * @return The key, which is never 0.
+     */
+    public static long key(Board board, long hand) {
+        long key = hand * 0x9E3779B97F4A7C15L;
+        key = board.getCanonicalHash() ^ (key ^ (key >>> 29));
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * Packs a move and its value into an entry. The move is stored relative to the origin of the board.
+     * @param board     The board on which the move is played.
+     * @param placement The move, see {@link Placement}, or {@link EndgameSolver#PASS}.
+     * @param value     The value of the move for the player to move, for instance the difference in points.
+     * @return The entry: the value in the upper 32 bits and a valid flag, the stone, its rotations and the offset of
+     *         the cell in the lower 32 bits.
+     */
+    public static long entry(Board board, long placement, int value) {
+        long move;
+        if(placement == EndgameSolver.PASS) {
+            move = (long) PASS_ID << 16;
+        } else {
+            int dx = Placement.getX(placement) - board.getOriginX() + OFFSET;
+            int dy = Placement.getY(placement) - board.getOriginY() + OFFSET;
+            if((dx & ~0xFF) != 0 || (dy & ~0xFF) != 0) {
+                throw new IllegalArgumentException("The placement lies too far from the stones on the board.");
+            }
+            move = dx | (dy << 8) | ((long) Placement.getId(placement) << 16)
+                | ((long) Placement.getRotations(placement) << 22);
+        }
+        return ((long) value << 32) | VALID | move;
+    }
+
+    public static int getValue(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Get the move of an entry on a board.
+     * @param entry The entry.
+     * @param board The board on which the move should be played, it has the same shape as the one of the entry.
+     * @return The placement, see {@link Placement}, or {@link EndgameSolver#PASS}.
+     */
+    public static long getPlacement(long entry, Board board) {
+        int id = (int) (entry >>> 16) & 0x3F;
+        if(id == PASS_ID) {
+            return EndgameSolver.PASS;
+        }
+        int x = board.getOriginX() + ((int) entry & 0xFF) - OFFSET;
+        int y = board.getOriginY() + ((int) (entry >>> 8) & 0xFF) - OFFSET;
+        return Placement.of(x, y, id, (int) (entry >>> 22) & 0x7);
+    }
+
+    /**
+     * Looks up a position.
+     * @param key The key of the position, see {@link #key(Board, long)}.
+     * @return The entry, or {@link #MISSING}.
+     */
+    public long get(long key) {
+        for (int i = 0, slot = (int) mix(key) & mask; i <= mask; i++, slot = (slot + 1) & mask) {
+            long offset = HEADER + (long) slot * SLOT;
+            long stored = (long) LONGS.getAcquire(buffer, (int) offset);
+            if(stored == key) {
+                return (long) LONGS.getAcquire(buffer, (int) offset + 8);
+            } else if(stored == 0) {
+                return MISSING;
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Stores the entry of a position, replacing the entry that was stored for it before.
+     * @param key   The key of the position, see {@link #key(Board, long)}.
+     * @param entry The entry, see {@link #entry(Board, long, int)}.
+     * @return True if the entry was stored, false if the table is too full to add a new position.
+     */
+    public synchronized boolean put(long key, long entry) {
+        for (int i = 0, slot = (int) mix(key) & mask; i <= mask; i++, slot = (slot + 1) & mask) {
+            long offset = HEADER + (long) slot * SLOT;
+            long stored = (long) LONGS.getAcquire(buffer, (int) offset);
+            if(stored == key) {
+                LONGS.setRelease(buffer, (int) offset + 8, entry);
+                return true;
+            } else if(stored == 0) {
+                // Keep at least a quarter of the slots empty, so a miss stays short.
+                if(count >= (mask + 1L) * 3 / 4) {
+                    return false;
+                }
+                LONGS.setRelease(buffer, (int) offset + 8, entry);
+                LONGS.setRelease(buffer, (int) offset, key);
+                count++;
+                buffer.putLong(16, count);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spreads the key over the slots, the key itself is already a hash but its low bits may be shared by positions
+     * that only differ in the hand.
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return key ^ (key >>> 33);
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Writes the changes to the file.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Writes the changes and closes the file. The mapping itself is released once it is garbage collected.
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,177 @@
+package nl.supertom01.triominos.ai;
+
+import nl.supertom01.triominos.metrics.Metrics;
+import nl.supertom01.triominos.profiling.SearchIterationEvent;
+
+/**
+ * Runs a search with iterative deepening within a time budget, such that a search always has a move when its time is
+ * up. Each iteration searches one ply deeper than the previous one, and the result of the deepest completed iteration
+ * is returned. The controller stops:
+ * <ul>
+ *     <li>when an iteration was exact or the maximum depth has been searched,</li>
+ *     <li>when the best placement has stayed the same for a number of iterations, if enabled,</li>
+ *     <li>before an iteration that is not expected to finish in time, judging by how the duration of the iterations
+ *     grows,</li>
+ *     <li>and at the deadline or when the thread is interrupted, which the search notices through {@link #isTimeUp()}.
+ *     </li>
+ * </ul>
+ * A controller is used by a single thread at a time.
+ */
+public class SearchController {
+
+    /** The value of the number of stable iterations that disables stopping on a stable best placement. */
+    public static final int NEVER = 0;
+
+    /** Why a search stopped. */
+    public enum Stop {
+        /** The last iteration reached the end of the game on every line. */
+        EXACT,
+        /** The maximum depth has been searched. */
+        MAX_DEPTH,
+        /** The best placement stayed the same for the configured number of iterations. */
+        STABLE,
+        /** The next iteration was not expected to finish before the deadline. */
+        OUT_OF_TIME,
+        /** The deadline passed during an iteration. */
+        DEADLINE,
+        /** The searching thread was interrupted. */
+        INTERRUPTED
+    }
+
+    /**
+     * A search that can be run to a fixed depth.
+     */
+    public interface IterativeSearch {
+
+        /**
+         * Searches to a fixed depth. The search should poll {@link #isTimeUp()} regularly and give up once it returns
+         * true.
+         * @param depth The number of plies.
+         * @return The result of the iteration, or null if it has been given up.
+         */
+        Iteration iterate(int depth);
+
+        /**
+         * Get the number of positions that have been visited since the search started.
+         * @return The number of nodes.
+         */
+        long getNodes();
+    }
+
+    /**
+     * The result of a single iteration.
+     * @param placement The best placement (see {@link nl.supertom01.triominos.model.Placement}), or
+     *                  {@link EndgameSolver#PASS}.
+     * @param score     The score of that placement.
+     * @param exact     True if the iteration was not cut off by its depth anywhere.
+     */
+    public record Iteration(long placement, int score, boolean exact) {
+    }
+
+    /**
+     * The outcome of a search: the deepest completed iteration.
+     * @param placement The best placement, or {@link EndgameSolver#PASS}.
+     * @param score     The score of that placement.
+     * @param depth     The depth of the iteration.
+     * @param exact     True if the iteration was exact.
+     * @param nodes     The number of positions that have been visited, including those of an unfinished iteration.
+     * @param nanos     The time the search took.
+     * @param stop      Why the search stopped.
+     */
+    public record Result(long placement, int score, int depth, boolean exact, long nodes, long nanos, Stop stop) {
+
+        public boolean isPass() {
+            return placement == EndgameSolver.PASS;
+        }
+
+        public long getNodesPerSecond() {
+            return nanos <= 0 ? 0 : (long) (nodes * 1e9 / nanos);
+        }
+    }
+
+    private final String name;
+    private final int stableIterations;
+
+    private long deadline;
+
+    /**
+     * Creates a controller.
+     * @param name             The name of the search, as it is shown in the recorded iterations.
+     * @param stableIterations The number of iterations in a row with the same best placement after which the search
+     *                         stops, or {@link #NEVER}.
+     */
+    public SearchController(String name, int stableIterations) {
+        this.name = name;
+        this.stableIterations = stableIterations;
+    }
+
+    /**
+     * Runs a search.
+     * @param search      The search.
+     * @param maxDepth    The deepest iteration.
+     * @param budgetNanos The time that may be spent.
+     * @return The deepest completed iteration, or null if not even the first iteration was completed in time.
+     */
+    public Result search(IterativeSearch search, int maxDepth, long budgetNanos) {
+        long start = System.nanoTime();
+        this.deadline = start + budgetNanos;
+        Iteration best = null;
+        int reached = 0;
+        int stable = 0;
+        long previousNanos = 0;
+        Stop stop = Stop.MAX_DEPTH;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long iterationStart = System.nanoTime();
+            Iteration iteration = search.iterate(depth);
+            if(iteration == null) {
+                stop = Thread.currentThread().isInterrupted() ? Stop.INTERRUPTED : Stop.DEADLINE;
+                break;
+            }
+            if(event.shouldCommit()) {
+                event.player = name;
+                event.depth = depth;
+                event.nodes = search.getNodes();
+                event.bestScore = iteration.score();
+                event.commit();
+            }
+            stable = best != null && best.placement() == iteration.placement() ? stable + 1 : 0;
+            best = iteration;
+            reached = depth;
+            if(iteration.exact()) {
+                stop = Stop.EXACT;
+                break;
+            }
+            if(stableIterations != NEVER && stable >= stableIterations) {
+                stop = Stop.STABLE;
+                break;
+            }
+
+            // The next iteration is expected to take as much longer as this one took compared with the previous one.
+            long now = System.nanoTime();
+            long nanos = now - iterationStart;
+            double growth = previousNanos > 0 ? Math.max(1.0, (double) nanos / previousNanos) : 1.0;
+            previousNanos = nanos;
+            if(depth < maxDepth && now + nanos * growth > deadline) {
+                stop = Stop.OUT_OF_TIME;
+                break;
+            }
+        }
+        long nodes = search.getNodes();
+        Metrics.get().countNodes(nodes);
+        if(best == null) {
+            return null;
+        }
+        return new Result(best.placement(), best.score(), reached, best.exact(), nodes, System.nanoTime() - start,
+            stop);
+    }
+
+    /**
+     * Checks if the search should give up its current iteration.
+     * @return True if the deadline has passed or the thread has been interrupted.
+     */
+    public boolean isTimeUp() {
+        return System.nanoTime() > deadline || Thread.currentThread().isInterrupted();
+    }
+}
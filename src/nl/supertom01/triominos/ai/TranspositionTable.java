@@ -0,0 +1,173 @@
+package nl.supertom01.triominos.ai;
+
+import java.util.Arrays;
+import nl.supertom01.triominos.model.Placement;
+
+/**
+ * A fixed-size table of searched positions that can be shared by any number of searching threads, such as the
+ * solvers of a Lazy SMP search or of the {@link Ponderer}, without locks. Positions are identified by their 64-bit
+ * {@link nl.supertom01.triominos.model.Zobrist} key.
+ *
+ * The table is a flat array of buckets with two entries of two longs each: the key xor'ed with the data, and the data
+ * (see {@link #pack}). The writes of two threads to the same entry may interleave, but then the two longs no longer
+ * xor to the key of the probe, so such an entry is simply not found. A probe reads four longs and allocates nothing.
+ *
+ * A stored position replaces its own entry. Otherwise it replaces an empty entry of its bucket, or else an entry of
+ * an earlier search (see {@link #newSearch()}), or else the entry that was searched least deep.
+ */
+public class TranspositionTable {
+
+    /** Returned by {@link #probe(long)} for positions that are not in the table. */
+    public static final long MISSING = 0;
+
+    /** The value is exact. */
+    public static final int EXACT = 0;
+    /** The value is a lower bound. */
+    public static final int LOWER = 1;
+    /** The value is an upper bound. */
+    public static final int UPPER = 2;
+
+    // Layout of the data: move (27 bits) | value (16 bits) | depth (7 bits) | bound (2 bits) | flag (1 bit) |
+    // age (8 bits) | valid (1 bit).
+    private static final int VALUE_SHIFT = 27;
+    private static final int DEPTH_SHIFT = 43;
+    private static final int BOUND_SHIFT = 50;
+    private static final int FLAG_SHIFT = 52;
+    private static final int AGE_SHIFT = 53;
+    private static final long VALID = 1L << 61;
+    private static final long NO_MOVE = (1L << 27) - 1;
+    private static final int MAX_DEPTH = 0x7F;
+    private static final int AGES = 0x100;
+
+    private final long[] slots;
+    private final int bucketMask;
+    private volatile int age;
+
+    /**
+     * Creates a table.
+     * @param bits The number of entries, as a power of two.
+     */
+    public TranspositionTable(int bits) {
+        if(bits < 1 || bits > 28) {
+            throw new IllegalArgumentException("A transposition table should have between 2^1 and 2^28 entries.");
+        }
+        this.slots = new long[2 << bits];
+        this.bucketMask = (1 << (bits - 1)) - 1;
+    }
+
+    public int capacity() {
+        return slots.length / 2;
+    }
+
+    /**
+     * Starts a new search: the entries that are stored from now on replace those of the earlier searches first.
+     */
+    public void newSearch() {
+        age = (age + 1) % AGES;
+    }
+
+    /**
+     * Removes all the entries. This should not be called while other threads are using the table.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    /**
+     * Looks up a position.
+     * @param key The key of the position.
+     * @return The data of the position, see {@link #pack}, or {@link #MISSING}.
+     */
+    public long probe(long key) {
+        int bucket = ((int) key & bucketMask) << 2;
+        for (int i = bucket; i < bucket + 4; i += 2) {
+            long data = slots[i + 1];
+            if((slots[i] ^ data) == key && data != MISSING) {
+                return data;
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Stores a position.
+     * @param key  The key of the position.
+     * @param data The data, see {@link #pack}.
+     */
+    public void store(long key, long data) {
+        int age = this.age;
+        data = data & ~(((long) AGES - 1) << AGE_SHIFT) | (long) age << AGE_SHIFT;
+        int bucket = ((int) key & bucketMask) << 2;
+        int victim = -1;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int i = bucket; i < bucket + 4; i += 2) {
+            long stored = slots[i + 1];
+            if((slots[i] ^ stored) == key && stored != MISSING) {
+                victim = i;
+                break;
+            }
+            // Empty entries and those of an earlier search are worth the least, then the shallow ones.
+            int worth = stored == MISSING ? -2 : getAge(stored) != age ? -1 : getDepth(stored);
+            if(worth < victimWorth) {
+                victimWorth = worth;
+                victim = i;
+            }
+        }
+        slots[victim + 1] = data;
+        slots[victim] = key ^ data;
+    }
+
+    /**
+     * Packs the result of a search of a position.
+     * @param move  The best placement (see {@link Placement}), or {@link EndgameSolver#PASS}. Placements with a
+     *              coordinate outside of 0 to 511 are stored as a pass.
+     * @param value The value, which is clamped to 16 bits.
+     * @param depth The depth of the search, at most 127.
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+     * @param flag  A flag for the search that stores the entry.
+     * @return The data.
+     */
+    public static long pack(long move, int value, int depth, int bound, boolean flag) {
+        long packedMove = NO_MOVE;
+        if(move != EndgameSolver.PASS) {
+            int x = Placement.getX(move);
+            int y = Placement.getY(move);
+            if((x & ~0x1FF) == 0 && (y & ~0x1FF) == 0) {
+                packedMove = (long) x << 18 | (long) y << 9 | Placement.getId(move) << 3
+                    | Placement.getRotations(move);
+            }
+        }
+        long clamped = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value)) & 0xFFFFL;
+        return packedMove | clamped << VALUE_SHIFT | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+            | (long) bound << BOUND_SHIFT | (flag ? 1L << FLAG_SHIFT : 0) | VALID;
+    }
+
+    public static long getMove(long data) {
+        long move = data & NO_MOVE;
+        if(move == NO_MOVE) {
+            return EndgameSolver.PASS;
+        }
+        return Placement.of((int) (move >>> 18), (int) (move >>> 9) & 0x1FF, (int) (move >>> 3) & 0x3F,
+            (int) move & 0x7);
+    }
+
+    public static int getValue(long data) {
+        return (short) (data >>> VALUE_SHIFT);
+    }
+
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    public static boolean getFlag(long data) {
+        return (data & 1L << FLAG_SHIFT) != 0;
+    }
+
+    private static int getAge(long data) {
+        return (int) (data >>> AGE_SHIFT) & (AGES - 1);
+    }
+}
@@ -0,0 +1,42 @@
+package nl.supertom01.triominos.analysis;
+
+import nl.supertom01.triominos.ai.EndgameSolver;
+
+/**
+ * The verdict on a single turn of a recorded game, see {@link GameAnnotator}.
+ * @param index      The index of the turn in the game.
+ * @param played     The turn as it was played.
+ * @param best       The best placement (see {@link nl.supertom01.triominos.model.Placement}), or
+ *                   {@link EndgameSolver#PASS} if not placing a stone was best.
+ * @param bestPoints The points of the best placement, per {@link nl.supertom01.triominos.model.Board#determinePoints},
+ *                   or the points of drawing if no stone could be placed.
+ * @param pointsLost The points the player missed out on by not playing the best placement, see
+ *                   {@link #getPointsLost()}.
+ * @param solved     True if the best placement was found by solving the endgame, rather than by taking the placement
+ *                   with the most points.
+ */
+public record Annotation(int index, RecordedGame.Turn played, long best, int bestPoints, int pointsLost,
+                         boolean solved) {
+
+    /**
+     * Get the points the player missed out on by not playing the best placement. Without solving, this is the points
+     * of the best placement minus the points of the turn. In a solved endgame, it is the difference between the
+     * final scores of the best placement and of the turn, both followed by perfect play, which may prefer a placement
+     * with fewer points now that wins more later. It is never negative.
+     * @return The points that were lost.
+     */
+    public int getPointsLost() {
+        return pointsLost;
+    }
+
+    /**
+     * Encodes this annotation as a line of text: the index, the round and seat, the turn and its points, the best
+     * placement and its points, and the points that were lost.
+     * @return The line, without a line separator.
+     */
+    public String toLine() {
+        return String.format("%d %d %d %s %d best %s %d lost %d%s", index, played.round(), played.seat(),
+            RecordedGame.describe(played.placement(), played.drew()), played.points(),
+            RecordedGame.describe(best, played.stackSize() > 0), bestPoints, pointsLost, solved ? " solved" : "");
+    }
+}
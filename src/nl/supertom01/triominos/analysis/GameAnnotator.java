@@ -0,0 +1,280 @@
+package nl.supertom01.triominos.analysis;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.ai.SearchController;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Annotates every turn of recorded games with the best placement, its points and the points that were lost by the
+ * turn that was played instead. Each position is rebuilt from scratch, so all the positions of all the games are
+ * independent and are spread over the threads, rather than one game per thread.
+ *
+ * The strength of the search is set by its budget: every position gets the placement with the most points, and in
+ * the endgame of a game with two players (the stack is empty, so the stones of the opponent are known) positions are
+ * also solved with the {@link EndgameSolver} within the budget. The points lost by a turn in a solved position are the
+ * difference between the final scores of the best placement and of the turn, both followed by perfect play.
+ */
+public class GameAnnotator {
+
+    /** The default time that is spent on solving an endgame position. */
+    public static final long DEFAULT_BUDGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** The extension of the files to which the annotations of a recorded game are written. */
+    public static final String EXTENSION = ".annotations";
+
+    /** Returned by {@link #solve} for positions that could not be solved within the budget. */
+    private static final int UNSOLVED = Integer.MIN_VALUE;
+
+    private final int threads;
+    private final long budgetNanos;
+    private final ThreadLocal<EndgameSolver> solvers;
+
+    /**
+     * Creates an annotator.
+     * @param threads     The number of threads on which positions are analysed.
+     * @param budgetNanos The time that may be spent on solving an endgame position, 0 to only look at the points of
+     *                    the placements.
+     */
+    public GameAnnotator(int threads, long budgetNanos) {
+        if(threads < 1 || budgetNanos < 0) {
+            throw new IllegalArgumentException("An annotator needs a thread and a budget of at least 0.");
+        }
+        this.threads = threads;
+        this.budgetNanos = budgetNanos;
+        this.solvers = ThreadLocal.withInitial(() -> new EndgameSolver(EndgameSolver.DEFAULT_TABLE_BITS));
+    }
+
+    /**
+     * Annotates a single turn on the current thread.
+     * @param game  The game.
+     * @param index The index of the turn.
+     * @return The annotation.
+     */
+    public Annotation annotate(RecordedGame game, int index) {
+        RecordedGame.Turn turn = game.turns().get(index);
+        Board board = new Board(0);
+        for (long placement : game.getPlacementsBefore(index)) {
+            try {
+                board.placeStone(Placement.toMove(placement, board));
+            } catch (PlacementException e) {
+                throw new IllegalArgumentException("Two placements on the same cell in turn " + index, e);
+            }
+        }
+        long hand = turn.hand();
+        int stonesInHand = Long.bitCount(hand);
+
+        if(budgetNanos > 0 && game.players().size() == 2 && turn.stackSize() == 0 && !board.isEmpty()) {
+            // The solver plays on a board without a stack, the stones that are not on the board are in the hands.
+            board.clearStack();
+            long opponentHand = Stone.ALL & ~board.getBoardMask() & ~hand;
+            int passes = game.getPassesBefore(index);
+            EndgameSolver solver = solvers.get();
+            SearchController.Result result = solver.solve(board, hand, opponentHand, passes, budgetNanos);
+            if(result != null && result.exact()) {
+                long best = result.placement();
+                int points = best == EndgameSolver.PASS
+                    ? board.determinePoints(null, stonesInHand) : points(board, best, stonesInHand);
+                int played = turn.placement() == best
+                    ? result.score() : solve(solver, board, hand, opponentHand, passes, turn.placement());
+                if(played != UNSOLVED) {
+                    return new Annotation(index, turn, best, points, result.score() - played, true);
+                }
+            }
+        }
+
+        LongList placements = new LongList();
+        board.generatePlacements(hand, placements);
+        long best = EndgameSolver.PASS;
+        int bestPoints = board.determinePoints(null, stonesInHand);
+        for (int i = 0; i < placements.size(); i++) {
+            int points = points(board, placements.get(i), stonesInHand);
+            if(best == EndgameSolver.PASS || points > bestPoints) {
+                best = placements.get(i);
+                bestPoints = points;
+            }
+        }
+        return new Annotation(index, turn, best, bestPoints, bestPoints - turn.points(), false);
+    }
+
+    /**
+     * Solves an endgame position after the player to move made a given turn.
+     * @param placement The placement of the turn, or {@link EndgameSolver#PASS}.
+     * @return The points the player gains more than the opponent until the end of the round, with perfect play after
+     *         the turn, or {@link #UNSOLVED} if the position could not be solved within the budget.
+     */
+    private int solve(EndgameSolver solver, Board board, long hand, long opponentHand, int passes, long placement) {
+        int stonesInHand = Long.bitCount(hand);
+        if(placement == EndgameSolver.PASS) {
+            int points = board.determinePoints(null, stonesInHand);
+            // With two players, the round ends when both of them passed.
+            if(passes + 1 >= 2) {
+                return points;
+            }
+            SearchController.Result reply = solver.solve(board, opponentHand, hand, passes + 1, budgetNanos);
+            return reply == null || !reply.exact() ? UNSOLVED : points - reply.score();
+        }
+        int points = points(board, placement, stonesInHand);
+        long rest = hand & ~(1L << Placement.getId(placement));
+        if(rest == 0) {
+            return points;
+        }
+        Move move = Placement.toMove(placement, board);
+        try {
+            board.placeStone(move);
+        } catch (PlacementException e) {
+            throw new IllegalArgumentException("The placement of the turn is on an occupied cell", e);
+        }
+        try {
+            SearchController.Result reply = solver.solve(board, opponentHand, rest, 0, budgetNanos);
+            return reply == null || !reply.exact() ? UNSOLVED : points - reply.score();
+        } finally {
+            board.removeStone(move);
+        }
+    }
+
+    private static int points(Board board, long placement, int stonesInHand) {
+        return board.determinePoints(Placement.toMove(placement, board), stonesInHand);
+    }
+
+    /**
+     * Annotates all the turns of a game.
+     * @param game The game.
+     * @return The annotations, in the order of the turns.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the annotations.
+     */
+    public List<Annotation> annotate(RecordedGame game) throws InterruptedException {
+        return annotate(List.of(game)).get(0);
+    }
+
+    /**
+     * Annotates all the turns of several games. The positions of all the games are analysed in parallel.
+     * @param games The games.
+     * @return The annotations of each game, in the order of the games and their turns.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the annotations.
+     */
+    public List<List<Annotation>> annotate(List<RecordedGame> games) throws InterruptedException {
+        // The positions of all the games in a single list, as the index of the game and the index of the turn.
+        Annotation[][] annotations = new Annotation[games.size()][];
+        int positions = 0;
+        for (int i = 0; i < games.size(); i++) {
+            annotations[i] = new Annotation[games.get(i).turns().size()];
+            positions += annotations[i].length;
+        }
+        int[] gameOf = new int[positions];
+        int[] turnOf = new int[positions];
+        for (int i = 0, position = 0; i < games.size(); i++) {
+            for (int turn = 0; turn < annotations[i].length; turn++, position++) {
+                gameOf[position] = i;
+                turnOf[position] = turn;
+            }
+        }
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int position = next.getAndIncrement(); position < gameOf.length;
+                         position = next.getAndIncrement()) {
+                        int game = gameOf[position];
+                        annotations[game][turnOf[position]] = annotate(games.get(game), turnOf[position]);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        List<List<Annotation>> result = new ArrayList<>();
+        for (Annotation[] game : annotations) {
+            result.add(List.of(game));
+        }
+        return result;
+    }
+
+    /**
+     * Annotates all the recorded games in a directory. The annotations of each game are written next to it, to a
+     * file with the same name and the extension {@value #EXTENSION}, one {@link Annotation#toLine() line} per turn.
+     * @param directory The directory.
+     * @return The number of games that have been annotated.
+     * @throws IOException          If a game could not be read or its annotations could not be written.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the annotations.
+     */
+    public int annotateDirectory(Path directory) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(RecordedGame.EXTENSION)).sorted()
+                .toList();
+        }
+        List<RecordedGame> games = new ArrayList<>();
+        for (Path file : files) {
+            games.add(RecordedGame.read(file));
+        }
+        List<List<Annotation>> annotations = annotate(games);
+        for (int i = 0; i < files.size(); i++) {
+            write(files.get(i), annotations.get(i));
+        }
+        return files.size();
+    }
+
+    private static void write(Path game, List<Annotation> annotations) throws IOException {
+        String name = game.getFileName().toString();
+        Path file = game.resolveSibling(name.substring(0, name.length() - RecordedGame.EXTENSION.length())
+            + EXTENSION);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (Annotation annotation : annotations) {
+                out.write(annotation.toLine());
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Annotates a recorded game, printing the annotations, or all the recorded games in a directory.
+     * Usage: {@code GameAnnotator <game or directory> [budget in ms]}
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 1) {
+            System.err.println("Usage: GameAnnotator <game or directory> [budget in ms]");
+            System.exit(2);
+        }
+        Path path = Path.of(args[0]);
+        long budget = args.length > 1 ? TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[1])) : DEFAULT_BUDGET;
+        GameAnnotator annotator = new GameAnnotator(Runtime.getRuntime().availableProcessors(), budget);
+        long start = System.nanoTime();
+        if(Files.isDirectory(path)) {
+            int games = annotator.annotateDirectory(path);
+            System.out.printf("Annotated %d games in %.1f s%n", games, (System.nanoTime() - start) / 1e9);
+        } else {
+            int lost = 0;
+            for (Annotation annotation : annotator.annotate(RecordedGame.read(path))) {
+                System.out.println(annotation.toLine());
+                lost += annotation.getPointsLost();
+            }
+            System.out.printf("Lost %d points, annotated in %.1f s%n", lost, (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
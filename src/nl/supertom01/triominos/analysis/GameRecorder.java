@@ -0,0 +1,63 @@
+package nl.supertom01.triominos.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * Records the turns of a game while it is played, see {@link RecordedGame}. A recorder records a single game.
+ */
+public class GameRecorder implements GameListener {
+
+    private final List<String> players;
+    private final List<RecordedGame.Turn> turns;
+
+    private int round;
+
+    // The state at the start of the current turn.
+    private int seat;
+    private long hand;
+    private int stackSize;
+
+    public GameRecorder() {
+        this.players = new ArrayList<>();
+        this.turns = new ArrayList<>();
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        if(round == 0) {
+            for (Player player : game.getPlayers()) {
+                players.add(player.getUsername());
+            }
+        }
+        round++;
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        seat = game.getPlayerIndex(player);
+        hand = player.getHandMask();
+        stackSize = game.getBoard().getStackSize();
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        long placement = move == null ? EndgameSolver.PASS : Placement.of(move);
+        boolean drew = game.getBoard().getStackSize() < stackSize;
+        turns.add(new RecordedGame.Turn(round, seat, hand, stackSize, placement, drew, points));
+    }
+
+    /**
+     * Get the turns that have been played so far.
+     * @return The game.
+     */
+    public RecordedGame getGame() {
+        return new RecordedGame(players, turns);
+    }
+}
@@ -0,0 +1,193 @@
+package nl.supertom01.triominos.analysis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.model.Placement;
+
+/**
+ * A game as it was played, from which every position can be rebuilt: the stones that were placed in a round, in
+ * order, together with the hand of the player at each turn. Stones are referred to by their id, which is the same on
+ * every board, so a position is rebuilt by placing the earlier stones of its round on an empty board.
+ *
+ * A game is stored as text, one line per player ({@code player <name>}) followed by one line per turn:
+ * {@code turn <round> <seat> <hand> <stack size> <points> place <x> <y> <id> <rotations>}, or {@code draw} or
+ * {@code pass} instead of the placement. The hand is the bit mask of the stone ids, in hexadecimal.
+ * @param players The names of the players, by seat.
+ * @param turns   The turns, in the order in which they were played.
+ */
+public record RecordedGame(List<String> players, List<Turn> turns) {
+
+    /** The extension of the files of recorded games. */
+    public static final String EXTENSION = ".game";
+
+    /**
+     * A single turn.
+     * @param round     The number of the round, starting at 1.
+     * @param seat      The index of the player.
+     * @param hand      The stones of the player at the start of the turn, as a bit mask.
+     * @param stackSize The number of stones on the stack at the start of the turn.
+     * @param placement The stone that was placed (see {@link Placement}), or {@link EndgameSolver#PASS}.
+     * @param drew      True if the player took a stone from the stack.
+     * @param points    The points the player gained or lost with the turn.
+     */
+    public record Turn(int round, int seat, long hand, int stackSize, long placement, boolean drew, int points) {
+
+        public boolean isPlacement() {
+            return placement != EndgameSolver.PASS;
+        }
+    }
+
+    public RecordedGame {
+        players = List.copyOf(players);
+        turns = List.copyOf(turns);
+    }
+
+    /**
+     * Get the stones that were on the board at the start of a turn.
+     * @param turn The index of the turn.
+     * @return The placements of the earlier turns of the same round, in order.
+     */
+    public long[] getPlacementsBefore(int turn) {
+        int round = turns.get(turn).round();
+        int first = turn;
+        while (first > 0 && turns.get(first - 1).round() == round) {
+            first--;
+        }
+        long[] placements = new long[turn - first];
+        int count = 0;
+        for (int i = first; i < turn; i++) {
+            if(turns.get(i).isPlacement()) {
+                placements[count++] = turns.get(i).placement();
+            }
+        }
+        return count == placements.length ? placements : Arrays.copyOf(placements, count);
+    }
+
+    /**
+     * Get the number of players that passed in a row just before a turn, without placing or drawing a stone.
+     * @param turn The index of the turn.
+     * @return The number of passes.
+     */
+    public int getPassesBefore(int turn) {
+        int round = turns.get(turn).round();
+        int passes = 0;
+        for (int i = turn - 1; i >= 0 && turns.get(i).round() == round; i--) {
+            Turn previous = turns.get(i);
+            if(previous.isPlacement() || previous.drew()) {
+                break;
+            }
+            passes++;
+        }
+        return passes;
+    }
+
+    /**
+     * Describes a placement as {@code (x,y) #id r<rotations>}, or a turn without a placement as {@code draw} or
+     * {@code pass}.
+     * @param placement The placement, or {@link EndgameSolver#PASS}.
+     * @param drew      True if a stone was taken from the stack instead.
+     * @return The description.
+     */
+    public static String describe(long placement, boolean drew) {
+        if(placement == EndgameSolver.PASS) {
+            return drew ? "draw" : "pass";
+        }
+        return String.format("(%d,%d) #%d r%d", Placement.getX(placement), Placement.getY(placement),
+            Placement.getId(placement), Placement.getRotations(placement));
+    }
+
+    /**
+     * Writes this game as text.
+     * @param out The writer, which is not closed.
+     * @throws IOException If the game could not be written.
+     */
+    public void write(Writer out) throws IOException {
+        for (String player : players) {
+            out.write("player " + player + "\n");
+        }
+        for (Turn turn : turns) {
+            out.write(String.format("turn %d %d %x %d %d ", turn.round(), turn.seat(), turn.hand(), turn.stackSize(),
+                turn.points()));
+            if(turn.isPlacement()) {
+                long placement = turn.placement();
+                out.write(String.format("place %d %d %d %d\n", Placement.getX(placement), Placement.getY(placement),
+                    Placement.getId(placement), Placement.getRotations(placement)));
+            } else {
+                out.write(turn.drew() ? "draw\n" : "pass\n");
+            }
+        }
+    }
+
+    /**
+     * Writes this game to a file.
+     * @param file The file, which is replaced if it exists.
+     * @throws IOException If the game could not be written.
+     */
+    public void write(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            write(out);
+        }
+    }
+
+    /**
+     * Reads a game that was written by {@link #write(Writer)}.
+     * @param in The reader, which is not closed.
+     * @return The game.
+     * @throws IOException              If the game could not be read.
+     * @throws IllegalArgumentException If a line is not part of a recorded game.
+     */
+    public static RecordedGame read(BufferedReader in) throws IOException {
+        List<String> players = new ArrayList<>();
+        List<Turn> turns = new ArrayList<>();
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            if(line.isBlank()) {
+                continue;
+            }
+            if(line.startsWith("player ")) {
+                players.add(line.substring("player ".length()));
+                continue;
+            }
+            String[] parts = line.trim().split(" ");
+            try {
+                if(!parts[0].equals("turn") || parts.length < 7) {
+                    throw new IllegalArgumentException("Not a turn: " + line);
+                }
+                long placement = EndgameSolver.PASS;
+                if(parts[6].equals("place")) {
+                    placement = Placement.of(Integer.parseInt(parts[7]), Integer.parseInt(parts[8]),
+                        Integer.parseInt(parts[9]), Integer.parseInt(parts[10]));
+                } else if(!parts[6].equals("draw") && !parts[6].equals("pass")) {
+                    throw new IllegalArgumentException("Not a turn: " + line);
+                }
+                turns.add(new Turn(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    Long.parseLong(parts[3], 16), Integer.parseInt(parts[4]), placement, parts[6].equals("draw"),
+                    Integer.parseInt(parts[5])));
+            } catch (IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Not a turn: " + line, e);
+            }
+        }
+        return new RecordedGame(players, turns);
+    }
+
+    /**
+     * Reads a game from a file.
+     * @param file The file.
+     * @return The game.
+     * @throws IOException              If the file could not be read.
+     * @throws IllegalArgumentException If the file is not a recorded game.
+     */
+    public static RecordedGame read(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            return read(in);
+        }
+    }
+}
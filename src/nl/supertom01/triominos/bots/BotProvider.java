@@ -0,0 +1,23 @@
+package nl.supertom01.triominos.bots;
+
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * A service that provides a bot. Providers are found with {@link java.util.ServiceLoader}, by listing them in
+ * {@code META-INF/services/nl.supertom01.triominos.bots.BotProvider}, so a bot can be added by putting its jar on the
+ * class path. See {@link BotRegistry}.
+ */
+public interface BotProvider {
+
+    /**
+     * Get the name by which the bot is selected, for instance in a simulation or a tournament.
+     * @return The name, which should be unique.
+     */
+    String getName();
+
+    /**
+     * Creates a new instance of the bot. Each seat in each game gets its own instance.
+     * @return The bot.
+     */
+    Player create();
+}
@@ -0,0 +1,85 @@
+package nl.supertom01.triominos.bots;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * The bots that are available, by name. The providers are loaded once, with the {@link ServiceLoader}. A provider that
+ * cannot be loaded is reported and skipped, such that a single broken jar does not take the other bots down with it.
+ */
+public class BotRegistry {
+
+    private static final class Holder {
+        private static final Map<String, BotProvider> PROVIDERS = load(BotRegistry.class.getClassLoader());
+    }
+
+    private BotRegistry() {
+    }
+
+    /**
+     * Loads the providers that are visible to a class loader.
+     * @param loader The class loader.
+     * @return The providers by name, in the order in which they were found. Of two providers with the same name, the
+     *         first one is kept.
+     */
+    public static Map<String, BotProvider> load(ClassLoader loader) {
+        Map<String, BotProvider> providers = new LinkedHashMap<>();
+        Iterator<BotProvider> iterator = ServiceLoader.load(BotProvider.class, loader).iterator();
+        while (true) {
+            BotProvider provider;
+            try {
+                if(!iterator.hasNext()) {
+                    break;
+                }
+                provider = iterator.next();
+            } catch (ServiceConfigurationError e) {
+                System.err.printf("[ERROR] [BOTS] \"%s\"%n", e.getMessage());
+                continue;
+            }
+            BotProvider previous = providers.putIfAbsent(provider.getName(), provider);
+            if(previous != null) {
+                System.err.printf("[ERROR] [BOTS] \"%s is provided by both %s and %s, the first one is used\"%n",
+                    provider.getName(), previous.getClass().getName(), provider.getClass().getName());
+            }
+        }
+        return Collections.unmodifiableMap(providers);
+    }
+
+    /**
+     * Get the bots on the class path.
+     * @return The providers by name.
+     */
+    public static Map<String, BotProvider> getProviders() {
+        return Holder.PROVIDERS;
+    }
+
+    /**
+     * Get a bot by its name.
+     * @param name The name of the bot.
+     * @return The provider.
+     * @throws IllegalArgumentException If there is no bot with that name.
+     */
+    public static BotProvider getProvider(String name) {
+        BotProvider provider = Holder.PROVIDERS.get(name);
+        if(provider == null) {
+            throw new IllegalArgumentException("Unknown bot: " + name + ", the available bots are "
+                + Holder.PROVIDERS.keySet());
+        }
+        return provider;
+    }
+
+    /**
+     * Creates a bot by its name.
+     * @param name The name of the bot.
+     * @return The bot.
+     * @throws IllegalArgumentException If there is no bot with that name.
+     */
+    public static Player create(String name) {
+        return getProvider(name).create();
+    }
+}
@@ -0,0 +1,362 @@
+package nl.supertom01.triominos.bots;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Plays for a bot within a budget per move. The bot decides on its own thread, on a copy of the board and with a copy
+ * of the hand, while the game thread waits for at most the wall-clock budget and watches the CPU time of that thread.
+ * When the bot overruns either budget, throws, or comes up with an illegal move, it is interrupted and the fallback
+ * of the budget is played instead, so a slow or broken bot cannot stall the game.
+ *
+ * A bot that does not stop within {@value #GRACE_MILLIS} ms after being interrupted is abandoned: its thread is left
+ * to finish on its own and a new instance of the bot takes over.
+ *
+ * The bot is told about the progress of the game if it is a {@link GameListener}, with itself in place of this player.
+ */
+public class BudgetedPlayer extends Player implements GameListener, AutoCloseable {
+
+    /** The time a bot gets to stop after it has been interrupted. */
+    public static final long GRACE_MILLIS = 100;
+
+    /** The interval at which the CPU time of the bot is checked. */
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+
+    /** How the bot did on a move. */
+    private enum Outcome {
+        IN_TIME, WALL_OVERRUN, CPU_OVERRUN, FAILURE
+    }
+
+    /**
+     * The overruns of a bot.
+     * @param moves        The number of moves the bot has been asked for.
+     * @param wallOverruns The moves on which the bot overran the wall-clock budget.
+     * @param cpuOverruns  The moves on which the bot overran the CPU budget.
+     * @param failures     The moves on which the bot threw an exception or made an illegal move.
+     * @param abandoned    The number of times the bot did not stop after an overrun and was replaced.
+     * @param cpuNanos     The CPU time the bot has used, 0 if it cannot be measured.
+     * @param maxWallNanos The longest wall-clock time that was spent on a single move.
+     */
+    public record Statistics(long moves, long wallOverruns, long cpuOverruns, long failures, long abandoned,
+                             long cpuNanos, long maxWallNanos) {
+
+        public long getFallbacks() {
+            return wallOverruns + cpuOverruns + failures;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("moves=%d fallbacks=%d (wall=%d cpu=%d failed=%d) abandoned=%d cpu=%.1fms max=%.1fms",
+                moves, getFallbacks(), wallOverruns, cpuOverruns, failures, abandoned, cpuNanos / 1e6,
+                maxWallNanos / 1e6);
+        }
+    }
+
+    private final BotProvider provider;
+    private final MoveBudget budget;
+    private final LongList placements;
+
+    private Player bot;
+    private ExecutorService executor;
+    private volatile Thread worker;
+    /** The CPU time of the worker at the start of the current move, or -1 before it has started. */
+    private volatile long cpuStart;
+
+    private long moves;
+    private long wallOverruns;
+    private long cpuOverruns;
+    private long failures;
+    private long abandoned;
+    private long cpuNanos;
+    private long maxWallNanos;
+
+    /**
+     * Creates a player for a bot.
+     * @param provider The bot, a new instance is created whenever an instance has to be abandoned.
+     * @param budget   The budget of each move.
+     */
+    public BudgetedPlayer(BotProvider provider, MoveBudget budget) {
+        this(provider, provider.create(), budget);
+    }
+
+    private BudgetedPlayer(BotProvider provider, Player bot, MoveBudget budget) {
+        super(bot.getUsername());
+        this.provider = provider;
+        this.budget = budget;
+        this.bot = bot;
+        this.placements = new LongList();
+        this.executor = newExecutor();
+    }
+
+    private ExecutorService newExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bot-" + provider.getName() + "-" + WORKERS.incrementAndGet());
+            thread.setDaemon(true);
+            worker = thread;
+            return thread;
+        });
+    }
+
+    @Override
+    public Move determineMove(Board board) {
+        Board copy = new Board(board);
+        syncHand(copy);
+        Player bot = this.bot;
+        cpuStart = -1;
+        long start = System.nanoTime();
+        Future<Move> future = executor.submit(() -> {
+            cpuStart = THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+            return bot.determineMove(copy);
+        });
+
+        Move move = null;
+        Outcome outcome = Outcome.IN_TIME;
+        try {
+            move = await(future, start);
+        } catch (TimeoutException e) {
+            outcome = getCpuTime() > budget.cpuNanos() ? Outcome.CPU_OVERRUN : Outcome.WALL_OVERRUN;
+        } catch (ExecutionException e) {
+            System.err.printf("[ERROR] [BOTS] %s: \"%s\"%n", getUsername(), e.getCause());
+            outcome = Outcome.FAILURE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = Outcome.WALL_OVERRUN;
+        }
+        long wall = System.nanoTime() - start;
+        long cpu = getCpuTime();
+        boolean replaced = outcome != Outcome.IN_TIME && !stop(future);
+
+        if(outcome == Outcome.IN_TIME) {
+            // Take the same number of stones that the bot took from the stack of its copy.
+            for (int drawn = board.getStackSize() - copy.getStackSize(); drawn > 0; drawn--) {
+                Stone stone = board.getFromStack();
+                if(stone != null) {
+                    addStone(stone);
+                }
+            }
+            if(move == null || move.getStone() == null) {
+                record(wall, cpu, outcome, replaced);
+                return null;
+            }
+            Move translated = translate(board, move);
+            if(translated != null) {
+                record(wall, cpu, outcome, replaced);
+                return translated;
+            }
+            System.err.printf("[ERROR] [BOTS] %s: \"Illegal move %s at (%d, %d)\"%n", getUsername(),
+                Arrays.toString(move.getStone().getValues()), move.getX(), move.getY());
+            outcome = Outcome.FAILURE;
+        }
+        record(wall, cpu, outcome, replaced);
+        return fallback(board);
+    }
+
+    /**
+     * Waits for the bot, until the wall-clock budget has passed or the bot has used up its CPU budget.
+     * @throws TimeoutException If the bot overran one of its budgets.
+     */
+    private Move await(Future<Move> future, long start) throws ExecutionException, InterruptedException,
+            TimeoutException {
+        long deadline = start + budget.wallNanos();
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if(remaining <= 0) {
+                throw new TimeoutException();
+            }
+            try {
+                return future.get(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if(getCpuTime() > budget.cpuNanos()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the CPU time that the worker has spent on the current move.
+     * @return The time, 0 if it is not known.
+     */
+    private long getCpuTime() {
+        long begin = cpuStart;
+        Thread thread = worker;
+        if(begin < 0 || thread == null || !THREADS.isThreadCpuTimeSupported()) {
+            return 0;
+        }
+        long now = THREADS.getThreadCpuTime(thread.getId());
+        return now < 0 ? 0 : Math.max(0, now - begin);
+    }
+
+    /**
+     * Interrupts the bot and waits a little for it to stop. A bot that does not stop is abandoned.
+     * @return True if the bot stopped, false if it has been replaced by a new instance.
+     */
+    private boolean stop(Future<Move> future) {
+        future.cancel(true);
+        Future<?> idle = executor.submit(() -> { });
+        try {
+            idle.get(GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            executor.shutdownNow();
+            executor = newExecutor();
+            bot = provider.create();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private synchronized void record(long wall, long cpu, Outcome outcome, boolean replaced) {
+        moves++;
+        cpuNanos += cpu;
+        maxWallNanos = Math.max(maxWallNanos, wall);
+        switch (outcome) {
+            case WALL_OVERRUN -> wallOverruns++;
+            case CPU_OVERRUN -> cpuOverruns++;
+            case FAILURE -> failures++;
+            default -> { }
+        }
+        if(replaced) {
+            abandoned++;
+        }
+    }
+
+    /**
+     * Get the overruns of the bot so far.
+     * @return The statistics.
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(moves, wallOverruns, cpuOverruns, failures, abandoned, cpuNanos, maxWallNanos);
+    }
+
+    /**
+     * Gives the bot the same stones as this player, as they are on the provided board.
+     */
+    private void syncHand(Board board) {
+        bot.resetStones();
+        for (long mask = getHandMask(); mask != 0; mask &= mask - 1) {
+            bot.addStone(board.getStone(Long.numberOfTrailingZeros(mask)));
+        }
+    }
+
+    /**
+     * Turns a move of the bot on its copy of the board into the same move with the stone of this player.
+     * @return The move, or null if the bot does not have the stone or the move is not legal.
+     */
+    private Move translate(Board board, Move move) {
+        Stone chosen = move.getStone();
+        Stone stone = chosen.getId() < 0 ? null : getStone(chosen.getId());
+        if(stone == null) {
+            return null;
+        }
+        for (int rotations = 0; rotations < 6; rotations++) {
+            stone.setRotations(rotations);
+            if(stone.equals(chosen)) {
+                Move translated = new Move(stone, move.getX(), move.getY());
+                return board.getStoneAt(move.getX(), move.getY()) == null && board.isValidMove(translated)
+                    ? translated : null;
+            }
+        }
+        return null;
+    }
+
+    private Move fallback(Board board) {
+        if(budget.fallback() == MoveBudget.Fallback.FIRST_PLACEMENT) {
+            placements.clear();
+            if(board.generatePlacements(getHandMask(), placements) > 0) {
+                long placement = placements.get(0);
+                return Placement.toMove(placement, getStone(Placement.getId(placement)));
+            }
+        }
+        Stone stone = board.getFromStack();
+        if(stone != null) {
+            addStone(stone);
+        }
+        return null;
+    }
+
+    private Player toBot(Player player) {
+        return player == this ? bot : player;
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        if(bot instanceof GameListener listener) {
+            listener.roundStarted(game);
+        }
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        if(bot instanceof GameListener listener) {
+            listener.turnStarted(game, toBot(player));
+        }
+    }
+
+    @Override
+    public void stoneDrawn(Game game, Player player) {
+        if(bot instanceof GameListener listener) {
+            listener.stoneDrawn(game, toBot(player));
+        }
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        if(bot instanceof GameListener listener) {
+            if(player == this) {
+                syncHand(game.getBoard());
+            }
+            listener.movePlayed(game, toBot(player), move, points);
+        }
+    }
+
+    @Override
+    public void roundFinished(Game game) {
+        if(bot instanceof GameListener listener) {
+            listener.roundFinished(game);
+        }
+    }
+
+    @Override
+    public void gameFinished(Game game) {
+        if(bot instanceof GameListener listener) {
+            listener.gameFinished(game);
+        }
+    }
+
+    /**
+     * Stops the thread of the bot, and closes the bot if it can be closed.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if(bot instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.printf("[ERROR] [BOTS] %s: \"%s\"%n", getUsername(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package nl.supertom01.triominos.bots;
+
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * Provides the {@link EasyPlayer} as "easy".
+ */
+public class EasyBotProvider implements BotProvider {
+
+    @Override
+    public String getName() {
+        return "easy";
+    }
+
+    @Override
+    public Player create() {
+        return new EasyPlayer();
+    }
+}
@@ -0,0 +1,46 @@
+package nl.supertom01.triominos.bots;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import nl.supertom01.triominos.ai.OpeningTable;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * Provides the {@link HardPlayer} as "hard". It does not ponder, such that games on parallel threads do not compete
+ * for the cores with pondering threads. If the {@value #OPENINGS_PROPERTY} property names an {@link OpeningTable}, it
+ * is mapped once and shared by all the players.
+ */
+public class HardBotProvider implements BotProvider {
+
+    /** The system property with the file of the opening table. */
+    public static final String OPENINGS_PROPERTY = "triominos.openings";
+
+    private static final class Openings {
+        private static final OpeningTable TABLE = load(System.getProperty(OPENINGS_PROPERTY));
+    }
+
+    @Override
+    public String getName() {
+        return "hard";
+    }
+
+    @Override
+    public Player create() {
+        HardPlayer player = new HardPlayer(0);
+        player.setOpenings(Openings.TABLE);
+        return player;
+    }
+
+    private static OpeningTable load(String file) {
+        if(file == null || file.isBlank()) {
+            return null;
+        }
+        try {
+            return OpeningTable.open(Path.of(file));
+        } catch (IOException e) {
+            System.err.printf("[ERROR] [BOTS] \"Cannot load the opening table %s: %s\"%n", file, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package nl.supertom01.triominos.bots;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time a bot may spend on a single move, see {@link BudgetedPlayer}.
+ * @param wallNanos The wall-clock time.
+ * @param cpuNanos  The CPU time of the thread of the bot, which is only enforced where the JVM measures it.
+ * @param fallback  What is played instead when the bot overruns its budget or fails.
+ */
+public record MoveBudget(long wallNanos, long cpuNanos, Fallback fallback) {
+
+    /** The system property with the wall-clock budget of a move, in milliseconds. */
+    public static final String WALL_PROPERTY = "triominos.moveBudget";
+
+    /** The system property with the CPU budget of a move, in milliseconds. It defaults to the wall-clock budget. */
+    public static final String CPU_PROPERTY = "triominos.cpuBudget";
+
+    /** The system property with the fallback, see {@link Fallback}. */
+    public static final String FALLBACK_PROPERTY = "triominos.fallback";
+
+    /**
+     * The move that is played for a bot that did not produce a (legal) move in time.
+     */
+    public enum Fallback {
+        /** Take a stone from the stack, or pass if it is empty. */
+        DRAW,
+        /** Place the first legal stone (like the easy player), or take a stone if none fits. */
+        FIRST_PLACEMENT
+    }
+
+    public MoveBudget {
+        if(wallNanos <= 0 || cpuNanos <= 0) {
+            throw new IllegalArgumentException("A move budget should be positive.");
+        }
+    }
+
+    /**
+     * Creates a budget in milliseconds, with the same wall-clock and CPU time, that draws on overruns.
+     * @param millis The budget.
+     * @return The budget.
+     */
+    public static MoveBudget ofMillis(long millis) {
+        return new MoveBudget(TimeUnit.MILLISECONDS.toNanos(millis), TimeUnit.MILLISECONDS.toNanos(millis),
+            Fallback.DRAW);
+    }
+
+    /**
+     * Reads the budget from the system properties {@value #WALL_PROPERTY}, {@value #CPU_PROPERTY} and
+     * {@value #FALLBACK_PROPERTY}.
+     * @return The budget, or null if no wall-clock budget has been set.
+     */
+    public static MoveBudget fromSystemProperties() {
+        String wall = System.getProperty(WALL_PROPERTY);
+        if(wall == null || wall.isBlank()) {
+            return null;
+        }
+        long wallNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(wall.trim()));
+        String cpu = System.getProperty(CPU_PROPERTY);
+        long cpuNanos = cpu == null || cpu.isBlank()
+            ? wallNanos : TimeUnit.MILLISECONDS.toNanos(Long.parseLong(cpu.trim()));
+        Fallback fallback = Fallback.valueOf(System.getProperty(FALLBACK_PROPERTY, Fallback.DRAW.name()).trim());
+        return new MoveBudget(wallNanos, cpuNanos, fallback);
+    }
+}
@@ -1,12 +1,14 @@
 package nl.supertom01.triominos.controller;
 
-import java.util.List;
+import nl.supertom01.triominos.ai.LegalMoveCache;
 import nl.supertom01.triominos.model.Board;
 import nl.supertom01.triominos.model.Move;
 import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
 import nl.supertom01.triominos.model.Player;
 import nl.supertom01.triominos.model.Stone;
-import nl.supertom01.triominos.util.Tuple;
+import nl.supertom01.triominos.profiling.MoveGenerationEvent;
+import nl.supertom01.triominos.util.LongList;
 
 /**
  * A simple AI that picks the first stone that it can place on the board.
@@ -14,29 +16,39 @@ import nl.supertom01.triominos.util.Tuple;
  */
 public class EasyPlayer extends Player {
 
+    /** Reused buffer for the legal placements. */
+    private final LongList placements;
+
+    /** The legal moves of the hand, updated around the stones that have been placed since the previous turn. */
+    private final LegalMoveCache legalMoves;
+
     public EasyPlayer() {
         super("Easy Player");
+        this.placements = new LongList();
+        this.legalMoves = new LegalMoveCache();
     }
 
     @Override
     public Move determineMove(Board board) {
-        List<Tuple<Tuple<Integer, Integer>, Orientation>> availableSpots = board.getOpenFields();
-        List<Stone> stones = getStones();
-
-        // Check each stone in our collection.
-        for (Stone stone : stones) {
-            // Check each possible field.
-            for (Tuple<Tuple<Integer, Integer>, Orientation> field : availableSpots) {
-                int x = field.getLeft().getLeft();
-                int y = field.getLeft().getRight();
-                // Check each possible rotation.
-                for (int i = 0; i < 6; i++) {
-                    Move move = new Move(stone, x, y);
-                    if(board.isValidMove(move)) {
-                        return move;
-                    }
-                }
-            }
+        MoveGenerationEvent event = new MoveGenerationEvent();
+        event.begin();
+        placements.clear();
+        legalMoves.update(board, getHandMask());
+        int count = legalMoves.generatePlacements(placements);
+        if(event.shouldCommit()) {
+            // The hand is fitted on the middle of an empty board in each orientation, otherwise only on the fields
+            // that the cache had to check again.
+            event.player = getUsername();
+            event.openFields = legalMoves.getFieldCount();
+            event.candidates = board.isEmpty() ? Orientation.values().length : legalMoves.getFitCheckCount();
+            event.legalMoves = count;
+            event.commit();
+        }
+
+        // Place the first stone that fits.
+        if(count > 0) {
+            long placement = placements.get(0);
+            return Placement.toMove(placement, getStone(Placement.getId(placement)));
         }
 
         // No possible move found... So draw from the stack.
@@ -1,21 +1,330 @@
 package nl.supertom01.triominos.controller;
 
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import nl.supertom01.triominos.ai.BeliefTracker;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.ai.GameClock;
+import nl.supertom01.triominos.ai.LegalMoveCache;
+import nl.supertom01.triominos.ai.OpeningTable;
+import nl.supertom01.triominos.ai.PositionDatabase;
+import nl.supertom01.triominos.ai.Ponderer;
+import nl.supertom01.triominos.ai.SearchController;
+import nl.supertom01.triominos.ai.TranspositionTable;
+import nl.supertom01.triominos.exceptions.PlacementException;
 import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
 import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
 import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
 
 /**
  * A more sophisticated AI that tries each stone and each move and makes the move that yields the highest score.
+ * In a game with two players it plays perfectly once the stack is empty, using the {@link EndgameSolver}. During the
+ * endgame it also ponders: while the opponent is thinking, it already searches its answers to the likely replies.
+ * The pondering solvers share their transposition table with the solver of the own turn.
+ * With a {@link PositionDatabase}, known endgame positions are played from the database and solved ones are added to
+ * it. With a {@link GameClock}, the time of each endgame search is a share of the time left on the clock,
+ * instead of {@link #ENDGAME_BUDGET}. With an {@link OpeningTable}, the first moves of a round with two players are
+ * chosen by the points they yield plus the value of the position they lead to. Of the other moves with the most points,
+ * it makes the one after which the next player is expected to score the least, according to a {@link BeliefTracker}.
  */
-public class HardPlayer extends Player {
+public class HardPlayer extends Player implements GameListener, AutoCloseable {
 
+    /** The default time that may be spent on a move in the endgame. */
+    public static final long ENDGAME_BUDGET = TimeUnit.SECONDS.toNanos(1);
+
+    /** The number of replies of the opponent that are pondered on. */
+    public static final int PONDER_REPLIES = 8;
+
+    /** Returned by {@link #solveEndgame} when the solver did not complete a single iteration. */
+    private static final long NO_RESULT = -2;
+
+    /** Reused buffer for the legal placements. */
+    private final LongList placements;
+
+    /** The legal moves of the hand, updated around the stones that have been placed since the previous turn. */
+    private final LegalMoveCache legalMoves;
+
+    private final EndgameSolver solver;
+
+    /** Searches during the opponent's turn, or null if pondering is disabled. */
+    private final Ponderer ponderer;
+
+    /** The positions with a known best move, or null. */
+    private volatile PositionDatabase database;
+
+    /** The values of the opening positions, or null. */
+    private volatile OpeningTable openings;
+
+    /** The time left for the game, or null to search each endgame position for {@link #ENDGAME_BUDGET}. */
+    private GameClock clock;
+
+    /** The number of players in the current game. */
+    private int players;
+
+    /** What this player believes about the stones of the opponents. */
+    private final BeliefTracker beliefs;
+
+    /** The player after this one, or null if this player is not seated in the game itself. */
+    private Player next;
+
+    /**
+     * Creates a hard player that does not ponder.
+     */
     public HardPlayer() {
+        this(0);
+    }
+
+    /**
+     * Creates a hard player. A player that ponders should be closed once it is not used anymore.
+     * @param ponderThreads The number of threads that may be used while the opponent is thinking, 0 disables pondering.
+     */
+    public HardPlayer(int ponderThreads) {
         super("Hard Player");
+        this.placements = new LongList();
+        this.legalMoves = new LegalMoveCache();
+        TranspositionTable table = new TranspositionTable(EndgameSolver.DEFAULT_TABLE_BITS);
+        this.solver = new EndgameSolver(table, SearchController.NEVER);
+        this.players = 2;
+        this.beliefs = new BeliefTracker(this);
+        if(ponderThreads > 0) {
+            ThreadLocal<EndgameSolver> solvers = ThreadLocal.withInitial(
+                () -> new EndgameSolver(table, SearchController.NEVER));
+            this.ponderer = new Ponderer((board, hand, budget) -> solveEndgame(solvers.get(), board, hand, budget),
+                ponderThreads, PONDER_REPLIES, ENDGAME_BUDGET);
+        } else {
+            this.ponderer = null;
+        }
+    }
+
+    /**
+     * Sets the database that is probed before each move, and to which the solved endgame positions are added.
+     * @param database The database, or null to play without one.
+     */
+    public void setDatabase(PositionDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Sets the table from which the first moves of a round are chosen.
+     * @param openings The table, or null to play without one.
+     */
+    public void setOpenings(OpeningTable openings) {
+        this.openings = openings;
+    }
+
+    /**
+     * Sets the clock from which the time of each move is taken.
+     * @param clock The clock, or null to play without one.
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        Player[] players = game.getPlayers();
+        int seat = game.getPlayerIndex(this);
+        this.players = players.length;
+        this.next = seat < 0 ? null : players[(seat + 1) % players.length];
+        beliefs.roundStarted(game);
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        beliefs.turnStarted(game, player);
+    }
+
+    @Override
+    public void stoneDrawn(Game game, Player player) {
+        beliefs.stoneDrawn(game, player);
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        beliefs.movePlayed(game, player, move, points);
+        Board board = game.getBoard();
+        if(player == this && ponderer != null && isEndgame(board) && getStoneCount() > 0) {
+            ponderer.ponder(board, getHandMask(), board.getUnseenMask(this));
+        }
+    }
+
+    @Override
+    public void roundFinished(Game game) {
+        if(ponderer != null) {
+            ponderer.cancel();
+        }
+    }
+
+    /**
+     * Stops the pondering threads, the player should not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if(ponderer != null) {
+            ponderer.close();
+        }
     }
 
     @Override
     public Move determineMove(Board board) {
+        GameClock clock = this.clock;
+        if(clock == null) {
+            return decide(board, ENDGAME_BUDGET);
+        }
+        // Every turn takes a stone from the hand or from the stack, so the turns that are left are about the stones
+        // in the hand plus a share of the stack.
+        long start = System.nanoTime();
+        try {
+            return decide(board, clock.allocate(getStoneCount() + board.getStackSize() / Math.max(1, players)));
+        } finally {
+            clock.spend(System.nanoTime() - start);
+        }
+    }
+
+    private Move decide(Board board, long budget) {
+        // The key of a position does not include the stack, so only the positions of an endgame can be looked up.
+        PositionDatabase database = this.database;
+        if(database != null && isEndgame(board)) {
+            long entry = database.get(PositionDatabase.key(board, getHandMask()));
+            if(entry != PositionDatabase.MISSING) {
+                long placement = PositionDatabase.getPlacement(entry, board);
+                if(placement != EndgameSolver.PASS && (getHandMask() & (1L << Placement.getId(placement))) != 0
+                    && board.isValidMove(toMove(placement))) {
+                    return toMove(placement);
+                }
+            }
+        }
+
+        if(isEndgame(board)) {
+            OptionalLong pondered = ponderer != null
+                ? ponderer.takeResult(board, getHandMask(), budget) : OptionalLong.empty();
+            long placement = pondered.isPresent()
+                ? pondered.getAsLong() : solveEndgame(solver, new Board(board), getHandMask(), budget);
+            if(placement != NO_RESULT) {
+                return placement == EndgameSolver.PASS ? null : toMove(placement);
+            }
+        }
+
+        placements.clear();
+        legalMoves.update(board, getHandMask());
+        legalMoves.generatePlacements(placements);
+        OpeningTable openings = this.openings;
+        if(openings != null && players == 2 && Long.bitCount(board.getBoardMask()) < openings.getPlies()) {
+            long placement = chooseOpening(openings, board);
+            if(placement != EndgameSolver.PASS) {
+                return toMove(placement);
+            }
+        }
+
+        // Otherwise, make the move that yields the most points right now.
+        long best = EndgameSolver.PASS;
+        int bestPoints = Integer.MIN_VALUE;
+        double bestReply = Double.NaN;
+        for (int i = 0; i < placements.size(); i++) {
+            long placement = placements.get(i);
+            int points = board.determinePoints(toMove(placement), this);
+            if(points > bestPoints) {
+                bestPoints = points;
+                best = placement;
+                bestReply = Double.NaN;
+            } else if(points == bestPoints && next != null) {
+                if(Double.isNaN(bestReply)) {
+                    bestReply = expectReply(board, best);
+                }
+                double reply = expectReply(board, placement);
+                if(reply < bestReply) {
+                    best = placement;
+                    bestReply = reply;
+                }
+            }
+        }
+        if(best != EndgameSolver.PASS) {
+            return toMove(best);
+        }
+
+        // No possible move found... So draw from the stack.
+        Stone stone = board.getFromStack();
+        if(stone != null) {
+            addStone(stone);
+        }
         return null;
     }
 
+    /**
+     * Picks the legal placement with the most points plus the value of the position after it.
+     * @return The placement, or {@link EndgameSolver#PASS} if there is none or a position is not in the table.
+     */
+    private long chooseOpening(OpeningTable openings, Board board) {
+        long best = EndgameSolver.PASS;
+        long bestValue = Long.MIN_VALUE;
+        for (int i = 0; i < placements.size(); i++) {
+            Move move = toMove(placements.get(i));
+            int points = board.determinePoints(move, this);
+            try {
+                board.placeStone(move);
+            } catch (PlacementException e) {
+                throw new IllegalStateException(e);
+            }
+            int value = openings.get(board);
+            board.removeStone(move);
+            if(value == OpeningTable.MISSING) {
+                return EndgameSolver.PASS;
+            }
+            if(points * 100L + value > bestValue) {
+                bestValue = points * 100L + value;
+                best = placements.get(i);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Estimates the points of the reply of the next player to a placement.
+     */
+    private double expectReply(Board board, long placement) {
+        Move move = toMove(placement);
+        try {
+            board.placeStone(move);
+        } catch (PlacementException e) {
+            throw new IllegalStateException(e);
+        }
+        double reply = beliefs.getExpectedReply(board, next);
+        board.removeStone(move);
+        return reply;
+    }
+
+    /**
+     * With two players and an empty stack, the stones of the opponent are known.
+     */
+    private boolean isEndgame(Board board) {
+        return players == 2 && board.getStackSize() == 0 && !board.isEmpty();
+    }
+
+    /**
+     * Solves an endgame. The solver rotates the stones of both hands and places them, so it needs a copy of the board
+     * of which the stones are not in the hands of the players.
+     */
+    private long solveEndgame(EndgameSolver solver, Board board, long hand, long budget) {
+        long opponentHand = Stone.ALL & ~board.getBoardMask() & ~hand;
+        SearchController.Result result = solver.solve(board, hand, opponentHand, 0, budget);
+        if(result == null) {
+            return NO_RESULT;
+        }
+        PositionDatabase database = this.database;
+        if(database != null && result.exact()) {
+            database.put(PositionDatabase.key(board, hand), PositionDatabase.entry(board, result.placement(),
+                result.score()));
+        }
+        return result.placement();
+    }
+
+    private Move toMove(long placement) {
+        return Placement.toMove(placement, getStone(Placement.getId(placement)));
+    }
+
 }
@@ -1,17 +1,45 @@
 package nl.supertom01.triominos.controller;
 
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javafx.application.Platform;
 import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
 import nl.supertom01.triominos.model.Move;
 import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.view.PlacementHints;
 
 /**
  * This player is an actual human being. The human is requested to perform a move, which can either be placing a stone
  * on the board or picking a stone from the stack.
+ * While the game is running, the placements of the stones in the hand are computed in the background, such that the
+ * board only shows the fields on which the selected stone can be placed.
  */
-public class HumanPlayer extends Player {
+public class HumanPlayer extends Player implements GameListener {
+
+    /** How long the start of a turn waits for the hints of the last move, in milliseconds. */
+    private static final long HINTS_WAIT = 200;
+
+    private final PlacementHints hints;
+
+    /** The last scheduled update of the hints. */
+    private volatile Future<?> pending;
+
+    /** The stone of which the placements are shown, or null to show the placements of the whole hand. */
+    private volatile Stone selected;
+
+    /** The board that is shown while it is the turn of this player. */
+    private volatile Board shownBoard;
 
     public HumanPlayer(String username) {
         super(username);
+        this.hints = new PlacementHints(this::redraw);
     }
 
     @Override
@@ -19,4 +47,74 @@ public class HumanPlayer extends Player {
         return null;
     }
 
+    /**
+     * Selects a stone from the hand, the board then only shows where it can be placed.
+     * @param stone The stone, or null to show the placements of all the stones in the hand.
+     */
+    public void selectStone(Stone stone) {
+        this.selected = stone;
+        redraw();
+    }
+
+    public Stone getSelectedStone() {
+        return selected;
+    }
+
+    /**
+     * Get the legal placements of the selected stone, or of the whole hand if no stone has been selected.
+     * @return The placements with their points, the best one first.
+     */
+    public List<PlacementHints.Hint> getHints() {
+        Stone stone = selected;
+        return stone == null ? hints.getHints() : hints.getHints(stone.getId());
+    }
+
+    /**
+     * Waits a short while for the hints to be brought up to date with the last move. Should that take longer, the
+     * board is redrawn once they are.
+     */
+    public void awaitHints() {
+        Future<?> future = pending;
+        if(future == null) {
+            return;
+        }
+        try {
+            future.get(HINTS_WAIT, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            // Keep showing the previous hints.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        selected = null;
+        pending = hints.update(game.getBoard(), getHandMask());
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        shownBoard = player == this ? game.getBoard() : null;
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        if(player == this && selected != null && !hasStone(selected)) {
+            selected = null;
+        }
+        shownBoard = null;
+        pending = hints.update(game.getBoard(), getHandMask());
+    }
+
+    /**
+     * Shows the current hints on the board, if it is the turn of this player and the board is on screen.
+     */
+    private void redraw() {
+        Board board = shownBoard;
+        if(board != null && board.getScene() != null) {
+            Platform.runLater(() -> board.update(getHints()));
+        }
+    }
+
 }
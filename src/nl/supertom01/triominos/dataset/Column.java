@@ -0,0 +1,77 @@
+package nl.supertom01.triominos.dataset;
+
+/**
+ * The columns of a dataset, in the order in which they are stored in each block. Every value has a fixed width, the
+ * integers are little endian and signed.
+ */
+public enum Column {
+    /** The seed of the game. */
+    SEED(8),
+    /** The round of the game, starting at 1. */
+    ROUND(1),
+    /** The seat of the player to move. */
+    SEAT(1),
+    /** The number of stones on the stack. */
+    STACK_SIZE(1),
+    /** The stones in the hand of the player to move, as a bit mask of their ids. */
+    HAND(8),
+    /** The number of stones of the opponents together. */
+    OPPONENT_STONES(1),
+    /** The points of the player to move at the start of the turn. */
+    SCORE(4),
+    /** The most points of an opponent at the start of the turn. */
+    OPPONENT_SCORE(4),
+    /** The x-coordinate on the board of the left column of the window. */
+    WINDOW_X(2),
+    /** The y-coordinate on the board of the top row of the window. */
+    WINDOW_Y(2),
+    /** The cells of the window row by row, two bytes each, see {@link Features}. */
+    CELLS(2 * Features.WINDOW_CELLS),
+    /** The placement that was made (see {@link nl.supertom01.triominos.model.Placement}), or -1 without one. */
+    MOVE(8),
+    /** 1 if the player took a stone from the stack. */
+    DREW(1),
+    /** The points the player gained in the whole round minus the most points an opponent gained. */
+    RESULT(4);
+
+    /** The number of bytes of all the columns of a single row. */
+    public static final int ROW_BYTES = rowBytes();
+
+    private final int width;
+
+    Column(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Get the number of bytes of a single value.
+     * @return The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the position of the column in a block.
+     * @param blockRows The number of rows of a block.
+     * @return The offset of the first value from the start of the block.
+     */
+    public long getOffset(int blockRows) {
+        long offset = 0;
+        for (Column column : values()) {
+            if(column == this) {
+                break;
+            }
+            offset += (long) column.width * blockRows;
+        }
+        return offset;
+    }
+
+    private static int rowBytes() {
+        int bytes = 0;
+        for (Column column : values()) {
+            bytes += column.width;
+        }
+        return bytes;
+    }
+}
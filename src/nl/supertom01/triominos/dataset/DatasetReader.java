@@ -0,0 +1,130 @@
+package nl.supertom01.triominos.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a dataset that was written by the {@link DatasetWriter}. Each block is mapped into memory on its own, so files
+ * that are larger than a single mapping can be read as well. The values of a column within a block are contiguous,
+ * see {@link #getColumn(int, Column)}. A reader can be used by several threads.
+ */
+public class DatasetReader implements Closeable {
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final long rows;
+    private final ByteBuffer[] blocks;
+
+    private DatasetReader(FileChannel channel, int blockRows, long rows) throws IOException {
+        this.channel = channel;
+        this.blockRows = blockRows;
+        this.rows = rows;
+        this.blocks = new ByteBuffer[(int) ((rows + blockRows - 1) / blockRows)];
+        long size = (long) blockRows * Column.ROW_BYTES;
+        for (int block = 0; block < blocks.length; block++) {
+            blocks[block] = channel.map(FileChannel.MapMode.READ_ONLY, DatasetWriter.HEADER + block * size, size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Opens a dataset.
+     * @param path The file.
+     * @return The reader.
+     * @throws IOException If the file cannot be mapped or is not a complete dataset.
+     */
+    public static DatasetReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(DatasetWriter.HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            header.flip();
+            if(header.remaining() < DatasetWriter.HEADER || header.getLong(0) != DatasetWriter.MAGIC
+                || header.getInt(8) != DatasetWriter.VERSION || header.getInt(24) != Features.WINDOW_WIDTH
+                || header.getInt(28) != Features.WINDOW_HEIGHT) {
+                throw new IOException("Not a dataset: " + path);
+            }
+            int blockRows = header.getInt(12);
+            long rows = header.getLong(16);
+            long blocks = (rows + blockRows - 1) / blockRows;
+            if(blockRows < 1 || channel.size() != DatasetWriter.HEADER + blocks * blockRows * Column.ROW_BYTES) {
+                throw new IOException("Incomplete dataset: " + path);
+            }
+            return new DatasetReader(channel, blockRows, rows);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * Get the values of a column in a block.
+     * @param block  The index of the block.
+     * @param column The column.
+     * @return A little endian buffer with the values of all the rows of the block, the last block is padded with
+     *         zeros.
+     */
+    public ByteBuffer getColumn(int block, Column column) {
+        int offset = (int) column.getOffset(blockRows);
+        return blocks[block].slice(offset, column.getWidth() * blockRows).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Get a value of a row.
+     * @param row    The index of the row.
+     * @param column A column that is not wider than 8 bytes.
+     * @return The value.
+     */
+    public long get(long row, Column column) {
+        int index = position(row, column, 0);
+        ByteBuffer block = blocks[(int) (row / blockRows)];
+        return switch (column.getWidth()) {
+            case 1 -> block.get(index);
+            case 2 -> block.getShort(index);
+            case 4 -> block.getInt(index);
+            case 8 -> block.getLong(index);
+            default -> throw new IllegalArgumentException(column + " is not a single value.");
+        };
+    }
+
+    /**
+     * Get a cell of the window of a row, see {@link Features}.
+     * @param row  The index of the row.
+     * @param cell The index of the cell, row by row.
+     * @return The cell.
+     */
+    public short getCell(long row, int cell) {
+        return blocks[(int) (row / blockRows)].getShort(position(row, Column.CELLS, 2 * cell));
+    }
+
+    private int position(long row, Column column, int offset) {
+        if(row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+        return (int) (column.getOffset(blockRows) + row % blockRows * column.getWidth() + offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,144 @@
+package nl.supertom01.triominos.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes samples to a dataset file. The rows are collected column by column in direct buffers of a block of rows
+ * each, and a full block is written with a single pass over the columns. Samples can be added from several threads.
+ *
+ * File layout (little endian): a header of {@value #HEADER} bytes with the magic number, the version, the number of
+ * rows per block, the number of rows and the size of the window, followed by the blocks. A block holds the values of
+ * each {@link Column} in turn, for all of its rows; the last block is padded with zeros to the size of a full block.
+ * The number of rows is only filled in when the writer is closed.
+ */
+public class DatasetWriter implements Closeable {
+
+    /** The default number of rows of a block. */
+    public static final int DEFAULT_BLOCK_ROWS = 1 << 15;
+
+    static final int HEADER = 32;
+    static final long MAGIC = 0x3141544144495254L; // "TRIDATA1"
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final ByteBuffer[] columns;
+
+    private int blockSize;
+    private long rows;
+
+    /**
+     * Creates a dataset file.
+     * @param path      The file, which is replaced if it exists.
+     * @param blockRows The number of rows of a block.
+     * @throws IOException If the file cannot be created.
+     */
+    public DatasetWriter(Path path, int blockRows) throws IOException {
+        if(blockRows < 1) {
+            throw new IllegalArgumentException("A block should hold at least a row.");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.blockRows = blockRows;
+        this.columns = new ByteBuffer[Column.values().length];
+        for (Column column : Column.values()) {
+            columns[column.ordinal()] = ByteBuffer.allocateDirect(column.getWidth() * blockRows)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        writeHeader();
+    }
+
+    /**
+     * Adds a sample.
+     * @param sample The sample.
+     * @throws IOException If a full block cannot be written.
+     */
+    public synchronized void add(Sample sample) throws IOException {
+        columns[Column.SEED.ordinal()].putLong(sample.seed());
+        columns[Column.ROUND.ordinal()].put((byte) sample.round());
+        columns[Column.SEAT.ordinal()].put((byte) sample.seat());
+        columns[Column.STACK_SIZE.ordinal()].put((byte) sample.stackSize());
+        columns[Column.HAND.ordinal()].putLong(sample.hand());
+        columns[Column.OPPONENT_STONES.ordinal()].put((byte) sample.opponentStones());
+        columns[Column.SCORE.ordinal()].putInt(sample.score());
+        columns[Column.OPPONENT_SCORE.ordinal()].putInt(sample.opponentScore());
+        columns[Column.WINDOW_X.ordinal()].putShort((short) sample.windowX());
+        columns[Column.WINDOW_Y.ordinal()].putShort((short) sample.windowY());
+        ByteBuffer cells = columns[Column.CELLS.ordinal()];
+        for (short cell : sample.cells()) {
+            cells.putShort(cell);
+        }
+        columns[Column.MOVE.ordinal()].putLong(sample.move());
+        columns[Column.DREW.ordinal()].put((byte) (sample.drew() ? 1 : 0));
+        columns[Column.RESULT.ordinal()].putInt(sample.result());
+        rows++;
+        if(++blockSize == blockRows) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Adds samples, without interleaving them with the samples of other threads.
+     * @param samples The samples.
+     * @throws IOException If a full block cannot be written.
+     */
+    public synchronized void addAll(Iterable<Sample> samples) throws IOException {
+        for (Sample sample : samples) {
+            add(sample);
+        }
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    /**
+     * Writes the last block and the number of rows, and closes the file.
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if(blockSize > 0) {
+                writeBlock();
+            }
+            writeHeader();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        for (ByteBuffer column : columns) {
+            while (column.hasRemaining()) {
+                column.put((byte) 0);
+            }
+            column.flip();
+            while (column.hasRemaining()) {
+                channel.write(column);
+            }
+            column.clear();
+        }
+        blockSize = 0;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(VERSION).putInt(blockRows).putLong(rows)
+            .putInt(Features.WINDOW_WIDTH).putInt(Features.WINDOW_HEIGHT);
+        header.flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        if(channel.position() < HEADER) {
+            channel.position(HEADER);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package nl.supertom01.triominos.dataset;
+
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Stone;
+
+/**
+ * Encodes the board around the frontier as a fixed window of cells, centred on the bounding box of the stones.
+ * Layout of a cell (16 bits): stone id + 1, 0 if the cell is empty (6 bits) | rotations of the stone (3 bits) |
+ * the cell points up (1 bit) | the cell is an open field (1 bit).
+ */
+public final class Features {
+
+    /** The number of cells in a row of the window. */
+    public static final int WINDOW_WIDTH = 24;
+
+    /** The number of rows of the window. */
+    public static final int WINDOW_HEIGHT = 12;
+
+    /** The number of cells of the window. */
+    public static final int WINDOW_CELLS = WINDOW_WIDTH * WINDOW_HEIGHT;
+
+    /** The bit of a cell that points up. */
+    public static final int TOP = 1 << 9;
+
+    /** The bit of a cell on which a stone can be placed. */
+    public static final int OPEN = 1 << 10;
+
+    private Features() {
+    }
+
+    /**
+     * Get the left column of the window of a board.
+     * @param board The board.
+     * @return The x-coordinate of the first cell of each row.
+     */
+    public static int getWindowX(Board board) {
+        int[] extremes = board.getExtremeValues();
+        int middle = board.isEmpty() ? Board.NR_STONES : (extremes[0] + extremes[2]) / 2;
+        return middle - WINDOW_WIDTH / 2;
+    }
+
+    /**
+     * Get the top row of the window of a board.
+     * @param board The board.
+     * @return The y-coordinate of the first row.
+     */
+    public static int getWindowY(Board board) {
+        int[] extremes = board.getExtremeValues();
+        int middle = board.isEmpty() ? Board.NR_STONES : (extremes[1] + extremes[3]) / 2;
+        return middle - WINDOW_HEIGHT / 2;
+    }
+
+    /**
+     * Encodes the window of a board.
+     * @param board   The board.
+     * @param windowX The left column of the window, see {@link #getWindowX(Board)}.
+     * @param windowY The top row of the window, see {@link #getWindowY(Board)}.
+     * @param cells   Receives the {@value #WINDOW_CELLS} cells, row by row.
+     */
+    public static void encode(Board board, int windowX, int windowY, short[] cells) {
+        for (int row = 0; row < WINDOW_HEIGHT; row++) {
+            for (int column = 0; column < WINDOW_WIDTH; column++) {
+                int x = windowX + column;
+                int y = windowY + row;
+                Stone stone = board.getStoneAt(x, y);
+                int cell = 0;
+                if(stone != null) {
+                    cell = stone.getId() + 1 | Math.max(0, stone.getRotations()) << 6;
+                    if(stone.getOrientation() == Orientation.TOP) {
+                        cell |= TOP;
+                    }
+                } else {
+                    Orientation orientation = board.getOpenFieldOrientation(x, y);
+                    if(orientation != null) {
+                        cell = OPEN | (orientation == Orientation.TOP ? TOP : 0);
+                    }
+                }
+                cells[row * WINDOW_WIDTH + column] = (short) cell;
+            }
+        }
+    }
+}
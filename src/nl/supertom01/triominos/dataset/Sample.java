@@ -0,0 +1,29 @@
+package nl.supertom01.triominos.dataset;
+
+/**
+ * A single turn of a game, as a row of a dataset. See {@link Column} for the meaning of the values.
+ */
+public record Sample(long seed, int round, int seat, int stackSize, long hand, int opponentStones, int score,
+                     int opponentScore, int windowX, int windowY, short[] cells, long move, boolean drew, int result) {
+
+    /**
+     * Get the same sample with the move that was made.
+     * @param move The placement, or -1 if the player did not place a stone.
+     * @param drew True if the player took a stone from the stack.
+     * @return The sample.
+     */
+    public Sample withMove(long move, boolean drew) {
+        return new Sample(seed, round, seat, stackSize, hand, opponentStones, score, opponentScore, windowX, windowY,
+            cells, move, drew, result);
+    }
+
+    /**
+     * Get the same sample with the result of its round.
+     * @param result The points the player gained in the round minus the most points an opponent gained.
+     * @return The sample.
+     */
+    public Sample withResult(int result) {
+        return new Sample(seed, round, seat, stackSize, hand, opponentStones, score, opponentScore, windowX, windowY,
+            cells, move, drew, result);
+    }
+}
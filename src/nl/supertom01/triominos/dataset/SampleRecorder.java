@@ -0,0 +1,104 @@
+package nl.supertom01.triominos.dataset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * Turns every turn of a game into a {@link Sample}. The samples of a round are kept until the round has finished,
+ * when its result is known, and are then added to the writer together. A recorder records a single game.
+ */
+public class SampleRecorder implements GameListener {
+
+    private final DatasetWriter writer;
+    private final long seed;
+    private final List<Sample> samples;
+
+    private int round;
+    private int[] roundStart;
+
+    // The sample of the current turn, without its move.
+    private Sample turn;
+
+    /**
+     * Creates a recorder.
+     * @param writer The writer to which the samples are added.
+     * @param seed   The seed of the game.
+     */
+    public SampleRecorder(DatasetWriter writer, long seed) {
+        this.writer = writer;
+        this.seed = seed;
+        this.samples = new ArrayList<>();
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        round++;
+        samples.clear();
+        Player[] players = game.getPlayers();
+        roundStart = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            roundStart[i] = players[i].getPoints();
+        }
+    }
+
+    @Override
+    public void turnStarted(Game game, Player player) {
+        Board board = game.getBoard();
+        Player[] players = game.getPlayers();
+        int seat = game.getPlayerIndex(player);
+        int opponentStones = 0;
+        int opponentScore = Integer.MIN_VALUE;
+        for (int i = 0; i < players.length; i++) {
+            if(i != seat) {
+                opponentStones += players[i].getStoneCount();
+                opponentScore = Math.max(opponentScore, players[i].getPoints());
+            }
+        }
+        int windowX = Features.getWindowX(board);
+        int windowY = Features.getWindowY(board);
+        short[] cells = new short[Features.WINDOW_CELLS];
+        Features.encode(board, windowX, windowY, cells);
+        turn = new Sample(seed, round, seat, board.getStackSize(), player.getHandMask(), opponentStones,
+            player.getPoints(), opponentScore, windowX, windowY, cells, EndgameSolver.PASS, false, 0);
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        boolean drew = game.getBoard().getStackSize() < turn.stackSize();
+        samples.add(turn.withMove(move == null ? EndgameSolver.PASS : Placement.of(move), drew));
+    }
+
+    @Override
+    public void roundFinished(Game game) {
+        Player[] players = game.getPlayers();
+        int[] gained = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            gained[i] = players[i].getPoints() - roundStart[i];
+        }
+        List<Sample> finished = new ArrayList<>(samples.size());
+        for (Sample sample : samples) {
+            int best = Integer.MIN_VALUE;
+            for (int i = 0; i < gained.length; i++) {
+                if(i != sample.seat()) {
+                    best = Math.max(best, gained[i]);
+                }
+            }
+            finished.add(sample.withResult(gained[sample.seat()] - best));
+        }
+        try {
+            writer.addAll(finished);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        samples.clear();
+    }
+}
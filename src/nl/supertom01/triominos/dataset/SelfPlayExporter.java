@@ -0,0 +1,115 @@
+package nl.supertom01.triominos.dataset;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.simulation.GamePool;
+import nl.supertom01.triominos.simulation.Simulator;
+
+/**
+ * Plays seeded games between bots on several threads and writes every turn to a dataset, to train evaluation
+ * functions on. The rounds of the games end up in the file in the order in which they finish, each sample has the
+ * seed of its game.
+ */
+public class SelfPlayExporter {
+
+    private final GamePool pool;
+
+    /**
+     * Creates an exporter.
+     * @param bots The names of the bots in each seat, see {@link Simulator#createPlayer(String)}.
+     */
+    public SelfPlayExporter(String... bots) {
+        String[] seats = bots.clone();
+        this.pool = new GamePool(() -> {
+            Player[] players = new Player[seats.length];
+            for (int i = 0; i < seats.length; i++) {
+                players[i] = Simulator.createPlayer(seats[i]);
+            }
+            return players;
+        });
+    }
+
+    /**
+     * Plays a single game on the current thread.
+     * @param seed   The seed of the game.
+     * @param writer The writer to which the turns are added.
+     */
+    public void play(long seed, DatasetWriter writer) {
+        Game game = pool.acquire(seed);
+        SampleRecorder recorder = new SampleRecorder(writer, seed);
+        game.addListener(recorder);
+        try {
+            game.play();
+        } finally {
+            game.removeListener(recorder);
+            pool.release(game);
+        }
+    }
+
+    /**
+     * Plays the games of a range of seeds, split over several threads, and writes them to a new dataset.
+     * @param path      The dataset file.
+     * @param firstSeed The seed of the first game.
+     * @param games     The number of games.
+     * @param threads   The number of threads.
+     * @param blockRows The number of rows of a block of the file.
+     * @return The number of samples.
+     * @throws IOException          If the file cannot be written.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the games.
+     */
+    public long export(Path path, long firstSeed, long games, int threads, int blockRows)
+            throws IOException, InterruptedException {
+        try (DatasetWriter writer = new DatasetWriter(path, blockRows)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < threads; thread++) {
+                    long first = firstSeed + games * thread / threads;
+                    long last = firstSeed + games * (thread + 1) / threads;
+                    futures.add(executor.submit(() -> {
+                        for (long seed = first; seed < last; seed++) {
+                            play(seed, writer);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+            return writer.getRows();
+        }
+    }
+
+    /**
+     * Usage: {@code SelfPlayExporter <dataset file> <games> <first seed> <bot> [bot...]}
+     * With a single bot, it plays against itself.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 4) {
+            System.err.println("Usage: SelfPlayExporter <dataset file> <games> <first seed> <bot> [bot...]");
+            System.exit(2);
+        }
+        String[] bots = args.length == 4 ? new String[]{args[3], args[3]} : Arrays.copyOfRange(args, 3, args.length);
+        long start = System.nanoTime();
+        long samples = new SelfPlayExporter(bots).export(Path.of(args[0]), Long.parseLong(args[2]),
+            Long.parseLong(args[1]), Runtime.getRuntime().availableProcessors(), DatasetWriter.DEFAULT_BLOCK_ROWS);
+        System.out.printf("%d samples in %.1f s%n", samples, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,166 @@
+package nl.supertom01.triominos.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log-linear latency histogram in the spirit of HdrHistogram.
+ * Every power of two is split into 32 linear sub-buckets, which gives a relative precision of about 3%. Each bucket
+ * is a striped {@link LongAdder}, so recording never takes a lock and scales with the number of recording threads.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+
+    /** The number of bits used for the linear sub-buckets. */
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /** Values above 2^44 nanoseconds (about 4.8 hours) end up in the last bucket. */
+    private static final int MAX_MSB = 44;
+    private static final int BUCKETS = SUB_COUNT + (MAX_MSB - SUB_BITS + 1) * SUB_COUNT;
+
+    private final String name;
+    private final LongAdder[] buckets;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Long::max, 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a single duration.
+     * @param nanos The duration in nanoseconds, negative values are treated as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[indexOf(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Determines the bucket in which a value is counted.
+     * @param value The value (non-negative).
+     * @return The index of the bucket.
+     */
+    static int indexOf(long value) {
+        if(value < SUB_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        if(msb > MAX_MSB) {
+            return BUCKETS - 1;
+        }
+        int shift = msb - SUB_BITS;
+        int mantissa = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return SUB_COUNT + shift * SUB_COUNT + mantissa;
+    }
+
+    /**
+     * Determines the smallest value that is counted in a bucket.
+     * @param index The index of the bucket.
+     * @return The lower bound of the bucket.
+     */
+    static long lowerBound(int index) {
+        if(index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) / SUB_COUNT;
+        int mantissa = (index - SUB_COUNT) % SUB_COUNT;
+        return ((long) SUB_COUNT + mantissa) << shift;
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Get the value at a given percentile in nanoseconds.
+     * The histogram is read bucket by bucket, so concurrent recordings may or may not be taken into account.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The lower bound of the bucket that contains the percentile.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if(total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if(seen >= target) {
+                return Math.min(lowerBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : sum.sum() / (count * 1000.0);
+    }
+
+    @Override
+    public long getMax() {
+        return max.get() / 1000;
+    }
+
+    @Override
+    public long getP50() {
+        return getValueAtPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getP90() {
+        return getValueAtPercentile(90) / 1000;
+    }
+
+    @Override
+    public long getP99() {
+        return getValueAtPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getP999() {
+        return getValueAtPercentile(99.9) / 1000;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d mean=%.1fus p50=%dus p90=%dus p99=%dus max=%dus",
+            name, getCount(), getMean(), getP50(), getP90(), getP99(), getMax());
+    }
+}
@@ -0,0 +1,22 @@
+package nl.supertom01.triominos.metrics;
+
+/**
+ * The JMX view on a single latency histogram. All durations are reported in microseconds.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    double getMean();
+
+    long getMax();
+
+    long getP50();
+
+    long getP90();
+
+    long getP99();
+
+    long getP999();
+
+}
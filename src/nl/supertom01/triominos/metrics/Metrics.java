@@ -0,0 +1,203 @@
+package nl.supertom01.triominos.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process wide instrumentation of the engine and the bots.
+ * All counters are striped {@link LongAdder}s, so they can be updated from many simulation threads at once without
+ * any locking. The counters are exposed through JMX once {@link #registerMBeans()} has been called.
+ */
+public final class Metrics implements MetricsMXBean {
+
+    public static final String DOMAIN = "nl.supertom01.triominos";
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final LongAdder validMoveChecks = new LongAdder();
+    private final LongAdder legalMovesGenerated = new LongAdder();
+    private final LongAdder nodesSearched = new LongAdder();
+    private final LongAdder stackDraws = new LongAdder();
+    private final LongAdder hexagonsScored = new LongAdder();
+    private final LongAdder movesPlayed = new LongAdder();
+    private final LongAdder gamesPlayed = new LongAdder();
+
+    /** The decision latency of each seat, by the username of its player and the seat. */
+    private final Map<String, LatencyHistogram> decisionLatencies = new ConcurrentHashMap<>();
+
+    private volatile long startTime = System.nanoTime();
+    private volatile boolean registered;
+
+    private Metrics() {
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    public void countValidMoveCheck() {
+        validMoveChecks.increment();
+    }
+
+    public void countLegalMoves(int moves) {
+        legalMovesGenerated.add(moves);
+    }
+
+    public void countNodes(long nodes) {
+        nodesSearched.add(nodes);
+    }
+
+    public void countStackDraw() {
+        stackDraws.increment();
+    }
+
+    public void countHexagon() {
+        hexagonsScored.increment();
+    }
+
+    public void countMove() {
+        movesPlayed.increment();
+    }
+
+    public void countGame() {
+        gamesPlayed.increment();
+    }
+
+    /**
+     * Get the decision latency histogram of a seat, creating (and registering) it when needed.
+     * Players that sit at the same seat under the same name, such as those of pooled games, share a histogram, while
+     * two players with the same name at different seats do not. Players look this up when they take a seat, so the
+     * map is not on the hot path.
+     * @param username The name of the player.
+     * @param seat     The index of the player in its game.
+     * @return The histogram in which the time spent in {@code determineMove} is recorded.
+     */
+    public LatencyHistogram getDecisionLatency(String username, int seat) {
+        return decisionLatencies.computeIfAbsent(username + " (seat " + seat + ")", name -> {
+            LatencyHistogram histogram = new LatencyHistogram(name);
+            if(registered) {
+                register(histogram);
+            }
+            return histogram;
+        });
+    }
+
+    @Override
+    public long getValidMoveChecks() {
+        return validMoveChecks.sum();
+    }
+
+    @Override
+    public long getLegalMovesGenerated() {
+        return legalMovesGenerated.sum();
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return nodesSearched.sum();
+    }
+
+    @Override
+    public long getStackDraws() {
+        return stackDraws.sum();
+    }
+
+    @Override
+    public long getHexagonsScored() {
+        return hexagonsScored.sum();
+    }
+
+    @Override
+    public long getMovesPlayed() {
+        return movesPlayed.sum();
+    }
+
+    @Override
+    public long getGamesPlayed() {
+        return gamesPlayed.sum();
+    }
+
+    @Override
+    public double getMovesPerSecond() {
+        return perSecond(getMovesPlayed());
+    }
+
+    @Override
+    public double getGamesPerSecond() {
+        return perSecond(getGamesPlayed());
+    }
+
+    private double perSecond(long count) {
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return seconds <= 0 ? 0 : count / seconds;
+    }
+
+    @Override
+    public void reset() {
+        validMoveChecks.reset();
+        legalMovesGenerated.reset();
+        nodesSearched.reset();
+        stackDraws.reset();
+        hexagonsScored.reset();
+        movesPlayed.reset();
+        gamesPlayed.reset();
+        for (LatencyHistogram histogram : decisionLatencies.values()) {
+            histogram.reset();
+        }
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Registers the engine counters and all (current and future) decision latency histograms with the platform MBean
+     * server. Calling this more than once has no effect.
+     */
+    public static synchronized void registerMBeans() {
+        if(INSTANCE.registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                new ObjectName(DOMAIN + ":type=Engine"));
+        } catch (JMException e) {
+            System.err.printf("[ERROR] [METRICS] \"%s\"%n", e.getMessage());
+            return;
+        }
+        INSTANCE.registered = true;
+        for (LatencyHistogram histogram : INSTANCE.decisionLatencies.values()) {
+            INSTANCE.register(histogram);
+        }
+    }
+
+    private void register(LatencyHistogram histogram) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(histogram, new ObjectName(DOMAIN + ":type=DecisionLatency,player="
+                + ObjectName.quote(histogram.getName())));
+        } catch (JMException e) {
+            System.err.printf("[ERROR] [METRICS] \"%s\"%n", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a human readable dump of all the metrics.
+     * @return A multi-line text representation.
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("games=%d (%.1f/s) moves=%d (%.1f/s)%n",
+            getGamesPlayed(), getGamesPerSecond(), getMovesPlayed(), getMovesPerSecond()));
+        builder.append(String.format("validMoveChecks=%d legalMoves=%d nodes=%d draws=%d hexagons=%d%n",
+            getValidMoveChecks(), getLegalMovesGenerated(), getNodesSearched(), getStackDraws(),
+            getHexagonsScored()));
+        for (LatencyHistogram histogram : new TreeMap<>(decisionLatencies).values()) {
+            builder.append(histogram).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
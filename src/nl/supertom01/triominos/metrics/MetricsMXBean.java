@@ -0,0 +1,28 @@
+package nl.supertom01.triominos.metrics;
+
+/**
+ * The JMX view on the engine counters. Rates are averaged since the metrics were created or last reset.
+ */
+public interface MetricsMXBean {
+
+    long getValidMoveChecks();
+
+    long getLegalMovesGenerated();
+
+    long getNodesSearched();
+
+    long getStackDraws();
+
+    long getHexagonsScored();
+
+    long getMovesPlayed();
+
+    long getGamesPlayed();
+
+    double getMovesPerSecond();
+
+    double getGamesPerSecond();
+
+    void reset();
+
+}
@@ -0,0 +1,61 @@
+package nl.supertom01.triominos.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes a text dump of the {@link Metrics} to a stream.
+ * Besides the totals it reports the games and moves per second over the last interval.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    private final PrintStream out;
+    private final ScheduledExecutorService executor;
+
+    private long lastTime;
+    private long lastGames;
+    private long lastMoves;
+
+    /**
+     * Starts reporting.
+     * @param out       The stream to write the dumps to.
+     * @param interval  The time between two dumps.
+     * @param unit      The unit of the interval.
+     */
+    public MetricsReporter(PrintStream out, long interval, TimeUnit unit) {
+        this.out = out;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastTime = System.nanoTime();
+        this.executor.scheduleAtFixedRate(this::report, interval, interval, unit);
+    }
+
+    /**
+     * Writes a single dump.
+     */
+    public synchronized void report() {
+        Metrics metrics = Metrics.get();
+        long now = System.nanoTime();
+        long games = metrics.getGamesPlayed();
+        long moves = metrics.getMovesPlayed();
+        double seconds = (now - lastTime) / 1e9;
+        if(seconds > 0) {
+            out.printf("[METRICS] last %.1fs: %.1f games/s, %.1f moves/s%n",
+                seconds, (games - lastGames) / seconds, (moves - lastMoves) / seconds);
+        }
+        out.print(metrics.dump());
+        lastTime = now;
+        lastGames = games;
+        lastMoves = moves;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -1,16 +1,29 @@
 package nl.supertom01.triominos.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import javafx.geometry.Pos;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
 import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.metrics.Metrics;
+import nl.supertom01.triominos.profiling.BoardRedrawEvent;
+import nl.supertom01.triominos.profiling.ScoringEvent;
+import nl.supertom01.triominos.profiling.StackDrawEvent;
 import nl.supertom01.triominos.styles.Style;
+import nl.supertom01.triominos.util.ChunkedGrid;
+import nl.supertom01.triominos.util.LongList;
 import nl.supertom01.triominos.util.Tuple;
 import nl.supertom01.triominos.view.EmptyLocation;
+import nl.supertom01.triominos.view.PlacementHints;
 
 /**
  * The board class.
@@ -22,15 +35,148 @@ public class Board extends StackPane {
 
     public static final int NR_STONES = 56;
 
-    private final List<Stone> stack;
-    private final Stone[][] board;
+    /** All the stones of the game, by id. */
+    private final Stone[] deck;
+
+    /** The shuffled stones, of which the ones from stackIndex onwards are still on the stack. */
+    private final Stone[] stack;
+    private int stackIndex;
+
+    /** The stones on the board, by cell. Only the chunks around the stones are allocated. */
+    private final ChunkedGrid<Stone> board;
+
+    /** The cells of the stones on the board in the order in which they were placed, see {@link #cell(int, int)}. */
+    private long[] touched;
+    private int touchedCount;
+
+    /** The number of placements and removals so far, and its value at each of the placements above. */
+    private int modifications;
+    private int[] stamps;
+
+    /** The number of stones on the board. */
+    private int placed;
+
+    /** The number of times the board has been reset. */
+    private int resets;
+
+    /** The ids of the stones on the board, as a bit mask. */
+    private long onBoard;
+
+    /** The {@link Zobrist} hash of the stones on the board and their positions, updated with every placement. */
+    private long hash;
+
+    /** Used to shuffle the stack when the board is reset. */
+    private final Random random;
+
+    /** Reused buffers for the open fields, see {@link #cell(int, int)}, and their orientation. */
+    private long[] fields;
+    private Orientation[] fieldOrientations;
+
+    /** Reused buffer for the stones that fit on a field, per rotation. */
+    private final long[] fits;
 
     /**
-     * Constructs a new board with all the available stones shuffled and with a 112 x 112 matrix.
+     * Constructs a new board with all the available stones shuffled. The board has no edges: stones can be placed on
+     * any coordinate, the first stone is placed on ({@value #NR_STONES}, {@value #NR_STONES}).
      */
     public Board() {
-        this.stack = Stone.shuffle();
-        this.board = new Stone[NR_STONES * 2][NR_STONES * 2];
+        this.stack = Stone.shuffle().toArray(new Stone[0]);
+        this.stackIndex = 0;
+        this.deck = new Stone[NR_STONES];
+        for (Stone stone : this.stack) {
+            this.deck[stone.getId()] = stone;
+        }
+        this.board = new ChunkedGrid<>();
+        this.touched = new long[NR_STONES];
+        this.stamps = new int[NR_STONES];
+        this.random = new Random();
+        this.fields = new long[NR_STONES * 3];
+        this.fieldOrientations = new Orientation[NR_STONES * 3];
+        this.fits = new long[StoneVariants.ROTATIONS];
+    }
+
+    /**
+     * Constructs a new board of which the stack is shuffled with the provided seed.
+     * @param seed The seed with which the stack is shuffled.
+     */
+    public Board(long seed) {
+        this();
+        reset(seed);
+    }
+
+    /**
+     * Constructs a deep copy of a board, with its own copies of the stones. The copy can be searched on another
+     * thread without affecting the original board or the stones in the hands of the players.
+     * @param other The board to copy.
+     */
+    public Board(Board other) {
+        this.deck = new Stone[NR_STONES];
+        for (Stone stone : other.deck) {
+            this.deck[stone.getId()] = stone.copy();
+        }
+        this.stack = new Stone[other.stack.length];
+        for (int i = 0; i < other.stack.length; i++) {
+            this.stack[i] = this.deck[other.stack[i].getId()];
+        }
+        this.stackIndex = other.stackIndex;
+        this.board = new ChunkedGrid<>();
+        this.touched = other.touched.clone();
+        this.touchedCount = other.touchedCount;
+        this.modifications = other.modifications;
+        this.stamps = other.stamps.clone();
+        for (int i = 0; i < touchedCount; i++) {
+            int x = getPlacementX(i);
+            int y = getPlacementY(i);
+            Stone stone = other.board.get(x, y);
+            if(stone != null) {
+                boolean dealt = stone.getId() >= 0 && other.deck[stone.getId()] == stone;
+                this.board.set(x, y, dealt ? this.deck[stone.getId()] : stone.copy());
+            }
+        }
+        this.placed = other.placed;
+        this.resets = other.resets;
+        this.onBoard = other.onBoard;
+        this.hash = other.hash;
+        this.random = new Random();
+        this.fields = new long[other.fields.length];
+        this.fieldOrientations = new Orientation[other.fields.length];
+        this.fits = new long[StoneVariants.ROTATIONS];
+    }
+
+    /**
+     * Brings the board back to its initial state, without allocating anything.
+     * Only the cells on which a stone has been placed are cleared. The stones are taken back, reset and shuffled
+     * into the stack again.
+     * @param seed The seed with which the stack is shuffled, the same seed always gives the same stack.
+     */
+    public void reset(long seed) {
+        for (int i = 0; i < touchedCount; i++) {
+            board.set(getPlacementX(i), getPlacementY(i), null);
+        }
+        touchedCount = 0;
+        modifications++;
+        placed = 0;
+        resets++;
+        onBoard = 0;
+        hash = 0;
+        stackIndex = 0;
+
+        // Start from the stones in order of their id, such that the result only depends on the seed.
+        for (Stone stone : deck) {
+            stone.reset();
+        }
+        System.arraycopy(deck, 0, stack, 0, deck.length);
+        random.setSeed(seed);
+        for (int i = stack.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Stone temp = stack[i];
+            stack[i] = stack[j];
+            stack[j] = temp;
+        }
+        // Clearing the children of the pane allocates a change, even when there are none.
+        if(!getChildren().isEmpty()) {
+            getChildren().clear();
+        }
     }
 
     /**
@@ -38,14 +184,7 @@ public class Board extends StackPane {
      * @return True if the board is empty, otherwise false.
      */
     public boolean isEmpty() {
-        for(Stone[] row : board) {
-            for(Stone stone : row) {
-                if(stone != null) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return placed == 0;
     }
 
     /**
@@ -53,18 +192,116 @@ public class Board extends StackPane {
      * @return The stone
      */
     public Stone getFromStack() {
-        if(!stack.isEmpty()) {
-            return stack.remove(0);
+        if(stackIndex < stack.length) {
+            Metrics.get().countStackDraw();
+            StackDrawEvent event = new StackDrawEvent();
+            Stone stone = stack[stackIndex++];
+            if(event.shouldCommit()) {
+                event.remaining = getStackSize();
+                event.commit();
+            }
+            return stone;
         }
         return null;
     }
 
+    /**
+     * Removes all the stones from the stack, without drawing them. Used to analyse a position of which the stones
+     * that are not on the board are all in the hands of the players.
+     */
+    public void clearStack() {
+        stackIndex = stack.length;
+    }
+
     /**
      * Get the number of remaining stones on the stack.
      * @return The number of remaining stones.
      */
     public int getStackSize() {
-        return stack.size();
+        return stack.length - stackIndex;
+    }
+
+    /**
+     * Get the ids of the stones that have been placed on the board.
+     * @return A bit mask in which bit i is set if the stone with id i is on the board.
+     */
+    public long getBoardMask() {
+        return onBoard;
+    }
+
+    /**
+     * Get the {@link Zobrist} hash of the current position: which stones are on which cells in which rotation. Two
+     * boards with the same stones in the same places have the same hash, regardless of the order in which they were
+     * placed.
+     * @return The hash.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get a hash of the current position that does not depend on where the stones lie in the grid: the stones are
+     * hashed relative to the {@link #getOriginX() origin} of their bounding box. The orientation of each stone is part
+     * of the hash, so two shapes only match if their stones point the same way.
+     * @return The translation invariant hash, 0 for an empty board.
+     */
+    public long getCanonicalHash() {
+        int originX = getOriginX();
+        int originY = getOriginY();
+        long canonical = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int x = getPlacementX(i);
+            int y = getPlacementY(i);
+            Stone stone = this.board.get(x, y);
+            if(stone != null) {
+                canonical ^= Zobrist.cell(x - originX, y - originY, stone);
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Get the smallest x-coordinate of a stone on the board, the left side of the bounding box of the stones.
+     * @return The x-coordinate, or the middle of the board if it is empty.
+     */
+    public int getOriginX() {
+        if(isEmpty()) {
+            return NR_STONES;
+        }
+        int origin = Integer.MAX_VALUE;
+        for (int i = 0; i < touchedCount; i++) {
+            if(this.board.get(getPlacementX(i), getPlacementY(i)) != null) {
+                origin = Math.min(origin, getPlacementX(i));
+            }
+        }
+        return origin;
+    }
+
+    /**
+     * Get the smallest y-coordinate of a stone on the board, the top of the bounding box of the stones.
+     * @return The y-coordinate, or the middle of the board if it is empty.
+     */
+    public int getOriginY() {
+        if(isEmpty()) {
+            return NR_STONES;
+        }
+        int origin = Integer.MAX_VALUE;
+        for (int i = 0; i < touchedCount; i++) {
+            if(this.board.get(getPlacementX(i), getPlacementY(i)) != null) {
+                origin = Math.min(origin, getPlacementY(i));
+            }
+        }
+        return origin;
+    }
+
+    /**
+     * Get the stones that the provided player has not seen yet, these are either on the stack or in the hand of
+     * another player.
+     * @param player The player from whose perspective the stones are unseen.
+     * @return A bit mask with the ids of the unseen stones.
+     */
+    public long getUnseenMask(Player player) {
+        return Stone.ALL & ~onBoard & ~player.getHandMask();
     }
 
     /**
@@ -75,22 +312,43 @@ public class Board extends StackPane {
     public void placeStone(Move move) throws PlacementException {
         int x = move.getX();
         int y = move.getY();
-        if(this.board[x][y] != null) {
+        if(this.board.get(x, y) != null) {
             throw new PlacementException("This location on the board has already a stone on it.");
         }
-        this.board[x][y] = move.getStone();
+        this.board.set(x, y, move.getStone());
+        if(this.touchedCount == this.touched.length) {
+            this.touched = Arrays.copyOf(this.touched, this.touched.length * 2);
+            this.stamps = Arrays.copyOf(this.stamps, this.touched.length);
+        }
+        this.stamps[this.touchedCount] = ++this.modifications;
+        this.touched[this.touchedCount++] = cell(x, y);
+        this.placed++;
+        this.onBoard |= move.getStone().getMask();
+        this.hash ^= Zobrist.cell(x, y, move.getStone());
     }
 
     /**
-     * Removes a previously placed stone.
-     * USED FOR DEBUGGING PURPOSES ONLY!
+     * Removes a previously placed stone, and its cell from the placements. A search takes its stones back in the
+     * reverse order, which leaves the placements exactly as they were before. A stone that is removed out of order
+     * shifts the placements after it, so a cell is never listed twice when it is filled again.
      * @param move The move that was performed on the board.
      */
     public void removeStone(Move move) {
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                board[move.getX()][move.getY()] = null;
+        Stone stone = board.set(move.getX(), move.getY(), null);
+        if(stone != null) {
+            long cell = cell(move.getX(), move.getY());
+            for (int i = touchedCount - 1; i >= 0; i--) {
+                if(touched[i] == cell) {
+                    System.arraycopy(touched, i + 1, touched, i, touchedCount - i - 1);
+                    System.arraycopy(stamps, i + 1, stamps, i, touchedCount - i - 1);
+                    touchedCount--;
+                    break;
+                }
             }
+            modifications++;
+            placed--;
+            onBoard &= ~stone.getMask();
+            hash ^= Zobrist.cell(move.getX(), move.getY(), stone);
         }
     }
 
@@ -100,6 +358,7 @@ public class Board extends StackPane {
      * @return      True if the stone can be placed, otherwise false.
      */
     public boolean isValidMove(Move move) {
+        Metrics.get().countValidMoveCheck();
         int x = move.getX();
         int y = move.getY();
         Stone stone = move.getStone();
@@ -110,63 +369,342 @@ public class Board extends StackPane {
         }
 
         // Determine the neighbours of the stone, when placed on the board.
-        Stone[] neighbours = new Stone[3];
+        Stone vertical;
         if(stone.getOrientation() == Orientation.TOP) {
-            neighbours[0] = this.board[x][y - 1];
+            vertical = this.board.get(x, y - 1);
         } else {
-            neighbours[0] = this.board[x][y + 1];
+            vertical = this.board.get(x, y + 1);
         }
-        neighbours[1] = this.board[x - 1][y];
-        neighbours[2] = this.board[x + 1][y];
+        Stone left = this.board.get(x - 1, y);
+        Stone right = this.board.get(x + 1, y);
 
         // The stone should have at least a single neighbour and each
         // neighbouring stone should have the opposite orientation.
-        boolean hasNeighbour = false;
-        boolean orientation = true;
-        for(Stone neighbour : neighbours) {
-            if (neighbour != null) {
-                hasNeighbour = true;
-                orientation = orientation && neighbour.getOrientation() != stone.getOrientation();
-            }
+        if(vertical == null && left == null && right == null) {
+            return false;
         }
-        if(!(hasNeighbour && orientation)) {
+        Orientation orientation = stone.getOrientation();
+        if((vertical != null && vertical.getOrientation() == orientation)
+            || (left != null && left.getOrientation() == orientation)
+            || (right != null && right.getOrientation() == orientation)) {
             return false;
         }
 
         // The numbers of the neighbours should match with this stone.
-        boolean matchingNumbers = true;
-        if(stone.getOrientation() == Orientation.TOP) {
-            for (int i = 0; i < 3; i++) {
-                if(neighbours[i] != null) {
-                    if(i == 0) {
-                        matchingNumbers = stone.getValues()[0] == neighbours[0].getValues()[2];
-                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[0].getValues()[1];
-                    } else if (i == 1) {
-                        matchingNumbers = matchingNumbers && stone.getValues()[0] == neighbours[1].getValues()[0];
-                        matchingNumbers = matchingNumbers && stone.getValues()[2] == neighbours[1].getValues()[1];
-                    } else {
-                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[2].getValues()[0];
-                        matchingNumbers = matchingNumbers && stone.getValues()[2] == neighbours[2].getValues()[2];
-                    }
-                }
+        int[] values = stone.getValues();
+        if(orientation == Orientation.TOP) {
+            return (vertical == null || (values[0] == vertical.getValues()[2] && values[1] == vertical.getValues()[1]))
+                && (left == null || (values[0] == left.getValues()[0] && values[2] == left.getValues()[1]))
+                && (right == null || (values[1] == right.getValues()[0] && values[2] == right.getValues()[2]));
+        }
+        return (vertical == null || (values[2] == vertical.getValues()[0] && values[1] == vertical.getValues()[1]))
+            && (left == null || (values[0] == left.getValues()[1] && values[2] == left.getValues()[2]))
+            && (right == null || (values[0] == right.getValues()[0] && values[1] == right.getValues()[2]));
+    }
+
+    /**
+     * Checks, for all the stones at once, which of them can be placed on a field.
+     * This gives the same answer as {@link #isValidMove(Move)} for each stone and rotation with the provided
+     * orientation, but compares the required numbers against a bit mask of all the stones instead of one by one.
+     * @param x           The x-coordinate of the field.
+     * @param y           The y-coordinate of the field.
+     * @param orientation The orientation of the stones that should be placed.
+     * @param stones      The stones to check, as a bit mask.
+     * @param fits        Filled with the stones that fit for each of the three rotations with this orientation.
+     *                    Rotations of a triple that look the same as an earlier rotation are left out.
+     * @return The stones that fit in any rotation.
+     */
+    public long fitStones(int x, int y, Orientation orientation, long stones, long[] fits) {
+        Metrics.get().countValidMoveCheck();
+        if(isEmpty()) {
+            long all = 0;
+            for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+                fits[rotation] = stones & StoneVariants.unique(orientation, rotation);
+                all |= fits[rotation];
+            }
+            return all;
+        }
+
+        Stone vertical = orientation == Orientation.TOP ? this.board.get(x, y - 1) : this.board.get(x, y + 1);
+        Stone left = this.board.get(x - 1, y);
+        Stone right = this.board.get(x + 1, y);
+        boolean fitting = vertical != null || left != null || right != null;
+        fitting = fitting && (vertical == null || vertical.getOrientation() != orientation);
+        fitting = fitting && (left == null || left.getOrientation() != orientation);
+        fitting = fitting && (right == null || right.getOrientation() != orientation);
+        if(!fitting) {
+            Arrays.fill(fits, 0);
+            return 0;
+        }
+
+        // The positions on this stone that touch each neighbour and the positions on the neighbour they touch.
+        boolean top = orientation == Orientation.TOP;
+        long all = 0;
+        for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+            long mask = stones & StoneVariants.unique(orientation, rotation);
+            if(vertical != null) {
+                int[] values = vertical.getValues();
+                mask &= StoneVariants.withValue(orientation, rotation, top ? 0 : 2, values[top ? 2 : 0]);
+                mask &= StoneVariants.withValue(orientation, rotation, 1, values[1]);
+            }
+            if(left != null) {
+                int[] values = left.getValues();
+                mask &= StoneVariants.withValue(orientation, rotation, 0, values[top ? 0 : 1]);
+                mask &= StoneVariants.withValue(orientation, rotation, 2, values[top ? 1 : 2]);
+            }
+            if(right != null) {
+                int[] values = right.getValues();
+                mask &= StoneVariants.withValue(orientation, rotation, top ? 1 : 0, values[0]);
+                mask &= StoneVariants.withValue(orientation, rotation, top ? 2 : 1, values[2]);
+            }
+            fits[rotation] = mask;
+            all |= mask;
+        }
+        return all;
+    }
+
+    /**
+     * Collects the open fields into the reused field buffers, without duplicates.
+     * @return The number of open fields.
+     */
+    private int collectOpenFields() {
+        int count = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int x = getPlacementX(i);
+            int y = getPlacementY(i);
+            Stone stone = this.board.get(x, y);
+            if(stone == null) {
+                continue;
+            }
+            Orientation orientation = stone.getOrientation() == Orientation.TOP ? Orientation.DOWN : Orientation.TOP;
+            int vertical = stone.getOrientation() == Orientation.TOP ? y - 1 : y + 1;
+            count = addOpenField(x, vertical, orientation, count);
+            count = addOpenField(x - 1, y, orientation, count);
+            count = addOpenField(x + 1, y, orientation, count);
+        }
+        return count;
+    }
+
+    private int addOpenField(int x, int y, Orientation orientation, int count) {
+        if(this.board.get(x, y) != null) {
+            return count;
+        }
+        long field = cell(x, y);
+        for (int i = 0; i < count; i++) {
+            if(fields[i] == field) {
+                return count;
+            }
+        }
+        if(count == fields.length) {
+            fields = Arrays.copyOf(fields, count * 2);
+            fieldOrientations = Arrays.copyOf(fieldOrientations, count * 2);
+        }
+        fields[count] = field;
+        fieldOrientations[count] = orientation;
+        return count + 1;
+    }
+
+    /**
+     * Get the number of open fields, each counted once however many stones it borders.
+     * @return The number of fields next to the stones on the board, 0 on an empty board.
+     */
+    public int getOpenFieldCount() {
+        return collectOpenFields();
+    }
+
+    /**
+     * Generates every legal placement of the provided stones. On an empty board, the stones are placed in the middle.
+     * @param stones     The stones to place, as a bit mask.
+     * @param placements The list to which the placements are added, see {@link Placement}.
+     * @return The number of placements that have been added.
+     */
+    public int generatePlacements(long stones, LongList placements) {
+        int added = 0;
+        if(isEmpty()) {
+            for (Orientation orientation : Orientation.values()) {
+                fitStones(NR_STONES, NR_STONES, orientation, stones, fits);
+                added += addPlacements(NR_STONES, NR_STONES, orientation, placements);
             }
         } else {
-            for (int i = 0; i < 3; i++) {
-                if(neighbours[i] != null) {
-                    if(i == 0) {
-                        matchingNumbers = stone.getValues()[2] == neighbours[0].getValues()[0];
-                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[0].getValues()[1];
-                    } else if (i == 1) {
-                        matchingNumbers = matchingNumbers && stone.getValues()[0] == neighbours[1].getValues()[1];
-                        matchingNumbers = matchingNumbers && stone.getValues()[2] == neighbours[1].getValues()[2];
-                    } else {
-                        matchingNumbers = matchingNumbers && stone.getValues()[0] == neighbours[2].getValues()[0];
-                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[2].getValues()[2];
-                    }
+            int count = collectOpenFields();
+            for (int i = 0; i < count; i++) {
+                int x = cellX(fields[i]);
+                int y = cellY(fields[i]);
+                if(fitStones(x, y, fieldOrientations[i], stones, fits) != 0) {
+                    added += addPlacements(x, y, fieldOrientations[i], placements);
+                }
+            }
+        }
+        Metrics.get().countLegalMoves(added);
+        return added;
+    }
+
+    private int addPlacements(int x, int y, Orientation orientation, LongList placements) {
+        int added = 0;
+        for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+            int rotations = StoneVariants.rightRotations(orientation, rotation);
+            for (long mask = fits[rotation]; mask != 0; mask &= mask - 1) {
+                placements.add(Placement.of(x, y, Long.numberOfTrailingZeros(mask), rotations));
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Generates every legal placement of the provided stones on a single field. On an empty board, only the middle
+     * of the board is a field.
+     * @param x          The x-coordinate of the field.
+     * @param y          The y-coordinate of the field.
+     * @param stones     The stones to place, as a bit mask.
+     * @param placements The list to which the placements are added, see {@link Placement}.
+     * @return The number of placements that have been added.
+     */
+    public int generatePlacements(int x, int y, long stones, LongList placements) {
+        int added = 0;
+        if(isEmpty()) {
+            if(x == NR_STONES && y == NR_STONES) {
+                for (Orientation orientation : Orientation.values()) {
+                    fitStones(x, y, orientation, stones, fits);
+                    added += addPlacements(x, y, orientation, placements);
                 }
             }
+        } else {
+            Orientation orientation = getOpenFieldOrientation(x, y);
+            if(orientation != null && fitStones(x, y, orientation, stones, fits) != 0) {
+                added += addPlacements(x, y, orientation, placements);
+            }
+        }
+        Metrics.get().countLegalMoves(added);
+        return added;
+    }
+
+    /**
+     * Get the orientation a stone must have to be placed on a cell.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The orientation, or null if the cell is not an open field (it is taken or has no neighbours).
+     */
+    public Orientation getOpenFieldOrientation(int x, int y) {
+        if(this.board.get(x, y) != null) {
+            return null;
         }
-        return matchingNumbers;
+        Stone left = this.board.get(x - 1, y);
+        Stone right = this.board.get(x + 1, y);
+        Stone above = this.board.get(x, y - 1);
+        Stone below = this.board.get(x, y + 1);
+        if(left != null || right != null) {
+            Stone neighbour = left != null ? left : right;
+            return neighbour.getOrientation() == Orientation.TOP ? Orientation.DOWN : Orientation.TOP;
+        } else if(above != null && above.getOrientation() == Orientation.DOWN) {
+            return Orientation.TOP;
+        } else if(below != null && below.getOrientation() == Orientation.TOP) {
+            return Orientation.DOWN;
+        }
+        return null;
+    }
+
+    /**
+     * Get the stone on a cell.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The stone, or null if the cell is empty.
+     */
+    public Stone getStoneAt(int x, int y) {
+        return this.board.get(x, y);
+    }
+
+    /**
+     * Get the number of stones on the board. Their cells are listed in the order in which they were placed.
+     * @return The number of placements, the coordinates are available through {@link #getPlacementX(int)} and
+     *         {@link #getPlacementY(int)}.
+     */
+    public int getPlacementCount() {
+        return touchedCount;
+    }
+
+    /**
+     * Get the number of times the board has been reset, which tells apart the placements of different rounds.
+     * @return The number of resets.
+     */
+    public int getResetCount() {
+        return resets;
+    }
+
+    /**
+     * Get the number of times a stone has been placed on or removed from the board, including resets. Unlike the
+     * number of placements, it changes when a stone is taken back and another one is placed elsewhere.
+     * @return The number of modifications.
+     */
+    public int getModificationCount() {
+        return modifications;
+    }
+
+    /**
+     * Get the modification count right after a placement. A placement keeps its value for as long as it stays on the
+     * board, so when the placement at an index has another value than before, a stone before it has been removed.
+     * @param index The index of the placement, see {@link #getPlacementCount()}.
+     * @return The modification count, see {@link #getModificationCount()}.
+     */
+    public int getPlacementModification(int index) {
+        return stamps[index];
+    }
+
+    public int getPlacementX(int index) {
+        return cellX(touched[index]);
+    }
+
+    public int getPlacementY(int index) {
+        return cellY(touched[index]);
+    }
+
+    /**
+     * Get the number of chunks of the grid that have been allocated for the stones on the board.
+     * @return The number of chunks, each holding {@value ChunkedGrid#CHUNK} x {@value ChunkedGrid#CHUNK} cells.
+     */
+    public int getChunkCount() {
+        return board.getChunkCount();
+    }
+
+    /**
+     * Packs the coordinates of a cell into a single long.
+     */
+    private static long cell(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static int cellX(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    private static int cellY(long cell) {
+        return (int) cell;
+    }
+
+    /**
+     * Determines which of the provided stones can be placed anywhere on the board.
+     * @param stones The stones to check, as a bit mask.
+     * @return The stones that fit on at least one open field.
+     */
+    public long getPlayableStones(long stones) {
+        if(isEmpty()) {
+            return stones;
+        }
+        int count = collectOpenFields();
+        long playable = 0;
+        for (int i = 0; i < count && playable != stones; i++) {
+            playable |= fitStones(cellX(fields[i]), cellY(fields[i]), fieldOrientations[i], stones & ~playable, fits);
+        }
+        return playable;
+    }
+
+    /**
+     * Get the stone with the provided id, as it was dealt by this board.
+     * @param id The id of the stone.
+     * @return The stone.
+     */
+    public Stone getStone(int id) {
+        return deck[id];
     }
 
     /**
@@ -176,8 +714,27 @@ public class Board extends StackPane {
      * @return The number of points that are given for this move.
      */
     public int determinePoints(Move move, Player player) {
+        return determinePoints(move, player.getStoneCount());
+    }
+
+    /**
+     * Determines the number of points one gains by performing a given move, for a player of which only the number of
+     * stones is known (used while searching).
+     * @requires This method should be called BEFORE the stone is removed from the players hand.
+     * @param move         The move to determine the points of.
+     * @param stonesInHand The number of stones in the hand of the player, including the stone of the move.
+     * @return The number of points that are given for this move.
+     */
+    public int determinePoints(Move move, int stonesInHand) {
+        ScoringEvent event = ScoringEvent.start();
+
         // Drawing a stone costs 5 points.
         if(move == null) {
+            if(event != null && event.shouldCommit()) {
+                event.points = -5;
+                event.draw = true;
+                event.commit();
+            }
             return -5;
         }
 
@@ -199,44 +756,51 @@ public class Board extends StackPane {
         int x = move.getX();
         int y = move.getY();
         boolean hexagonComplete = false;
-        if(board[x][y - 1] == null) {
-            if(board[x - 1][y] != null && board[x + 1][y] != null) {
+        if(board.get(x, y - 1) == null) {
+            if(board.get(x - 1, y) != null && board.get(x + 1, y) != null) {
                 // 2
-                hexagonComplete = board[x - 1][y + 1] != null &&
-                    board[x][y + 1] != null && board[x + 1][y + 1] != null;
-            } else if (board[x - 1][y] != null) {
+                hexagonComplete = board.get(x - 1, y + 1) != null &&
+                    board.get(x, y + 1) != null && board.get(x + 1, y + 1) != null;
+            } else if (board.get(x - 1, y) != null) {
                 // 3
-                hexagonComplete = board[x - 2][y] != null && board[x][y + 1] != null &&
-                    board[x - 1][y + 1] != null && board[x - 2][y + 1] != null;
-            } else if (board[x + 1][y] != null) {
+                hexagonComplete = board.get(x - 2, y) != null && board.get(x, y + 1) != null &&
+                    board.get(x - 1, y + 1) != null && board.get(x - 2, y + 1) != null;
+            } else if (board.get(x + 1, y) != null) {
                 // 1
-                hexagonComplete = board[x + 2][y] != null && board[x][y + 1] != null &&
-                    board[x + 1][y + 1] != null && board[x + 2][y + 1] != null;
+                hexagonComplete = board.get(x + 2, y) != null && board.get(x, y + 1) != null &&
+                    board.get(x + 1, y + 1) != null && board.get(x + 2, y + 1) != null;
             }
         } else {
-            if(board[x - 1][y] != null && board[x + 1][y] != null) {
+            if(board.get(x - 1, y) != null && board.get(x + 1, y) != null) {
                 // 5
-                hexagonComplete = board[x][y - 1] != null &&
-                    board[x - 1][y - 1] != null && board[x + 1][y - 1] != null;
-            } else if (board[x - 1][y] != null) {
+                hexagonComplete = board.get(x, y - 1) != null &&
+                    board.get(x - 1, y - 1) != null && board.get(x + 1, y - 1) != null;
+            } else if (board.get(x - 1, y) != null) {
                 // 6
-                hexagonComplete = board[x - 2][y] != null && board[x][y - 1] != null &&
-                    board[x - 1][y - 1] != null && board[x - 2][y - 1] != null;
-            } else if (board[x + 1][y] != null) {
+                hexagonComplete = board.get(x - 2, y) != null && board.get(x, y - 1) != null &&
+                    board.get(x - 1, y - 1) != null && board.get(x - 2, y - 1) != null;
+            } else if (board.get(x + 1, y) != null) {
                 // 4
-                hexagonComplete = board[x + 2][y] != null && board[x][y - 1] != null &&
-                    board[x + 1][y - 1] != null && board[x + 2][y - 1] != null;
+                hexagonComplete = board.get(x + 2, y) != null && board.get(x, y - 1) != null &&
+                    board.get(x + 1, y - 1) != null && board.get(x + 2, y - 1) != null;
             }
         }
 
         if(hexagonComplete) {
+            Metrics.get().countHexagon();
             points += 50;
         }
 
         // Clearing all the tiles from your hand is 25 points worth.
-        if(player.getStones().size() == 1) {
+        if(stonesInHand == 1) {
             points += 25;
         }
+
+        if(event != null && event.shouldCommit()) {
+            event.points = points;
+            event.hexagon = hexagonComplete;
+            event.commit();
+        }
         return points;
     }
 
@@ -246,28 +810,32 @@ public class Board extends StackPane {
      *         [x_min, y_min, x_max, y_max]
      */
     public int[] getExtremeValues() {
-        int[] firstIndex = new int[]{NR_STONES * 2, NR_STONES * 2};
-        int[] lastIndex  = new int[]{0,0};
-        for (int i = 0; i < this.board.length; i++) {
-            for (int j = 0; j < this.board[i].length; j++) {
-                if(this.board[i][j] != null) {
-                    // Find the minimum x variable.
-                    if(i < firstIndex[0]) {
-                        firstIndex[0] = i;
-                    }
-                    // Find the minimum y variable.
-                    if(j < firstIndex[1]) {
-                        firstIndex[1] = j;
-                    }
+        if(isEmpty()) {
+            return new int[]{NR_STONES * 2, NR_STONES * 2, 0, 0};
+        }
+        int[] firstIndex = new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE};
+        int[] lastIndex  = new int[]{Integer.MIN_VALUE, Integer.MIN_VALUE};
+        // Only the cells on which a stone has been placed have to be checked.
+        for (int k = 0; k < touchedCount; k++) {
+            int i = getPlacementX(k);
+            int j = getPlacementY(k);
+            if(this.board.get(i, j) != null) {
+                // Find the minimum x variable.
+                if(i < firstIndex[0]) {
+                    firstIndex[0] = i;
+                }
+                // Find the minimum y variable.
+                if(j < firstIndex[1]) {
+                    firstIndex[1] = j;
+                }
 
-                    // Find the maximum x variable.
-                    if(i > lastIndex[0]) {
-                        lastIndex[0] = i;
-                    }
-                    // Find the maximum y variable.
-                    if(j > lastIndex[1]) {
-                        lastIndex[1] = j;
-                    }
+                // Find the maximum x variable.
+                if(i > lastIndex[0]) {
+                    lastIndex[0] = i;
+                }
+                // Find the maximum y variable.
+                if(j > lastIndex[1]) {
+                    lastIndex[1] = j;
                 }
             }
         }
@@ -276,10 +844,13 @@ public class Board extends StackPane {
 
     public int[] getExtremeValuesMove() {
         List<Tuple<Tuple<Integer, Integer>, Orientation>> openFields = getOpenFields();
-        int minX = 112;
-        int minY = 112;
-        int maxX = 0;
-        int maxY = 0;
+        if(openFields.isEmpty()) {
+            return new int[]{NR_STONES * 2, NR_STONES * 2, 0, 0};
+        }
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
         for(Tuple<Tuple<Integer, Integer>, Orientation> field : openFields) {
             Tuple<Integer, Integer> coordinate = field.getLeft();
             if(coordinate.getLeft() < minX) {
@@ -304,6 +875,21 @@ public class Board extends StackPane {
      * @param move If true, the board is equipped with clickable spots on which possible tiles can be laid down.
      */
     public void update(boolean move) {
+        update(move, null);
+    }
+
+    /**
+     * Updates the current board view with the latest lay-out, with clickable spots only on the fields where one of
+     * the hinted placements is legal. Each spot shows the points of its best placement.
+     * @param hints The legal placements, see {@link PlacementHints}.
+     */
+    public void update(List<PlacementHints.Hint> hints) {
+        update(true, hints);
+    }
+
+    private void update(boolean move, List<PlacementHints.Hint> hints) {
+        BoardRedrawEvent event = new BoardRedrawEvent();
+        event.begin();
         int[] extremes;
 
         if (move) {
@@ -312,6 +898,20 @@ public class Board extends StackPane {
             extremes = getExtremeValues();
         }
 
+        // The placements on each field, the hints are sorted with the best placement first.
+        Map<Long, List<PlacementHints.Hint>> hinted = new HashMap<>();
+        if(hints != null) {
+            for (PlacementHints.Hint hint : hints) {
+                hinted.computeIfAbsent(cell(hint.getX(), hint.getY()), field -> new ArrayList<>())
+                    .add(hint);
+                // On an empty board there are no open fields yet.
+                extremes[0] = Math.min(extremes[0], hint.getX());
+                extremes[1] = Math.min(extremes[1], hint.getY());
+                extremes[2] = Math.max(extremes[2], hint.getX());
+                extremes[3] = Math.max(extremes[3], hint.getY());
+            }
+        }
+
         int minX = extremes[0];
         int minY = extremes[1];
         int maxX = extremes[2];
@@ -331,9 +931,20 @@ public class Board extends StackPane {
         // Fill the board with stones and if needed empty spots.
         for (int x = 0; x < maxX - minX + 1; x++) {
             for (int y = 0; y < maxY - minY + 1; y++) {
-                if (this.board[x + minX][y + minY] != null) {
+                if (this.board.get(x + minX, y + minY) != null) {
                     // Add the stone to the board.
-                    pane.add(this.board[x + minX][y + minY].toJavaFX(), x, y);
+                    pane.add(this.board.get(x + minX, y + minY).toJavaFX(), x, y);
+                } else if (hints != null) {
+                    // Add an empty field with the points of the best placement on it.
+                    List<PlacementHints.Hint> field = hinted.get(cell(x + minX, y + minY));
+                    if(field != null) {
+                        PlacementHints.Hint best = field.get(0);
+                        Text points = new Text("+" + best.points());
+                        points.setFont(Font.font(Style.FONT_FAMILY, Style.FONT_SIZE_BODY));
+                        points.setMouseTransparent(true);
+                        space.add(new StackPane(new EmptyLocation(best.getOrientation(), x + minX, y + minY, field),
+                            points), x, y);
+                    }
                 } else if (move) {
                     // Add an empty field.
                     EmptyLocation location = getEmptyLocation(x + minX, y + minY);
@@ -344,8 +955,15 @@ public class Board extends StackPane {
             }
         }
 
-        this.getChildren().addAll(pane, space);
+        this.getChildren().setAll(pane, space);
         this.alignmentProperty().setValue(Pos.TOP_LEFT);
+
+        if(event.shouldCommit()) {
+            event.columns = maxX - minX + 1;
+            event.rows = maxY - minY + 1;
+            event.move = move;
+            event.commit();
+        }
     }
 
     /**
@@ -363,23 +981,23 @@ public class Board extends StackPane {
         int maxY = extremes[3];
         for (int x = minX; x < maxX + 1; x++) {
             for (int y = minY; y < maxY + 1; y++) {
-                Stone stone = this.board[x][y];
+                Stone stone = this.board.get(x, y);
                 if(stone != null) {
                     // Check the location above or under the stone, depending on the orientation.
                     if(stone.getOrientation() == Orientation.TOP) {
-                        if(this.board[x][y - 1] == null) {
+                        if(this.board.get(x, y - 1) == null) {
                             coordinates.add(new Tuple<>(new Tuple<>(x, y - 1), Orientation.DOWN));
                         }
                     } else {
-                        if(this.board[x][y + 1] == null) {
+                        if(this.board.get(x, y + 1) == null) {
                             coordinates.add(new Tuple<>(new Tuple<>(x, y + 1), Orientation.TOP));
                         }
                     }
 
                     // Check the left side of the stone.
-                    if(this.board[x - 1][y] == null) {
+                    if(this.board.get(x - 1, y) == null) {
                         Orientation orientation;
-                        if (this.board[x][y].getOrientation() == Orientation.TOP) {
+                        if (this.board.get(x, y).getOrientation() == Orientation.TOP) {
                             orientation = Orientation.DOWN;
                         } else {
                             orientation = Orientation.TOP;
@@ -388,9 +1006,9 @@ public class Board extends StackPane {
                     }
 
                     // Check the right side of the stone.
-                    if(this.board[x + 1][y] == null) {
+                    if(this.board.get(x + 1, y) == null) {
                         Orientation orientation;
-                        if (this.board[x][y].getOrientation() == Orientation.TOP) {
+                        if (this.board.get(x, y).getOrientation() == Orientation.TOP) {
                             orientation = Orientation.DOWN;
                         } else {
                             orientation = Orientation.TOP;
@@ -1,14 +1,21 @@
 package nl.supertom01.triominos.model;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javafx.scene.Cursor;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import nl.supertom01.triominos.controller.HumanPlayer;
+import nl.supertom01.triominos.metrics.Metrics;
+import nl.supertom01.triominos.profiling.TurnEvent;
 import nl.supertom01.triominos.styles.Style;
 
 /**
@@ -31,19 +38,76 @@ public class Game extends GridPane {
     /** The current player */
     private int currentPlayer;
 
+    /** The number of players that could not place a stone nor draw one, since the last placed stone. */
+    private int passes;
+
+    /** The listeners that are informed about the progress of the game. */
+    private final List<GameListener> listeners;
+
+    /** Provides the seed with which the board is shuffled at the start of each round. */
+    private final Random random;
+
     public Game(Player[] players) {
         this.board = new Board();
         this.players = players;
+        this.listeners = new ArrayList<>();
+        this.random = new Random();
+        for (int i = 0; i < players.length; i++) {
+            players[i].setSeat(i);
+            if(players[i] instanceof GameListener) {
+                this.listeners.add((GameListener) players[i]);
+            }
+        }
+    }
+
+    /**
+     * Creates a game of which all the rounds are dealt from the provided seed.
+     * @param players The players that are taking part in the game.
+     * @param seed    The seed of the game.
+     */
+    public Game(Player[] players, long seed) {
+        this(players);
+        this.random.setSeed(seed);
+    }
+
+    /**
+     * Brings the game back to its initial state, such that the same instance can be used for another game.
+     * The board and the players are reset in place, so this does not allocate anything.
+     * @param seed The seed of the new game.
+     */
+    public void reset(long seed) {
+        this.random.setSeed(seed);
+        this.currentPlayer = 0;
+        for (Player player : this.players) {
+            player.resetStones();
+            player.resetPoints();
+        }
+        // The board is shuffled again when the first round is dealt, clearing it should not draw from the random.
+        this.board.reset(seed);
     }
 
     public Board getBoard() {
         return board;
     }
 
+    public Player[] getPlayers() {
+        return players;
+    }
+
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
     /**
-     * Provides each player with their private stack of stones.
+     * Reshuffles the board and provides each player with their private stack of stones.
      */
     public void initialize() {
+        this.board.reset(this.random.nextLong());
+        this.passes = 0;
         for (Player player : this.players) {
             player.resetStones();
             for (int i = 0; i < STOCK_SIZE; i++) {
@@ -100,18 +164,17 @@ public class Game extends GridPane {
     /**
      * Checks if the current round is finished.
      * A round is finished if one person has no stones left or if no one is able to place a stone.
+     * Once the stack is empty, players that cannot place a stone have to pass. When every player has passed in a row,
+     * no one is able to place a stone anymore.
      * @return true if this round has indeed finished.
      */
     public boolean isRoundFinished() {
-        if(board.getStackSize() != 0) {
-            for (Player player : this.players) {
-                if (player.getStones().size() == 0) {
-                    return true;
-                }
+        for (Player player : this.players) {
+            if (player.getStoneCount() == 0) {
+                return true;
             }
-            return false;
         }
-        return true;
+        return board.getStackSize() == 0 && passes >= players.length;
     }
 
     /**
@@ -145,21 +208,86 @@ public class Game extends GridPane {
         return winner;
     }
 
+    /**
+     * Checks if this game is shown on the screen. Games that are not (simulations) skip all the JavaFX work.
+     * @return True if the game is part of a scene.
+     */
+    public boolean isDisplayed() {
+        return getScene() != null;
+    }
+
     public void play() {
-        update();
+        boolean displayed = isDisplayed();
+        if(displayed) {
+            update();
+        }
         while(!isFinished()) {
             initialize();
             currentPlayer = getFirstPlayer();
+            for (GameListener listener : listeners) {
+                listener.roundStarted(this);
+            }
             while(!isRoundFinished()) {
-                board.update(players[currentPlayer] instanceof HumanPlayer);
-                players[currentPlayer].makeMove(board);
-                update();
+                Player player = players[currentPlayer];
+                for (GameListener listener : listeners) {
+                    listener.turnStarted(this, player);
+                }
+                TurnEvent event = new TurnEvent();
+                if(event.isEnabled()) {
+                    event.player = player.getUsername();
+                    event.stonesInHand = player.getStoneCount();
+                    event.openFields = board.getOpenFieldCount();
+                    event.stackSize = board.getStackSize();
+                }
+                event.begin();
+                int points = player.getPoints();
+                int stackSize = board.getStackSize();
+                if(displayed) {
+                    if(player instanceof HumanPlayer human) {
+                        // Show the hand of the player, with the hints of the move that was just played.
+                        human.awaitHints();
+                        update();
+                        board.update(human.getHints());
+                    } else {
+                        board.update(false);
+                    }
+                }
+                Move move = player.makeMove(board);
+                event.end();
+                if(move != null) {
+                    passes = 0;
+                } else if(board.getStackSize() == stackSize && stackSize == 0) {
+                    passes++;
+                }
+                points = player.getPoints() - points;
+                if(event.shouldCommit()) {
+                    event.points = points;
+                    event.commit();
+                }
+                for (GameListener listener : listeners) {
+                    if(board.getStackSize() < stackSize) {
+                        listener.stoneDrawn(this, player);
+                    }
+                    listener.movePlayed(this, player, move, points);
+                }
+                if(displayed) {
+                    update();
+                }
                 currentPlayer = (currentPlayer + 1) % players.length;
             }
+            for (GameListener listener : listeners) {
+                listener.roundFinished(this);
+            }
+        }
+        Metrics.get().countGame();
+        for (GameListener listener : listeners) {
+            listener.gameFinished(this);
         }
     }
 
     public void update() {
+        this.getChildren().clear();
+
         // Set up the left bar.
         GridPane leftBar = new GridPane();
         leftBar.setBackground(new Background(new BackgroundFill(Color.WHITE, null, null)));
@@ -191,8 +319,21 @@ public class Game extends GridPane {
             leftBar.add(score, 1, i + 2);
         }
 
-        // Display the stones of the current player.
-        // TODO: Implement.
+        // Display the stones of the current player, if it is a human. Clicking a stone only shows its placements on
+        // the board, clicking it again shows those of the whole hand.
+        if(this.players[currentPlayer] instanceof HumanPlayer human) {
+            int row = this.players.length + 2;
+            for (Stone stone : human.getStones()) {
+                Pane pane = stone.toJavaFX();
+                pane.setOnMouseClicked(mouseEvent -> {
+                    Stone selected = human.getSelectedStone();
+                    human.selectStone(selected != null && selected.getId() == stone.getId() ? null : stone);
+                });
+                pane.setOnMouseEntered(mouseEvent -> pane.getScene().setCursor(Cursor.HAND));
+                pane.setOnMouseExited(mouseEvent -> pane.getScene().setCursor(Cursor.DEFAULT));
+                leftBar.add(pane, 0, row++, 2, 1);
+            }
+        }
 
         this.add(leftBar, 0, 0);
         this.add(board, 1, 0);
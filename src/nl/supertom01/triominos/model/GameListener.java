@@ -0,0 +1,57 @@
+package nl.supertom01.triominos.model;
+
+/**
+ * Receives the progress of a game. All the methods are called on the thread that plays the game, after the board and
+ * the players have been updated.
+ */
+public interface GameListener {
+
+    /**
+     * Called when the stones have been dealt at the start of a round.
+     * @param game The game.
+     */
+    default void roundStarted(Game game) {
+    }
+
+    /**
+     * Called before a player is asked for a move.
+     * @param game   The game.
+     * @param player The player whose turn it is.
+     */
+    default void turnStarted(Game game, Player player) {
+    }
+
+    /**
+     * Called when a player took a stone from the stack instead of placing one. The board is the same as when the
+     * player had to decide, {@link #movePlayed} follows with a null move.
+     * @param game   The game.
+     * @param player The player that took the stone.
+     */
+    default void stoneDrawn(Game game, Player player) {
+    }
+
+    /**
+     * Called when a player has finished their turn.
+     * @param game   The game.
+     * @param player The player that made the move.
+     * @param move   The move, or null if the player did not place a stone.
+     * @param points The points the player gained (or lost) with this move.
+     */
+    default void movePlayed(Game game, Player player, Move move, int points) {
+    }
+
+    /**
+     * Called when a round has finished.
+     * @param game The game.
+     */
+    default void roundFinished(Game game) {
+    }
+
+    /**
+     * Called when the complete game has finished.
+     * @param game The game.
+     */
+    default void gameFinished(Game game) {
+    }
+
+}
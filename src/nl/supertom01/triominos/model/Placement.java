@@ -0,0 +1,75 @@
+package nl.supertom01.triominos.model;
+
+/**
+ * Packs a placement of a stone on the board into a single long, such that move generation does not have to create
+ * an object for each candidate.
+ * Layout: x (24 bits, signed) | y (24 bits, signed) | stone id (12 bits) | rotations to the right (3 bits).
+ */
+public final class Placement {
+
+    private Placement() {
+    }
+
+    /**
+     * Packs a placement.
+     * @param x         The x-coordinate.
+     * @param y         The y-coordinate.
+     * @param id        The id of the stone.
+     * @param rotations The number of times the stone is rotated to the right, starting from its initial state.
+     * @return The packed placement.
+     */
+    public static long of(int x, int y, int id, int rotations) {
+        return ((long) x << 39) | ((long) (y & 0xFFFFFF) << 15) | ((long) id << 3) | rotations;
+    }
+
+    /**
+     * Packs a move with a stone that has been dealt by a board.
+     * @param move The move.
+     * @return The packed placement.
+     * @throws IllegalArgumentException If the stone of the move does not have an id.
+     */
+    public static long of(Move move) {
+        Stone stone = move.getStone();
+        if(stone.getId() < 0) {
+            throw new IllegalArgumentException("Only a dealt stone can be packed into a placement.");
+        }
+        return of(move.getX(), move.getY(), stone.getId(), stone.getRotations());
+    }
+
+    public static int getX(long placement) {
+        return (int) (placement >> 39);
+    }
+
+    public static int getY(long placement) {
+        return (int) ((placement << 25) >> 40);
+    }
+
+    public static int getId(long placement) {
+        return (int) (placement >>> 3) & 0xFFF;
+    }
+
+    public static int getRotations(long placement) {
+        return (int) placement & 0x7;
+    }
+
+    /**
+     * Turns a placement into a move, rotating the provided stone into the position of the placement.
+     * @param placement The packed placement.
+     * @param stone     The stone with the id of the placement, it is rotated by this method.
+     * @return The move.
+     */
+    public static Move toMove(long placement, Stone stone) {
+        stone.setRotations(getRotations(placement));
+        return new Move(stone, getX(placement), getY(placement));
+    }
+
+    /**
+     * Turns a placement into a move with the stone of a board, rotating it into the position of the placement.
+     * @param placement The packed placement.
+     * @param board     The board of which the stone with the id of the placement is rotated by this method.
+     * @return The move.
+     */
+    public static Move toMove(long placement, Board board) {
+        return toMove(placement, board.getStone(getId(placement)));
+    }
+}
@@ -1,9 +1,12 @@
 package nl.supertom01.triominos.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.metrics.LatencyHistogram;
+import nl.supertom01.triominos.metrics.Metrics;
 
 /**
  * The player model class.
@@ -13,8 +16,11 @@ import nl.supertom01.triominos.exceptions.PlacementException;
  */
 public abstract class Player {
 
-    /** The stones in the player's inventory. */
-    private List<Stone> stones;
+    /** The stones in the player's inventory, indexed by their id. */
+    private final Stone[] stones;
+
+    /** The ids of the stones in the player's inventory, as a bit mask. */
+    private long hand;
 
     /** The name of this player. */
     private final String username;
@@ -22,18 +28,64 @@ public abstract class Player {
     /** The total number of points of this player. */
     private int points;
 
+    /** The time spent in {@link #determineMove(Board)}, recorded per seat. */
+    private LatencyHistogram decisionLatency;
+
     public Player(String username) {
         this.username = username;
-        this.stones = new ArrayList<>();
+        this.stones = new Stone[Board.NR_STONES];
+        this.hand = 0;
         this.points = 0;
+        this.decisionLatency = Metrics.get().getDecisionLatency(username, 0);
+    }
+
+    /**
+     * Seats the player in a game, such that its decisions are recorded apart from those of the other seats.
+     * @param seat The index of the player in the game.
+     */
+    public void setSeat(int seat) {
+        this.decisionLatency = Metrics.get().getDecisionLatency(username, seat);
     }
 
     public String getUsername() {
         return username;
     }
 
+    /**
+     * Get the stones in the player's inventory, ordered by their id.
+     * @return A new list with the stones.
+     */
     public List<Stone> getStones() {
-        return stones;
+        List<Stone> list = new ArrayList<>(Long.bitCount(hand));
+        for (long mask = hand; mask != 0; mask &= mask - 1) {
+            list.add(stones[Long.numberOfTrailingZeros(mask)]);
+        }
+        return list;
+    }
+
+    /**
+     * Get the stone with the provided id from the player's inventory.
+     * @param id The id of the stone.
+     * @return The stone or null if the player does not have it.
+     */
+    public Stone getStone(int id) {
+        return (hand & (1L << id)) != 0 ? stones[id] : null;
+    }
+
+    /**
+     * Get the ids of the stones in the player's inventory.
+     * @return A bit mask in which bit i is set if the player has the stone with id i.
+     */
+    public long getHandMask() {
+        return hand;
+    }
+
+    public int getStoneCount() {
+        return Long.bitCount(hand);
+    }
+
+    public boolean hasStone(Stone stone) {
+        return (hand & stone.getMask()) != 0;
     }
 
     public int getPoints() {
@@ -41,11 +93,29 @@ public abstract class Player {
     }
 
     /**
-     * Add a stone to this player's stones.
+     * Add a stone to this player's stones. The hand is kept by id, so it only holds the stones of the game, one of
+     * each. The stones of a larger {@link StoneSet} are not dealt to players.
      * @param stone The stone to add
+     * @throws IllegalArgumentException If the stone is not a stone of the game, or another stone with its id is
+     *                                  already in the hand.
      */
     public void addStone(Stone stone) {
-        stones.add(stone);
+        if(stone.getId() < 0) {
+            throw new IllegalArgumentException("Only the stones of the game can be added to a hand, not " + stone + ".");
+        } else if(stones[stone.getId()] != null && stones[stone.getId()] != stone) {
+            throw new IllegalArgumentException("The hand already holds a stone with the id of " + stone + ".");
+        }
+        stones[stone.getId()] = stone;
+        hand |= stone.getMask();
+    }
+
+    /**
+     * Removes a stone from this player's stones.
+     * @param stone The stone to remove.
+     */
+    public void removeStone(Stone stone) {
+        stones[stone.getId()] = null;
+        hand &= ~stone.getMask();
     }
 
     /**
@@ -56,33 +126,48 @@ public abstract class Player {
         this.points += points;
     }
 
+    /**
+     * Takes away all the points of this player, for a new game.
+     */
+    public void resetPoints() {
+        this.points = 0;
+    }
+
     /**
      * Empties the players stones.
      */
     public void resetStones() {
-        this.stones = new ArrayList<>();
+        Arrays.fill(this.stones, null);
+        this.hand = 0;
     }
 
     /**
      * Determine the move that the player wants to make.
      * @param board The GUI scene.
-     * @return A valid move that has been chosen by the player.
+     * @return A valid move that has been chosen by the player, or null if the player took a stone from the stack.
      */
     public abstract Move determineMove(Board board);
 
     /**
      * Makes a move on the board.
      * @param board The board on which the move should be made.
+     * @return The move that has been made, or null if no stone was placed.
      */
-    public void makeMove(Board board) {
+    public Move makeMove(Board board) {
+        long start = System.nanoTime();
         Move move = determineMove(board);
+        decisionLatency.record(System.nanoTime() - start);
+        Metrics.get().countMove();
         int points = board.determinePoints(move, this);
-        try {
-            board.placeStone(move);
-        } catch (PlacementException e) {
-            System.err.printf("[ERROR] [PLAYER] %s: \"%s\"", getUsername(), e.getMessage());
+        if(move != null) {
+            try {
+                board.placeStone(move);
+            } catch (PlacementException e) {
+                System.err.printf("[ERROR] [PLAYER] %s: \"%s\"", getUsername(), e.getMessage());
+            }
+            removeStone(move.getStone());
         }
-        stones.remove(move.getStone());
         addPoints(points);
+        return move;
     }
 }
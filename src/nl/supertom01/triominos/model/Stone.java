@@ -22,6 +22,31 @@ import nl.supertom01.triominos.view.Triangle;
  */
 public class Stone {
 
+    /** The highest number that can be found on a stone. */
+    public static final int MAX_VALUE = 5;
+
+    /** A bit mask that contains every stone of the game. */
+    public static final long ALL = (1L << Board.NR_STONES) - 1;
+
+    /** Maps the sorted values of a stone (as a base 6 number) to its id. */
+    private static final int[] IDS = new int[(MAX_VALUE + 1) * (MAX_VALUE + 1) * (MAX_VALUE + 1)];
+
+    /** The sorted values of each stone, by id. */
+    private static final int[][] BASE_VALUES = new int[Board.NR_STONES][];
+
+    static {
+        Arrays.fill(IDS, -1);
+        int id = 0;
+        for (int i = 0; i <= MAX_VALUE; i++) {
+            for (int j = i; j <= MAX_VALUE; j++) {
+                for (int k = j; k <= MAX_VALUE; k++) {
+                    BASE_VALUES[id] = new int[]{i, j, k};
+                    IDS[(i * (MAX_VALUE + 1) + j) * (MAX_VALUE + 1) + k] = id++;
+                }
+            }
+        }
+    }
+
     /**
      * The current orientation of this stone.
      *
@@ -37,9 +62,30 @@ public class Stone {
     /** The values that are on a stone. */
     private final int[] values;
 
+    /**
+     * The index of this stone within the 56 stones of the game, which does not change when the stone is rotated.
+     * It is -1 for stones that are not part of the game.
+     */
+    private final int id;
+
     public Stone(int nr1, int nr2, int nr3) {
         this.orientation = Orientation.DOWN;
         this.values = new int[]{nr1, nr2, nr3};
+        this.id = idOf(nr1, nr2, nr3);
+    }
+
+    /**
+     * Determines the id of the stone with the provided values, regardless of the order of the values.
+     * @return The id, or -1 if no such stone exists in the game.
+     */
+    public static int idOf(int nr1, int nr2, int nr3) {
+        int low = Math.min(nr1, Math.min(nr2, nr3));
+        int high = Math.max(nr1, Math.max(nr2, nr3));
+        int mid = nr1 + nr2 + nr3 - low - high;
+        if(low < 0 || high > MAX_VALUE) {
+            return -1;
+        }
+        return IDS[(low * (MAX_VALUE + 1) + mid) * (MAX_VALUE + 1) + high];
     }
 
     public Orientation getOrientation() {
@@ -50,6 +96,18 @@ public class Stone {
         return values;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the bit of this stone within a mask of stones.
+     * @return A mask with only this stone in it, or 0 for a stone that is not part of the game.
+     */
+    public long getMask() {
+        return id < 0 ? 0 : 1L << id;
+    }
+
     public void setOrientation(Orientation orientation) {
         this.orientation = orientation;
     }
@@ -70,6 +128,61 @@ public class Stone {
         return this.values[0] + this.values[1] + this.values[2];
     }
 
+    /**
+     * Creates a copy of this stone, with the same values and orientation.
+     * @return The copy.
+     */
+    public Stone copy() {
+        Stone copy = new Stone(this.values[0], this.values[1], this.values[2]);
+        copy.setOrientation(this.orientation);
+        return copy;
+    }
+
+    /**
+     * Puts this stone back in the state in which it was generated by {@link #shuffle()}: pointing upwards, with its
+     * values in ascending order.
+     */
+    public void reset() {
+        if(this.id >= 0) {
+            System.arraycopy(BASE_VALUES[this.id], 0, this.values, 0, 3);
+            this.orientation = Orientation.DOWN;
+        }
+    }
+
+    /**
+     * Resets this stone and then rotates it clockwise a number of times.
+     * @param rotations The number of rotations to the right (0 to 5).
+     */
+    public void setRotations(int rotations) {
+        reset();
+        for (int i = 0; i < rotations; i++) {
+            rotateRight();
+        }
+    }
+
+    /**
+     * Get the number of rotations to the right from the state in which this stone was generated to its current state,
+     * the inverse of {@link #setRotations(int)}.
+     * @return The number of rotations (0 to 5), or -1 if this stone was not generated by {@link #shuffle()}.
+     */
+    public int getRotations() {
+        if(this.id < 0) {
+            return -1;
+        }
+        // Every two rotations shift the values by one position, the odd rotations point the stone down.
+        int[] base = BASE_VALUES[this.id];
+        for (int shift = 0; shift < 3; shift++) {
+            if(this.values[0] == base[(3 - shift) % 3] && this.values[1] == base[(4 - shift) % 3]
+                && this.values[2] == base[(5 - shift) % 3]) {
+                if(this.orientation == Orientation.DOWN) {
+                    return 2 * shift;
+                }
+                return shift == 0 ? 5 : 2 * shift - 1;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Rotates this stone clockwise, by one position.
      */
@@ -178,9 +291,9 @@ public class Stone {
      */
     public static List<Stone> shuffle() {
         ArrayList<Stone> stones = new ArrayList<>(Board.NR_STONES);
-        for (int i = 0; i < 6; i++) {
-            for (int j = i; j < 6; j++) {
-                for (int k = j; k < 6; k++) {
+        for (int i = 0; i <= MAX_VALUE; i++) {
+            for (int j = i; j <= MAX_VALUE; j++) {
+                for (int k = j; k <= MAX_VALUE; k++) {
                     stones.add(new Stone(i,j,k));
                 }
             }
@@ -0,0 +1,68 @@
+package nl.supertom01.triominos.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the stones of a set with any highest value, and any number of copies of that set.
+ * The game uses a single copy of the set with the values 0 to {@value Stone#MAX_VALUE}, which gives
+ * {@value Board#NR_STONES} stones. Larger sets are meant for variants and benchmarks. Stones with a value above
+ * {@value Stone#MAX_VALUE} are not part of the game (their id is -1) and copies share the id of their original, so these
+ * stones can be placed and scored on a board, but not handled as bit masks.
+ * A set is not dealt: a {@link Board} always shuffles the stones of the game into its stack, and a {@link Player} only
+ * holds those stones, so a set is laid out on a board directly with {@link Board#placeStone(Move)}, like
+ * {@link nl.supertom01.triominos.simulation.BoardScalingBenchmark} does.
+ */
+public class StoneSet {
+
+    private StoneSet() {
+    }
+
+    /**
+     * Determines the number of stones of a set.
+     * @param maxValue The highest value on a stone.
+     * @param copies   The number of copies of each stone.
+     * @return The number of stones: every combination of three values, regardless of their order, per copy.
+     */
+    public static int size(int maxValue, int copies) {
+        long values = maxValue + 1L;
+        return Math.toIntExact(values * (values + 1) * (values + 2) / 6 * copies);
+    }
+
+    /**
+     * Determines the smallest highest value for which a single set has at least the provided number of stones.
+     * @param stones The number of stones.
+     * @return The highest value.
+     */
+    public static int maxValueFor(int stones) {
+        int maxValue = 0;
+        while (size(maxValue, 1) < stones) {
+            maxValue++;
+        }
+        return maxValue;
+    }
+
+    /**
+     * Generates the stones of a set, with their values in ascending order and pointing down, like
+     * {@link Stone#shuffle()} does. The stones are not shuffled.
+     * @param maxValue The highest value on a stone.
+     * @param copies   The number of copies of each stone.
+     * @return The stones.
+     */
+    public static List<Stone> generate(int maxValue, int copies) {
+        if(maxValue < 0 || copies < 1) {
+            throw new IllegalArgumentException("A set needs a highest value of at least 0 and at least one copy.");
+        }
+        List<Stone> stones = new ArrayList<>(size(maxValue, copies));
+        for (int copy = 0; copy < copies; copy++) {
+            for (int i = 0; i <= maxValue; i++) {
+                for (int j = i; j <= maxValue; j++) {
+                    for (int k = j; k <= maxValue; k++) {
+                        stones.add(new Stone(i, j, k));
+                    }
+                }
+            }
+        }
+        return stones;
+    }
+}
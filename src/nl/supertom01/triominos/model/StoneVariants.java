@@ -0,0 +1,82 @@
+package nl.supertom01.triominos.model;
+
+import java.util.Arrays;
+
+/**
+ * Lookup tables for the 336 oriented variants of the stones (56 stones, 6 rotations each).
+ * A variant is described by its orientation and one of the three rotations within that orientation. For each of the
+ * three positions on a stone and each value, a 56-bit mask tells which stones show that value on that position. This
+ * packs the edge values of all stones into the lanes of a single long, so checking every stone against the numbers
+ * a field requires is a handful of AND operations instead of thousands of scalar comparisons.
+ */
+public final class StoneVariants {
+
+    /** The number of rotations of a stone that have the same orientation. */
+    public static final int ROTATIONS = 3;
+
+    /** [orientation][rotation][position][value] -> the stones that have the value on that position. */
+    private static final long[][][][] MASKS = new long[2][ROTATIONS][3][Stone.MAX_VALUE + 1];
+
+    /** [orientation][rotation] -> the stones for which this rotation differs from the earlier rotations. */
+    private static final long[][] UNIQUE = new long[2][ROTATIONS];
+
+    static {
+        for (Stone stone : Stone.shuffle()) {
+            int[][] seen = new int[6][];
+            for (int r = 0; r < 6; r++) {
+                int orientation = stone.getOrientation().ordinal();
+                int rotation = r / 2;
+                int[] values = stone.getValues();
+                for (int position = 0; position < 3; position++) {
+                    MASKS[orientation][rotation][position][values[position]] |= stone.getMask();
+                }
+                boolean unique = true;
+                for (int earlier = orientation; earlier < r; earlier += 2) {
+                    unique = unique && !Arrays.equals(seen[earlier], values);
+                }
+                if(unique) {
+                    UNIQUE[orientation][rotation] |= stone.getMask();
+                }
+                seen[r] = values.clone();
+                stone.rotateRight();
+            }
+        }
+    }
+
+    private StoneVariants() {
+    }
+
+    /**
+     * Get the stones that show a value on a position when they are in the given variant.
+     * @param orientation The orientation of the variant.
+     * @param rotation    The rotation within that orientation (0, 1 or 2).
+     * @param position    The index in the values array of the stone.
+     * @param value       The value.
+     * @return A bit mask with the ids of those stones.
+     */
+    public static long withValue(Orientation orientation, int rotation, int position, int value) {
+        return MASKS[orientation.ordinal()][rotation][position][value];
+    }
+
+    /**
+     * Get the stones of which the given variant looks different from the earlier rotations with the same orientation.
+     * Only triples have rotations that look the same.
+     * @param orientation The orientation of the variant.
+     * @param rotation    The rotation within that orientation.
+     * @return A bit mask with the ids of those stones.
+     */
+    public static long unique(Orientation orientation, int rotation) {
+        return UNIQUE[orientation.ordinal()][rotation];
+    }
+
+    /**
+     * Converts a rotation within an orientation to the number of times a stone, as it was generated, has to be
+     * rotated to the right.
+     * @param orientation The orientation of the variant.
+     * @param rotation    The rotation within that orientation.
+     * @return The number of rotations to the right (0 to 5).
+     */
+    public static int rightRotations(Orientation orientation, int rotation) {
+        return rotation * 2 + orientation.ordinal();
+    }
+}
@@ -0,0 +1,134 @@
+package nl.supertom01.triominos.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * The random keys of the Zobrist hashes of positions. The hash of a position is the exclusive or of the keys of its
+ * parts: each stone on the board with its cell, each stone in a hand, the number of passes in a row and the player
+ * to move. Adding or taking away a part flips its key, so a hash is updated with a single exclusive or per change.
+ *
+ * A stone on a cell has a key per row and one per column for each variant of the stone (its values in clockwise
+ * order and its orientation), which keeps the tables small. Coordinates are taken modulo {@value #SIZE}: the board
+ * has no bounds, so stones that lie a multiple of {@value #SIZE} rows or columns apart share their keys. The
+ * {@value Board#NR_STONES} stones of a game never span that far. The keys are drawn from a fixed seed, so hashes can
+ * be stored in files.
+ *
+ * Stones with values outside 0 to {@value Stone#MAX_VALUE}, of larger {@link StoneSet}s, have no keys in the tables.
+ * Their key is mixed from the coordinates, the values and the orientation instead.
+ */
+public final class Zobrist {
+
+    /** The number of rows and columns with keys of their own. */
+    public static final int SIZE = 2 * Board.NR_STONES + 1;
+
+    /**
+     * The number of variants of a stone: three values from 0 to {@value Stone#MAX_VALUE} in clockwise order, pointing
+     * up or down.
+     */
+    public static final int VARIANTS = (Stone.MAX_VALUE + 1) * (Stone.MAX_VALUE + 1) * (Stone.MAX_VALUE + 1) * 2;
+
+    /** The number of players of which the hands have keys. */
+    public static final int SIDES = 2;
+
+    /** The largest number of passes in a row that has a key. */
+    public static final int MAX_PASSES = 3;
+
+    /** The key of the second player to move. */
+    public static final long SIDE;
+
+    /** The seed of the keys of stones with values above {@value Stone#MAX_VALUE}. */
+    private static final long MIXED;
+
+    private static final long[] ROWS = new long[SIZE * VARIANTS];
+    private static final long[] COLUMNS = new long[SIZE * VARIANTS];
+    private static final long[] HANDS = new long[SIDES * Long.SIZE];
+    private static final long[] PASSES = new long[MAX_PASSES + 1];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A0B_2157_7219_0001L);
+        fill(ROWS, random);
+        fill(COLUMNS, random);
+        fill(HANDS, random);
+        fill(PASSES, random);
+        PASSES[0] = 0;
+        SIDE = random.nextLong() | 1;
+        MIXED = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            long key = random.nextLong();
+            keys[i] = key == 0 ? 1 : key;
+        }
+    }
+
+    /**
+     * Get the key of a stone on a cell.
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param stone The stone, in its current rotation and orientation.
+     * @return The key, which is never 0.
+     */
+    public static long cell(int x, int y, Stone stone) {
+        int[] values = stone.getValues();
+        int orientation = stone.getOrientation().ordinal();
+        if(!isStandard(values[0]) || !isStandard(values[1]) || !isStandard(values[2])) {
+            long key = mix(mix(mix(mix(mix(mix(MIXED ^ x) ^ y) ^ values[0]) ^ values[1]) ^ values[2]) ^ orientation);
+            return key == 0 ? 1 : key;
+        }
+        int variant = ((values[0] * (Stone.MAX_VALUE + 1) + values[1]) * (Stone.MAX_VALUE + 1) + values[2]) * 2
+            + orientation;
+        long key = ROWS[Math.floorMod(y, SIZE) * VARIANTS + variant]
+            ^ COLUMNS[Math.floorMod(x, SIZE) * VARIANTS + variant];
+        return key == 0 ? 1 : key;
+    }
+
+    private static boolean isStandard(int value) {
+        return value >= 0 && value <= Stone.MAX_VALUE;
+    }
+
+    /**
+     * Scrambles the bits of a number, the finalizer of SplitMix64. Different numbers give different results.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the key of a stone in the hand of a player.
+     * @param side The player, 0 or 1.
+     * @param id   The id of the stone.
+     * @return The key.
+     */
+    public static long stone(int side, int id) {
+        return HANDS[side * Long.SIZE + id];
+    }
+
+    /**
+     * Hashes a hand.
+     * @param side   The player, 0 or 1.
+     * @param stones The stones in the hand, as a bit mask.
+     * @return The exclusive or of the keys of the stones.
+     */
+    public static long hand(int side, long stones) {
+        long key = 0;
+        for (long mask = stones; mask != 0; mask &= mask - 1) {
+            key ^= HANDS[side * Long.SIZE + Long.numberOfTrailingZeros(mask)];
+        }
+        return key;
+    }
+
+    /**
+     * Get the key of the number of passes in a row.
+     * @param passes The number of passes, 0 has key 0.
+     * @return The key.
+     */
+    public static long passes(int passes) {
+        return PASSES[Math.min(passes, MAX_PASSES)];
+    }
+}
@@ -0,0 +1,26 @@
+package nl.supertom01.triominos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans the creation of the JavaFX representation of the board.
+ */
+@Name("nl.supertom01.triominos.BoardRedraw")
+@Label("Board Redraw")
+@Category({"Triominos", "View"})
+@StackTrace(false)
+public class BoardRedrawEvent extends jdk.jfr.Event {
+
+    @Label("Columns")
+    public int columns;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("With Open Fields")
+    public boolean move;
+
+}
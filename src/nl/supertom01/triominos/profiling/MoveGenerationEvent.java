@@ -0,0 +1,32 @@
+package nl.supertom01.triominos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans the generation of the candidate moves of a player.
+ */
+@Name("nl.supertom01.triominos.MoveGeneration")
+@Label("Move Generation")
+@Category({"Triominos", "Engine"})
+@Description("The generation of the legal moves of a player")
+@StackTrace(false)
+public class MoveGenerationEvent extends jdk.jfr.Event {
+
+    @Label("Player")
+    public String player;
+
+    @Label("Open Fields")
+    public int openFields;
+
+    @Label("Candidates")
+    @Description("The number of fields on which the stones of the hand have been fitted, in every rotation at once")
+    public int candidates;
+
+    @Label("Legal Moves")
+    public int legalMoves;
+
+}
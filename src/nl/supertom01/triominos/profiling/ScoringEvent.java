@@ -0,0 +1,41 @@
+package nl.supertom01.triominos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans the calculation of the points of a move.
+ */
+@Name("nl.supertom01.triominos.Scoring")
+@Label("Scoring")
+@Category({"Triominos", "Engine"})
+@StackTrace(false)
+public class ScoringEvent extends jdk.jfr.Event {
+
+    @Label("Points")
+    public int points;
+
+    @Label("Hexagon")
+    public boolean hexagon;
+
+    @Label("Draw")
+    public boolean draw;
+
+    /**
+     * Begins an event, if the flight recorder is running. Points are calculated for every move that is searched, and
+     * an event is not optimised away when it is created, so while nothing is being recorded no event is created at all.
+     * @return The event, or null if the flight recorder has not been started.
+     */
+    public static ScoringEvent start() {
+        if(!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        ScoringEvent event = new ScoringEvent();
+        event.begin();
+        return event;
+    }
+
+}
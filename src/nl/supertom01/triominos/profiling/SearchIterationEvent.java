@@ -0,0 +1,31 @@
+package nl.supertom01.triominos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans a single iteration of the search of an AI player.
+ */
+@Name("nl.supertom01.triominos.SearchIteration")
+@Label("Search Iteration")
+@Category({"Triominos", "Search"})
+@Description("A single iteration of the search of an AI player")
+@StackTrace(false)
+public class SearchIterationEvent extends jdk.jfr.Event {
+
+    @Label("Player")
+    public String player;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Best Score")
+    public int bestScore;
+
+}
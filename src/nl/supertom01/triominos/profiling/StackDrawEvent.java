@@ -0,0 +1,20 @@
+package nl.supertom01.triominos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a stone is taken from the stack.
+ */
+@Name("nl.supertom01.triominos.StackDraw")
+@Label("Stack Draw")
+@Category({"Triominos", "Engine"})
+@StackTrace(false)
+public class StackDrawEvent extends jdk.jfr.Event {
+
+    @Label("Remaining")
+    public int remaining;
+
+}
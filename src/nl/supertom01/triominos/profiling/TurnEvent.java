@@ -0,0 +1,37 @@
+package nl.supertom01.triominos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans a single turn of a player, from the moment the player is asked for a move until the move has been performed.
+ */
+@Name("nl.supertom01.triominos.Turn")
+@Label("Turn")
+@Category({"Triominos", "Game"})
+@Description("A single turn of a player")
+@StackTrace(false)
+public class TurnEvent extends jdk.jfr.Event {
+
+    @Label("Player")
+    public String player;
+
+    @Label("Stones In Hand")
+    @Description("The number of stones in the hand of the player at the start of the turn")
+    public int stonesInHand;
+
+    @Label("Open Fields")
+    @Description("The number of open fields on the board at the start of the turn")
+    public int openFields;
+
+    @Label("Stack Size")
+    public int stackSize;
+
+    @Label("Points")
+    @Description("The points that were gained (or lost) during this turn")
+    public int points;
+
+}
@@ -0,0 +1,205 @@
+package nl.supertom01.triominos.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.StoneSet;
+import nl.supertom01.triominos.util.ChunkedGrid;
+
+/**
+ * Measures how the board scales with the size of the set of stones. For each set (see {@link StoneSet}) the stones
+ * are laid out one by one on random open fields, checking each candidate with {@link Board#isValidMove(Move)} and
+ * scoring it with {@link Board#determinePoints(Move, int)}, until no open field is left or every stone is placed.
+ * The structure grows in any direction, so the stones end up far outside of the area of the original 112 x 112 matrix.
+ *
+ * For each set the time per placement and the memory of the allocated chunks are reported, next to the memory of a
+ * matrix that would be large enough to reach as far as the number of stones in every direction.
+ */
+public class BoardScalingBenchmark {
+
+    /** The highest values of the sets that are measured, from the 56 stones of the game up to 2925 stones. */
+    public static final int[] MAX_VALUES = {5, 7, 9, 12, 15, 19, 24};
+
+    /** The (approximate) size of a reference, in bytes. */
+    private static final int REFERENCE = 4;
+
+    /**
+     * The outcome of laying out a single set.
+     * @param stones    The number of stones in the set.
+     * @param placed    The number of stones that have been placed.
+     * @param nanos     The time that the placements took.
+     * @param chunks    The number of chunks of the grid of the board.
+     * @param width     The number of columns between the leftmost and the rightmost stone.
+     * @param height    The number of rows between the highest and the lowest stone.
+     */
+    public record Result(int stones, int placed, long nanos, int chunks, int width, int height) {
+
+        public double getNanosPerPlacement() {
+            return placed == 0 ? 0 : (double) nanos / placed;
+        }
+
+        /**
+         * Get the memory of the chunks, in bytes.
+         * @return An estimate, of the references in each chunk and their array headers.
+         */
+        public long getChunkBytes() {
+            return chunks * (16L + (long) ChunkedGrid.CHUNK * ChunkedGrid.CHUNK * REFERENCE);
+        }
+
+        /**
+         * Get the memory of a matrix that can hold the stones wherever they are placed, in bytes.
+         * @return The size of a matrix that reaches the number of stones in every direction.
+         */
+        public long getMatrixBytes() {
+            return 4L * stones * stones * REFERENCE;
+        }
+    }
+
+    /**
+     * Lays out a set of stones.
+     * @param maxValue The highest value of the set.
+     * @param copies   The number of copies of each stone.
+     * @param seed     The seed with which the stones and the fields are picked.
+     * @return The result.
+     */
+    public static Result run(int maxValue, int copies, long seed) {
+        Random random = new Random(seed);
+        List<Stone> stones = StoneSet.generate(maxValue, copies);
+        Collections.shuffle(stones, random);
+
+        // The stones by each pair of values on them, such that the candidates for a field can be found quickly.
+        Map<Integer, List<Stone>> byPair = new HashMap<>();
+        for (Stone stone : stones) {
+            int[] values = stone.getValues();
+            for (int pair : new int[]{pair(values[0], values[1], maxValue), pair(values[1], values[2], maxValue),
+                    pair(values[0], values[2], maxValue)}) {
+                List<Stone> list = byPair.computeIfAbsent(pair, key -> new ArrayList<>());
+                if(list.isEmpty() || list.get(list.size() - 1) != stone) {
+                    list.add(stone);
+                }
+            }
+        }
+        Set<Stone> placed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Long> frontier = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+
+        Board board = new Board();
+        long start = System.nanoTime();
+        place(board, new Move(stones.get(0), Board.NR_STONES, Board.NR_STONES), placed, frontier, seen);
+        while (!frontier.isEmpty() && placed.size() < stones.size()) {
+            int index = random.nextInt(frontier.size());
+            long field = frontier.get(index);
+            frontier.set(index, frontier.get(frontier.size() - 1));
+            frontier.remove(frontier.size() - 1);
+            int x = Placement.getX(field);
+            int y = Placement.getY(field);
+            Orientation orientation = board.getOpenFieldOrientation(x, y);
+            if(orientation == null) {
+                continue;
+            }
+            Stone neighbour = board.getStoneAt(x - 1, y) != null ? board.getStoneAt(x - 1, y)
+                : board.getStoneAt(x + 1, y) != null ? board.getStoneAt(x + 1, y)
+                : board.getStoneAt(x, orientation == Orientation.TOP ? y - 1 : y + 1);
+            Move move = findMove(board, x, y, orientation, neighbour, maxValue, byPair, placed);
+            if(move != null) {
+                board.determinePoints(move, stones.size() - placed.size());
+                place(board, move, placed, frontier, seen);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        int[] extremes = board.getExtremeValues();
+        return new Result(stones.size(), placed.size(), nanos, board.getChunkCount(), extremes[2] - extremes[0] + 1,
+            extremes[3] - extremes[1] + 1);
+    }
+
+    /**
+     * Finds an unplaced stone that shares a pair of values with the neighbour and fits on the field in some rotation.
+     * @return The move, with the stone rotated, or null if no stone fits.
+     */
+    private static Move findMove(Board board, int x, int y, Orientation orientation, Stone neighbour, int maxValue,
+                                 Map<Integer, List<Stone>> byPair, Set<Stone> placed) {
+        int[] values = neighbour.getValues();
+        for (int pair : new int[]{pair(values[0], values[1], maxValue), pair(values[1], values[2], maxValue),
+                pair(values[0], values[2], maxValue)}) {
+            for (Stone stone : byPair.getOrDefault(pair, List.of())) {
+                if(placed.contains(stone)) {
+                    continue;
+                }
+                // Six rotations to the right bring the stone back in its original state.
+                for (int rotation = 0; rotation < 6; rotation++) {
+                    stone.rotateRight();
+                    if(stone.getOrientation() == orientation) {
+                        Move move = new Move(stone, x, y);
+                        if(board.isValidMove(move)) {
+                            return move;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void place(Board board, Move move, Set<Stone> placed, List<Long> frontier, Set<Long> seen) {
+        try {
+            board.placeStone(move);
+        } catch (PlacementException e) {
+            throw new IllegalStateException(e);
+        }
+        placed.add(move.getStone());
+        int x = move.getX();
+        int y = move.getY();
+        int vertical = move.getStone().getOrientation() == Orientation.TOP ? y - 1 : y + 1;
+        for (long field : new long[]{Placement.of(x - 1, y, 0, 0), Placement.of(x + 1, y, 0, 0),
+                Placement.of(x, vertical, 0, 0)}) {
+            if(seen.add(field)) {
+                frontier.add(field);
+            }
+        }
+    }
+
+    private static int pair(int a, int b, int maxValue) {
+        return Math.min(a, b) * (maxValue + 1) + Math.max(a, b);
+    }
+
+    /**
+     * Runs the benchmark for each set, after a warm-up. Each set is laid out a number of times with the same seed and
+     * the fastest run is reported.
+     * Usage: {@code BoardScalingBenchmark [seed] [runs]}
+     */
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        for (int i = 0; i < runs; i++) {
+            for (int maxValue : MAX_VALUES) {
+                run(maxValue, 1, seed + i + 1);
+            }
+        }
+        System.out.printf("%6s %6s %10s %9s %9s %8s %12s %14s%n", "stones", "placed", "ns/stone", "columns", "rows",
+            "chunks", "chunk bytes", "matrix bytes");
+        for (int maxValue : MAX_VALUES) {
+            Result result = run(maxValue, 1, seed);
+            for (int i = 1; i < runs; i++) {
+                Result next = run(maxValue, 1, seed);
+                if(next.nanos() < result.nanos()) {
+                    result = next;
+                }
+            }
+            System.out.printf("%6d %6d %10.0f %9d %9d %8d %12d %14d%n", result.stones(), result.placed(),
+                result.getNanosPerPlacement(), result.width(), result.height(), result.chunks(),
+                result.getChunkBytes(), result.getMatrixBytes());
+        }
+    }
+}
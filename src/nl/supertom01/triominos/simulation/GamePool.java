@@ -0,0 +1,60 @@
+package nl.supertom01.triominos.simulation;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * A thread-local pool of games that are reused for simulations.
+ * Creating a game allocates a board with its grid, all the stones and the players. A pooled game is reset
+ * in place instead, so a simulation thread that acquires and releases games reaches a steady state in which nothing
+ * is allocated between two games.
+ */
+public class GamePool {
+
+    /** Creates the players of a new game. */
+    private final Supplier<Player[]> players;
+
+    /** The games that are currently not in use, per thread. */
+    private final ThreadLocal<ArrayDeque<Game>> free;
+
+    /**
+     * Creates a new pool.
+     * @param players Creates a fresh set of players each time a new game has to be created.
+     */
+    public GamePool(Supplier<Player[]> players) {
+        this.players = players;
+        this.free = ThreadLocal.withInitial(ArrayDeque::new);
+    }
+
+    /**
+     * Get a game from the pool of the current thread, or create one if the pool is empty.
+     * @param seed The seed of the game.
+     * @return A game in its initial state.
+     */
+    public Game acquire(long seed) {
+        Game game = free.get().poll();
+        if(game == null) {
+            game = new Game(players.get());
+        }
+        game.reset(seed);
+        return game;
+    }
+
+    /**
+     * Gives a game back to the pool of the current thread.
+     * @param game The game, which should not be used by the caller anymore.
+     */
+    public void release(Game game) {
+        free.get().push(game);
+    }
+
+    /**
+     * Get the number of idle games in the pool of the current thread.
+     * @return The number of games.
+     */
+    public int size() {
+        return free.get().size();
+    }
+}
@@ -0,0 +1,58 @@
+package nl.supertom01.triominos.simulation;
+
+/**
+ * The outcome of a single simulated game, small enough to be sent as one line of text between processes.
+ * @param seed   The seed of the game.
+ * @param nanos  The time it took to play the game.
+ * @param points The final points of each seat.
+ */
+public record GameResult(long seed, long nanos, int[] points) {
+
+    /**
+     * Get the seat with the most points.
+     * @return The index of the winner, or -1 if the game ended in a tie.
+     */
+    public int getWinner() {
+        int winner = 0;
+        boolean tie = false;
+        for (int seat = 1; seat < points.length; seat++) {
+            if(points[seat] > points[winner]) {
+                winner = seat;
+                tie = false;
+            } else if(points[seat] == points[winner]) {
+                tie = true;
+            }
+        }
+        return tie ? -1 : winner;
+    }
+
+    /**
+     * Encodes this result as a single line: the seed, the time and the points, separated by spaces.
+     * @return The line, without a line separator.
+     */
+    public String toLine() {
+        StringBuilder builder = new StringBuilder().append(seed).append(' ').append(nanos);
+        for (int value : points) {
+            builder.append(' ').append(value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decodes a line that was created by {@link #toLine()}.
+     * @param line The line.
+     * @return The result.
+     * @throws IllegalArgumentException If the line is not a valid result.
+     */
+    public static GameResult parse(String line) {
+        String[] parts = line.trim().split(" ");
+        if(parts.length < 3) {
+            throw new IllegalArgumentException("Not a game result: " + line);
+        }
+        int[] points = new int[parts.length - 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = Integer.parseInt(parts[i + 2]);
+        }
+        return new GameResult(Long.parseLong(parts[0]), Long.parseLong(parts[1]), points);
+    }
+}
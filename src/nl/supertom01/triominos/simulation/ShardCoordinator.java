@@ -0,0 +1,182 @@
+package nl.supertom01.triominos.simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a simulation over several local worker processes, such that no single heap has to hold all the games.
+ * Each worker is a new JVM running {@link ShardWorker} on a range of seeds, which streams its results back over its
+ * standard output. The results of all the workers are merged into a single {@link SimulationReport}.
+ * When a worker crashes or writes a line that is not a valid result, the seeds it did not report yet are given to a
+ * new worker. A range is given up after {@link #MAX_ATTEMPTS} workers in a row that did not report any result.
+ */
+public class ShardCoordinator {
+
+    /** The number of workers in a row that may crash without reporting a result, for a single range of seeds. */
+    public static final int MAX_ATTEMPTS = 3;
+
+    private final int workers;
+    private final List<String> jvmOptions;
+    private final String[] bots;
+
+    /**
+     * Creates a coordinator.
+     * @param workers    The number of worker processes that run at the same time.
+     * @param jvmOptions The options of the worker JVMs, for instance the heap size.
+     * @param bots       The names of the bots in each seat, see {@link Simulator#createPlayer(String)}.
+     */
+    public ShardCoordinator(int workers, List<String> jvmOptions, String... bots) {
+        this.workers = workers;
+        this.jvmOptions = List.copyOf(jvmOptions);
+        this.bots = bots.clone();
+    }
+
+    /**
+     * Plays the games of a range of seeds on the workers.
+     * @param firstSeed The seed of the first game.
+     * @param games     The number of games.
+     * @return The merged report. It is missing the games of ranges of which every attempt crashed.
+     * @throws InterruptedException If the calling thread is interrupted, the workers are then destroyed.
+     */
+    public SimulationReport run(long firstSeed, long games) throws InterruptedException {
+        SimulationReport report = new SimulationReport(bots);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int shard = 0; shard < workers; shard++) {
+                long first = firstSeed + games * shard / workers;
+                long end = firstSeed + games * (shard + 1) / workers;
+                futures.add(executor.submit(() -> {
+                    runShard(first, end, report);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Plays a range of seeds, starting a new worker for the remaining seeds whenever one crashes. A worker that
+     * reported at least one result made progress, so only the workers in a row that did not count as attempts.
+     */
+    private void runShard(long first, long end, SimulationReport report) throws InterruptedException {
+        long next = first;
+        int attempt = 1;
+        while (next < end) {
+            if(attempt > MAX_ATTEMPTS) {
+                System.err.printf("[ERROR] [SIMULATION] \"Giving up on seeds %d to %d\"%n", next, end - 1);
+                return;
+            }
+            long reached = runWorker(next, end, report);
+            if(reached < end) {
+                System.err.printf("[WARNING] [SIMULATION] \"Worker stopped at seed %d of %d to %d\"%n",
+                    reached, first, end - 1);
+            }
+            attempt = reached > next ? 1 : attempt + 1;
+            next = reached;
+        }
+    }
+
+    /**
+     * Starts a single worker and adds its results to the report until it exits.
+     * @return The first seed of which no result has been received, also when the worker crashed.
+     */
+    private long runWorker(long first, long end, SimulationReport report) throws InterruptedException {
+        long next = first;
+        Process process = null;
+        try {
+            process = new ProcessBuilder(command(first, end - first))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII))) {
+                String line;
+                while ((line = in.readLine()) != null && !line.equals(ShardWorker.DONE)) {
+                    // A garbled line is handled like a crash, the seeds from the current one are given to a new
+                    // worker.
+                    GameResult result;
+                    try {
+                        result = GameResult.parse(line);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Garbled result of seed " + next + ": " + line, e);
+                    }
+                    if(result.seed() != next) {
+                        throw new IOException("Expected seed " + next + " but received " + result.seed());
+                    }
+                    if(result.points().length != bots.length) {
+                        throw new IOException("Expected " + bots.length + " scores of seed " + next + " but received "
+                            + result.points().length);
+                    }
+                    report.add(result);
+                    next++;
+                }
+                process.waitFor();
+            }
+        } catch (IOException e) {
+            System.err.printf("[ERROR] [SIMULATION] \"%s\"%n", e.getMessage());
+        } finally {
+            if(process != null) {
+                process.destroyForcibly();
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Builds the command line of a worker, which runs on the same Java installation and class path as this process.
+     */
+    private List<String> command(long first, long games) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        String modulePath = System.getProperty("jdk.module.path");
+        if(modulePath != null && !modulePath.isEmpty()) {
+            command.add("--module-path");
+            command.add(modulePath);
+            command.add("--add-modules");
+            command.add("ALL-MODULE-PATH");
+        }
+        command.add(ShardWorker.class.getName());
+        command.add(Long.toString(first));
+        command.add(Long.toString(games));
+        command.addAll(Arrays.asList(bots));
+        return command;
+    }
+
+    /**
+     * Usage: {@code ShardCoordinator <workers> <games> <first seed> <bot> <bot> [bot...]}
+     * The worker JVMs get the options of the system property {@code triominos.workerOptions}, separated by spaces.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 5) {
+            System.err.println("Usage: ShardCoordinator <workers> <games> <first seed> <bot> <bot> [bot...]");
+            System.exit(2);
+        }
+        String options = System.getProperty("triominos.workerOptions", "").trim();
+        ShardCoordinator coordinator = new ShardCoordinator(Integer.parseInt(args[0]),
+            options.isEmpty() ? List.of() : Arrays.asList(options.split(" +")),
+            Arrays.copyOfRange(args, 3, args.length));
+        System.out.print(coordinator.run(Long.parseLong(args[2]), Long.parseLong(args[1])));
+    }
+}
@@ -0,0 +1,43 @@
+package nl.supertom01.triominos.simulation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The process that is started by the {@link ShardCoordinator} for a range of seeds.
+ * The games are played in the order of their seeds and each result is written to the standard output as soon as it is
+ * known, one {@link GameResult#toLine() line} per game, followed by {@link #DONE} once the whole range has been
+ * played. The coordinator can therefore tell exactly which seeds are left when a worker dies halfway.
+ */
+public class ShardWorker {
+
+    /** The line that is written after the last result. */
+    public static final String DONE = "DONE";
+
+    /**
+     * Usage: {@code ShardWorker <first seed> <games> <bot> <bot> [bot...]}
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 4) {
+            System.err.println("Usage: ShardWorker <first seed> <games> <bot> <bot> [bot...]");
+            System.exit(2);
+        }
+        long firstSeed = Long.parseLong(args[0]);
+        long games = Long.parseLong(args[1]);
+        Simulator simulator = new Simulator(Arrays.copyOfRange(args, 2, args.length));
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+        for (long seed = firstSeed; seed < firstSeed + games; seed++) {
+            out.write(simulator.play(seed).toLine());
+            out.write('\n');
+            out.flush();
+        }
+        out.write(DONE);
+        out.write('\n');
+        out.flush();
+    }
+}
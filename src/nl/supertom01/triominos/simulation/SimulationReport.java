@@ -0,0 +1,126 @@
+package nl.supertom01.triominos.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Aggregates the results of simulated games: the win rate and the score distribution of each seat and the throughput.
+ * Reports of different threads or processes can be merged into one. All the methods are synchronized, such that
+ * results can be added from several threads.
+ */
+public class SimulationReport {
+
+    /** The width of a bucket of the score histogram. */
+    public static final int BUCKET = 50;
+    private static final int BUCKETS = 20;
+
+    private final String[] seats;
+    private long games;
+    private long ties;
+    private final long[] wins;
+    private final long[] scoreSum;
+    private final int[] minScore;
+    private final int[] maxScore;
+    /** Per seat, the number of games with a score in [i * BUCKET, (i + 1) * BUCKET), the last bucket is open ended. */
+    private final long[][] histogram;
+    private long gameNanos;
+    private long elapsedNanos;
+
+    /**
+     * Creates an empty report.
+     * @param seats The names of the seats, in the order of the points in the results.
+     */
+    public SimulationReport(String... seats) {
+        this.seats = seats.clone();
+        this.wins = new long[seats.length];
+        this.scoreSum = new long[seats.length];
+        this.minScore = new int[seats.length];
+        this.maxScore = new int[seats.length];
+        this.histogram = new long[seats.length][BUCKETS];
+        Arrays.fill(minScore, Integer.MAX_VALUE);
+        Arrays.fill(maxScore, Integer.MIN_VALUE);
+    }
+
+    public synchronized void add(GameResult result) {
+        games++;
+        gameNanos += result.nanos();
+        int winner = result.getWinner();
+        if(winner < 0) {
+            ties++;
+        } else {
+            wins[winner]++;
+        }
+        for (int seat = 0; seat < seats.length; seat++) {
+            int points = result.points()[seat];
+            scoreSum[seat] += points;
+            minScore[seat] = Math.min(minScore[seat], points);
+            maxScore[seat] = Math.max(maxScore[seat], points);
+            histogram[seat][Math.max(0, Math.min(BUCKETS - 1, points / BUCKET))]++;
+        }
+    }
+
+    /**
+     * Adds all the games of another report with the same seats to this one.
+     * @param other The other report.
+     */
+    public synchronized void merge(SimulationReport other) {
+        synchronized (other) {
+            games += other.games;
+            ties += other.ties;
+            gameNanos += other.gameNanos;
+            for (int seat = 0; seat < seats.length; seat++) {
+                wins[seat] += other.wins[seat];
+                scoreSum[seat] += other.scoreSum[seat];
+                minScore[seat] = Math.min(minScore[seat], other.minScore[seat]);
+                maxScore[seat] = Math.max(maxScore[seat], other.maxScore[seat]);
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    histogram[seat][bucket] += other.histogram[seat][bucket];
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the wall clock time of the simulation, from which the games per second are computed.
+     * @param elapsedNanos The time it took to play all the games.
+     */
+    public synchronized void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    public synchronized double getWinRate(int seat) {
+        return games == 0 ? 0 : (double) wins[seat] / games;
+    }
+
+    public synchronized double getMeanScore(int seat) {
+        return games == 0 ? 0 : (double) scoreSum[seat] / games;
+    }
+
+    public synchronized double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("games=%d ties=%d %.1f games/s (%.2f ms/game)%n", games, ties,
+            getGamesPerSecond(), games == 0 ? 0 : gameNanos / 1e6 / games));
+        for (int seat = 0; seat < seats.length; seat++) {
+            builder.append(String.format("  %d %-12s wins=%5.1f%% score mean=%.1f min=%d max=%d%n", seat, seats[seat],
+                getWinRate(seat) * 100, getMeanScore(seat), games == 0 ? 0 : minScore[seat],
+                games == 0 ? 0 : maxScore[seat]));
+            builder.append("    ");
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                if(histogram[seat][bucket] > 0) {
+                    builder.append(String.format("%d%s:%d ", bucket * BUCKET, bucket == BUCKETS - 1 ? "+" : "",
+                        histogram[seat][bucket]));
+                }
+            }
+            builder.append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,165 @@
+package nl.supertom01.triominos.simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import nl.supertom01.triominos.analysis.GameRecorder;
+import nl.supertom01.triominos.analysis.RecordedGame;
+import nl.supertom01.triominos.bots.BotProvider;
+import nl.supertom01.triominos.bots.BotRegistry;
+import nl.supertom01.triominos.bots.BudgetedPlayer;
+import nl.supertom01.triominos.bots.MoveBudget;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * Plays seeded games between bots without a user interface. The same seed and bots always deal the same stones, so a
+ * range of seeds can be split over threads or processes.
+ */
+public class Simulator {
+
+    /**
+     * The system property with a directory to which every game is written as a {@link RecordedGame}, named after its
+     * seed, for instance to be annotated by the {@link nl.supertom01.triominos.analysis.GameAnnotator}.
+     */
+    public static final String RECORD_PROPERTY = "triominos.recordGames";
+
+    private final String[] bots;
+    private final GamePool pool;
+
+    /**
+     * Creates a simulator.
+     * @param bots The names of the bots in each seat, see {@link #createPlayer(String)}.
+     */
+    public Simulator(String... bots) {
+        this.bots = bots.clone();
+        this.pool = new GamePool(() -> createPlayers(this.bots));
+    }
+
+    /**
+     * Creates a bot by its name. If a move budget has been set (see {@link MoveBudget#fromSystemProperties()}), the bot
+     * plays within that budget.
+     * @param bot The name of a bot from the {@link BotRegistry}, for instance "easy" or "hard". The hard player does
+     *            not ponder, the simulation threads use all the cores.
+     * @return The player.
+     * @throws IllegalArgumentException If there is no bot with that name.
+     */
+    public static Player createPlayer(String bot) {
+        BotProvider provider = BotRegistry.getProvider(bot);
+        MoveBudget budget = MoveBudget.fromSystemProperties();
+        return budget == null ? provider.create() : new BudgetedPlayer(provider, budget);
+    }
+
+    private static Player[] createPlayers(String[] bots) {
+        Player[] players = new Player[bots.length];
+        for (int i = 0; i < bots.length; i++) {
+            players[i] = createPlayer(bots[i]);
+        }
+        return players;
+    }
+
+    public String[] getBots() {
+        return bots.clone();
+    }
+
+    /**
+     * Plays a single game on the current thread.
+     * @param seed The seed of the game.
+     * @return The result.
+     */
+    public GameResult play(long seed) {
+        Game game = pool.acquire(seed);
+        String directory = System.getProperty(RECORD_PROPERTY);
+        GameRecorder recorder = directory == null || directory.isBlank() ? null : new GameRecorder();
+        try {
+            if(recorder != null) {
+                game.addListener(recorder);
+            }
+            long start = System.nanoTime();
+            game.play();
+            long nanos = System.nanoTime() - start;
+            if(recorder != null) {
+                recorder.getGame().write(Path.of(directory.trim(), seed + RecordedGame.EXTENSION));
+            }
+            Player[] players = game.getPlayers();
+            int[] points = new int[players.length];
+            for (int i = 0; i < players.length; i++) {
+                points[i] = players[i].getPoints();
+            }
+            return new GameResult(seed, nanos, points);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if(recorder != null) {
+                game.removeListener(recorder);
+            }
+            pool.release(game);
+        }
+    }
+
+    /**
+     * Plays the games of a range of seeds in order, on the current thread.
+     * @param firstSeed The seed of the first game.
+     * @param games     The number of games.
+     * @param results   Receives the result of each game, in the order of the seeds.
+     */
+    public void run(long firstSeed, long games, Consumer<GameResult> results) {
+        for (long seed = firstSeed; seed < firstSeed + games; seed++) {
+            results.accept(play(seed));
+        }
+    }
+
+    /**
+     * Plays the games of a range of seeds, split over several threads of this process.
+     * @param firstSeed The seed of the first game.
+     * @param games     The number of games.
+     * @param threads   The number of threads.
+     * @return The report of all the games.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the games.
+     */
+    public SimulationReport run(long firstSeed, long games, int threads) throws InterruptedException {
+        SimulationReport report = new SimulationReport(bots);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                long first = firstSeed + games * thread / threads;
+                long last = firstSeed + games * (thread + 1) / threads;
+                futures.add(executor.submit(() -> run(first, last - first, report::add)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Runs a simulation in this process.
+     * Usage: {@code Simulator <games> <first seed> <bot> <bot> [bot...]}
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 4) {
+            System.err.println("Usage: Simulator <games> <first seed> <bot> <bot> [bot...]");
+            System.exit(2);
+        }
+        String[] bots = Arrays.copyOfRange(args, 2, args.length);
+        Simulator simulator = new Simulator(bots);
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.print(simulator.run(Long.parseLong(args[1]), Long.parseLong(args[0]), threads));
+    }
+}
@@ -0,0 +1,42 @@
+package nl.supertom01.triominos.spectator;
+
+import nl.supertom01.triominos.model.Orientation;
+
+/**
+ * Something that happened in a game, as it is sent to the spectators. Events are immutable and carry the scores of
+ * all the seats, so a spectator that missed some events still knows the standings.
+ * @param sequence The number of the event within the feed, starting at 0. A gap means that events were dropped.
+ * @param type     What happened.
+ * @param round    The number of the round, starting at 1.
+ * @param seat     The index of the player the event is about, or -1 for events about the whole game.
+ * @param player   The name of that player, or null.
+ * @param stone    The stone that was placed, for a {@link Type#MOVE}, otherwise null.
+ * @param points   The points the player gained or lost with the move, draw or pass.
+ * @param scores   The points of every seat after the event.
+ */
+public record GameEvent(long sequence, Type type, int round, int seat, String player, PlacedStone stone, int points,
+                        int[] scores) {
+
+    public enum Type {
+        ROUND_STARTED,
+        MOVE,
+        DRAW,
+        PASS,
+        ROUND_FINISHED,
+        GAME_FINISHED
+    }
+
+    /**
+     * A stone on the board.
+     * @param x           The x-coordinate.
+     * @param y           The y-coordinate.
+     * @param values      The values of the stone in its placed rotation.
+     * @param orientation The orientation of the stone.
+     */
+    public record PlacedStone(int x, int y, int[] values, Orientation orientation) {
+    }
+
+    public int[] scores() {
+        return scores.clone();
+    }
+}
@@ -0,0 +1,307 @@
+package nl.supertom01.triominos.spectator;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Player;
+
+/**
+ * Streams the events of a game to any number of spectators, as a {@link Flow.Publisher}.
+ * Register the feed as a listener of the game, the events are then published on the game thread.
+ *
+ * Every subscriber gets its own bounded buffer and receives its events on the executor of the feed, at the pace it
+ * requests them. Publishing never waits for a subscriber: when the buffer of a slow subscriber is full, its
+ * {@link Overflow} policy decides which event is lost. Dropped events show up as gaps in the sequence numbers.
+ */
+public class SpectatorFeed implements GameListener, Flow.Publisher<GameEvent>, AutoCloseable {
+
+    /** What to do with a new event when the buffer of a subscriber is full. */
+    public enum Overflow {
+        /** Drop the oldest buffered event, so the subscriber falls behind by at most the size of its buffer. */
+        DROP_OLDEST,
+        /** Drop the new event, so the subscriber sees an uninterrupted start of the game. */
+        DROP_NEWEST,
+        /** Keep only the newest event, for subscribers that only show the current standings. */
+        LATEST
+    }
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final Executor executor;
+    private final List<Spectator> spectators;
+
+    // Only used by the game thread.
+    private long sequence;
+    private int round;
+    private boolean drawn;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a feed that delivers the events on the common fork join pool.
+     */
+    public SpectatorFeed() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a feed.
+     * @param executor Delivers the events to the subscribers, it should not run them on the calling thread.
+     */
+    public SpectatorFeed(Executor executor) {
+        this.executor = executor;
+        this.spectators = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Subscribes with a buffer of {@link #DEFAULT_BUFFER_SIZE} events that drops the oldest event when it is full.
+     * @param subscriber The subscriber.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_SIZE, Overflow.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribes to the events that are published from now on.
+     * @param subscriber The subscriber.
+     * @param bufferSize The maximum number of events that are kept for the subscriber, ignored for
+     *                   {@link Overflow#LATEST}.
+     * @param overflow   What to do with a new event when the buffer is full.
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, int bufferSize, Overflow overflow) {
+        if(bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer should hold at least one event.");
+        }
+        Spectator spectator = new Spectator(subscriber, overflow == Overflow.LATEST ? 1 : bufferSize, overflow);
+        spectators.add(spectator);
+        if(closed) {
+            spectator.completed = true;
+        }
+        spectator.schedule();
+    }
+
+    public int getSubscriberCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Get the number of events that have been dropped for all the current subscribers together.
+     * @return The number of events.
+     */
+    public long getDropped() {
+        long dropped = 0;
+        for (Spectator spectator : spectators) {
+            dropped += spectator.dropped.get();
+        }
+        return dropped;
+    }
+
+    @Override
+    public void roundStarted(Game game) {
+        round++;
+        publish(game, GameEvent.Type.ROUND_STARTED, null, null, 0);
+    }
+
+    @Override
+    public void stoneDrawn(Game game, Player player) {
+        drawn = true;
+    }
+
+    @Override
+    public void movePlayed(Game game, Player player, Move move, int points) {
+        if(move != null) {
+            GameEvent.PlacedStone stone = new GameEvent.PlacedStone(move.getX(), move.getY(),
+                move.getStone().getValues().clone(), move.getStone().getOrientation());
+            publish(game, GameEvent.Type.MOVE, player, stone, points);
+        } else {
+            publish(game, drawn ? GameEvent.Type.DRAW : GameEvent.Type.PASS, player, null, points);
+        }
+        drawn = false;
+    }
+
+    @Override
+    public void roundFinished(Game game) {
+        publish(game, GameEvent.Type.ROUND_FINISHED, null, null, 0);
+    }
+
+    @Override
+    public void gameFinished(Game game) {
+        publish(game, GameEvent.Type.GAME_FINISHED, null, null, 0);
+        round = 0;
+    }
+
+    private void publish(Game game, GameEvent.Type type, Player player, GameEvent.PlacedStone stone, int points) {
+        long number = sequence++;
+        if(spectators.isEmpty()) {
+            return;
+        }
+        Player[] players = game.getPlayers();
+        int[] scores = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            scores[i] = players[i].getPoints();
+        }
+        GameEvent event = new GameEvent(number, type, round, player != null ? game.getPlayerIndex(player) : -1,
+            player != null ? player.getUsername() : null, stone, points, scores);
+        for (Spectator spectator : spectators) {
+            spectator.offer(event);
+        }
+    }
+
+    /**
+     * Completes all the subscriptions once their buffered events have been delivered. Events that are published
+     * afterwards are not delivered anymore.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Spectator spectator : spectators) {
+            spectator.complete();
+        }
+    }
+
+    /**
+     * The subscription of a single subscriber, with its buffer.
+     * The game thread only holds the lock of the buffer to add an event; the events are handed to the subscriber by a
+     * single drain task at a time on the executor, outside of the lock.
+     */
+    private final class Spectator implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final Overflow overflow;
+
+        /** A ring buffer of the events that have not been delivered yet. */
+        private final GameEvent[] buffer;
+        private int head;
+        private int size;
+
+        private final AtomicLong demand = new AtomicLong();
+        /** The number of times the drain task has been asked to run, it only runs while this is not 0. */
+        private final AtomicInteger work = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        // Only used by the drain task.
+        private boolean subscribed;
+        private boolean terminated;
+
+        private Spectator(Flow.Subscriber<? super GameEvent> subscriber, int bufferSize, Overflow overflow) {
+            this.subscriber = subscriber;
+            this.overflow = overflow;
+            this.buffer = new GameEvent[bufferSize];
+        }
+
+        private void offer(GameEvent event) {
+            if(cancelled || completed || error != null) {
+                return;
+            }
+            synchronized (this) {
+                if(size == buffer.length) {
+                    dropped.incrementAndGet();
+                    if(overflow == Overflow.DROP_NEWEST) {
+                        return;
+                    }
+                    // Drop the oldest event to make room.
+                    buffer[head] = null;
+                    head = (head + 1) % buffer.length;
+                    size--;
+                }
+                buffer[(head + size) % buffer.length] = event;
+                size++;
+            }
+            // Without demand there is nothing to deliver, request() starts the drain task.
+            if(demand.get() > 0) {
+                schedule();
+            }
+        }
+
+        private synchronized GameEvent poll() {
+            if(size == 0) {
+                return null;
+            }
+            GameEvent event = buffer[head];
+            buffer[head] = null;
+            head = (head + 1) % buffer.length;
+            size--;
+            return event;
+        }
+
+        private synchronized boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void complete() {
+            completed = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if(n <= 0) {
+                spectators.remove(this);
+                error = new IllegalArgumentException("A subscriber should request a positive number of events.");
+                schedule();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            spectators.remove(this);
+        }
+
+        private void schedule() {
+            if(work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Signals the subscriber: first the subscription, then as many events as have been requested and finally the
+         * completion or an error. Runs on the executor, never on two threads at once.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                if(!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                while (!terminated && !cancelled && error == null && demand.get() > 0) {
+                    GameEvent event = poll();
+                    if(event == null) {
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        spectators.remove(this);
+                        error = e;
+                    }
+                }
+                if(!terminated && !cancelled && error != null) {
+                    terminated = true;
+                    subscriber.onError(error);
+                } else if(!terminated && !cancelled && completed && isEmpty()) {
+                    terminated = true;
+                    spectators.remove(this);
+                    subscriber.onComplete();
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
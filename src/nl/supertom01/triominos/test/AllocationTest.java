@@ -0,0 +1,201 @@
+package nl.supertom01.triominos.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.function.IntFunction;
+import nl.supertom01.triominos.ai.LegalMoveCache;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.StoneVariants;
+import nl.supertom01.triominos.simulation.GamePool;
+import nl.supertom01.triominos.util.LongList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Keeps the hot paths of the engine free of allocations and the model small. The bytes allocated per call are
+ * measured with the allocation counter of the thread, after the code has been compiled, and the retained size of an
+ * object is measured as the growth of the heap after a collection while a number of them are kept alive.
+ */
+public class AllocationTest {
+
+    // The budgets, in bytes. The allocation budgets allow for a stray allocation by the JIT, not for one per call.
+    private static final double GENERATION_BUDGET = 1;
+    private static final double VALIDATION_BUDGET = 1;
+    private static final double SCORING_BUDGET = 1;
+    private static final double CACHE_BUDGET = 1;
+    private static final double POOL_BUDGET = 1;
+    private static final double BOARD_BUDGET = 16 * 1024;
+    private static final double PLAYER_BUDGET = 4 * 1024;
+    private static final double GAME_BUDGET = 48 * 1024;
+
+    private static final int WARMUP = 200_000;
+    private static final int CALLS = 100_000;
+    private static final int INSTANCES = 1_000;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static long sink;
+
+    @BeforeAll
+    public static void setUp() {
+        if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            threads = bean;
+        }
+    }
+
+    /**
+     * Get the bytes allocated by the current thread per call of an operation, after it has been warmed up.
+     */
+    private static double allocatedPerCall(Runnable operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < CALLS; i++) {
+            operation.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / (double) CALLS;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if(now == used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    /**
+     * Get the heap that is retained per object, by keeping a number of them alive over a collection.
+     */
+    private static double retainedPerObject(IntFunction<Object> factory) {
+        // The first round loads and initialises the classes, which should not be counted.
+        Object[] objects = new Object[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            objects[i] = factory.apply(i);
+        }
+        objects = new Object[INSTANCES];
+        long before = usedHeap();
+        for (int i = 0; i < INSTANCES; i++) {
+            objects[i] = factory.apply(i);
+        }
+        long after = usedHeap();
+        Assertions.assertNotNull(objects[INSTANCES - 1]);
+        return (after - before) / (double) INSTANCES;
+    }
+
+    private static void assertWithin(double budget, double measured, String what) {
+        Assertions.assertTrue(measured <= budget,
+            String.format("%s uses %.1f bytes, the budget is %.0f bytes", what, measured, budget));
+    }
+
+    /**
+     * Get a board in the middle of a game, with the stones that have not been placed as the hand.
+     */
+    private static Board position() throws PlacementException {
+        Board board = new Board(7);
+        LongList placements = new LongList();
+        for (int i = 0; i < 12; i++) {
+            placements.clear();
+            if(board.generatePlacements(Stone.ALL & ~board.getBoardMask(), placements) == 0) {
+                break;
+            }
+            long placement = placements.get(placements.size() / 2);
+            board.placeStone(Placement.toMove(placement, board));
+        }
+        return board;
+    }
+
+    private static Move[] moves(Board board, long hand) {
+        LongList placements = new LongList();
+        board.generatePlacements(hand, placements);
+        Move[] moves = new Move[placements.size()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = Placement.toMove(placements.get(i), board);
+        }
+        return moves;
+    }
+
+    @Test
+    public void testHotPathAllocations() throws PlacementException {
+        Assumptions.assumeTrue(threads != null, "The allocation counter of the thread is not supported");
+        Board board = position();
+        long hand = Stone.ALL & ~board.getBoardMask();
+        LongList placements = new LongList();
+        long[] fits = new long[StoneVariants.ROTATIONS];
+        Move[] moves = moves(board, hand);
+        Assertions.assertTrue(moves.length > 0);
+        int x = moves[0].getX();
+        int y = moves[0].getY();
+        Orientation orientation = moves[0].getStone().getOrientation();
+        int[] next = {0};
+
+        assertWithin(GENERATION_BUDGET, allocatedPerCall(() -> {
+            placements.clear();
+            sink += board.generatePlacements(hand, placements);
+        }), "Board.generatePlacements");
+        assertWithin(GENERATION_BUDGET, allocatedPerCall(() -> sink += board.getPlayableStones(hand)),
+            "Board.getPlayableStones");
+        assertWithin(GENERATION_BUDGET, allocatedPerCall(() -> sink += board.fitStones(x, y, orientation, hand, fits)),
+            "Board.fitStones");
+        assertWithin(VALIDATION_BUDGET, allocatedPerCall(() -> {
+            if(board.isValidMove(moves[next[0]++ % moves.length])) {
+                sink++;
+            }
+        }), "Board.isValidMove");
+        assertWithin(SCORING_BUDGET, allocatedPerCall(
+            () -> sink += board.determinePoints(moves[next[0]++ % moves.length], 5)), "Board.determinePoints");
+
+        LegalMoveCache cache = new LegalMoveCache();
+        cache.update(board, hand);
+        assertWithin(CACHE_BUDGET, allocatedPerCall(() -> {
+            cache.update(board, hand);
+            placements.clear();
+            sink += cache.generatePlacements(placements);
+        }), "LegalMoveCache.generatePlacements");
+    }
+
+    @Test
+    public void testPoolAllocations() {
+        Assumptions.assumeTrue(threads != null, "The allocation counter of the thread is not supported");
+        GamePool pool = new GamePool(() -> new Player[]{new EasyPlayer(), new EasyPlayer()});
+        // A played game has allocated the chunks of its grid and the buffers of its players, which are kept.
+        Game[] game = {pool.acquire(0)};
+        game[0].play();
+        long[] seed = {1};
+        assertWithin(POOL_BUDGET, allocatedPerCall(() -> {
+            pool.release(game[0]);
+            game[0] = pool.acquire(seed[0]++);
+        }), "GamePool.acquire");
+        Assertions.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testFootprint() {
+        assertWithin(BOARD_BUDGET, retainedPerObject(Board::new), "A board");
+        assertWithin(PLAYER_BUDGET, retainedPerObject(seed -> new EasyPlayer()), "A player");
+        assertWithin(GAME_BUDGET, retainedPerObject(seed -> {
+            Game game = new Game(new Player[]{new EasyPlayer(), new EasyPlayer()});
+            game.reset(seed);
+            game.play();
+            return game;
+        }), "A finished game");
+    }
+}
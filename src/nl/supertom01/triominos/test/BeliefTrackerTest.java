@@ -0,0 +1,220 @@
+package nl.supertom01.triominos.test;
+
+import java.util.Random;
+import nl.supertom01.triominos.ai.BeliefTracker;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BeliefTrackerTest {
+
+    private static final double DELTA = 1e-6;
+
+    /**
+     * Checks that every unseen stone is somewhere, that every hand and the stack hold as many stones as they should,
+     * and that the seen stones are nowhere.
+     */
+    private static void assertConsistent(BeliefTracker tracker, Game game, Player owner) {
+        Board board = game.getBoard();
+        Assertions.assertEquals(board.getUnseenMask(owner), tracker.getUnseenMask());
+        for (int id = 0; id < Board.NR_STONES; id++) {
+            double sum = tracker.getStackProbability(id);
+            for (Player opponent : tracker.getOpponents()) {
+                sum += tracker.getProbability(opponent, id);
+            }
+            Assertions.assertEquals((tracker.getUnseenMask() & 1L << id) != 0 ? 1 : 0, sum, DELTA);
+        }
+        double stack = 0;
+        for (int id = 0; id < Board.NR_STONES; id++) {
+            stack += tracker.getStackProbability(id);
+        }
+        Assertions.assertEquals(board.getStackSize(), stack, 0.05);
+        for (Player opponent : tracker.getOpponents()) {
+            double hand = 0;
+            for (int id = 0; id < Board.NR_STONES; id++) {
+                hand += tracker.getProbability(opponent, id);
+            }
+            Assertions.assertEquals(opponent.getStoneCount(), hand, 0.05);
+        }
+    }
+
+    /**
+     * Places a stone of a player on the board, as the game would.
+     */
+    private static void place(BeliefTracker tracker, Game game, Player player, Stone stone) throws PlacementException {
+        tracker.turnStarted(game, player);
+        Move move = new Move(stone, Board.NR_STONES, Board.NR_STONES);
+        int points = game.getBoard().determinePoints(move, player);
+        game.getBoard().placeStone(move);
+        player.removeStone(stone);
+        tracker.movePlayed(game, player, move, points);
+    }
+
+    /**
+     * Lets a player take a stone from the stack, as the game would.
+     */
+    private static void draw(BeliefTracker tracker, Game game, Player player) {
+        tracker.turnStarted(game, player);
+        player.addStone(game.getBoard().getFromStack());
+        tracker.stoneDrawn(game, player);
+        tracker.movePlayed(game, player, null, -5);
+    }
+
+    /**
+     * Lets a player pass, as the game would.
+     */
+    private static void pass(BeliefTracker tracker, Game game, Player player) {
+        tracker.turnStarted(game, player);
+        tracker.movePlayed(game, player, null, -5);
+    }
+
+    private static double average(BeliefTracker tracker, Player opponent, long stones) {
+        double sum = 0;
+        for (long mask = stones; mask != 0; mask &= mask - 1) {
+            sum += tracker.getProbability(opponent, Long.numberOfTrailingZeros(mask));
+        }
+        return sum / Long.bitCount(stones);
+    }
+
+    @Test
+    public void testUnseenStones() throws PlacementException {
+        Player owner = new EasyPlayer();
+        Player opponent = new EasyPlayer();
+        Game game = new Game(new Player[]{owner, opponent}, 3);
+        game.initialize();
+        BeliefTracker tracker = new BeliefTracker(owner);
+        tracker.roundStarted(game);
+
+        // At the start, the opponent holds each of the stones the owner cannot see with the same probability.
+        long unseen = Stone.ALL & ~owner.getHandMask();
+        Assertions.assertEquals(unseen, tracker.getUnseenMask());
+        Assertions.assertArrayEquals(new Player[]{opponent}, tracker.getOpponents());
+        double uniform = (double) Game.STOCK_SIZE / Long.bitCount(unseen);
+        for (long mask = unseen; mask != 0; mask &= mask - 1) {
+            Assertions.assertEquals(uniform, tracker.getProbability(opponent, Long.numberOfTrailingZeros(mask)), DELTA);
+        }
+        Assertions.assertEquals(0, tracker.getProbability(owner, Long.numberOfTrailingZeros(unseen)));
+        assertConsistent(tracker, game, owner);
+
+        // The stones of the opponent become known once they are placed.
+        Stone theirs = opponent.getStones().get(0);
+        place(tracker, game, opponent, theirs);
+        Assertions.assertEquals(unseen & ~theirs.getMask(), tracker.getUnseenMask());
+        Assertions.assertEquals(0, tracker.getProbability(opponent, theirs.getId()));
+        Assertions.assertEquals(0, tracker.getStackProbability(theirs.getId()));
+        assertConsistent(tracker, game, owner);
+
+        // A stone that the owner draws is no longer unseen either.
+        draw(tracker, game, owner);
+        Assertions.assertEquals(Stone.ALL & ~owner.getHandMask() & ~game.getBoard().getBoardMask(),
+            tracker.getUnseenMask());
+        assertConsistent(tracker, game, owner);
+
+        // A sampled deal gives every opponent as many unseen stones as it holds.
+        long[] hands = tracker.sampleHands(new Random(1));
+        Assertions.assertEquals(1, hands.length);
+        Assertions.assertEquals(opponent.getStoneCount(), Long.bitCount(hands[0]));
+        Assertions.assertEquals(0, hands[0] & ~tracker.getUnseenMask());
+    }
+
+    @Test
+    public void testDrawInference() throws PlacementException {
+        Player owner = new EasyPlayer();
+        Player opponent = new EasyPlayer();
+        Game game = new Game(new Player[]{owner, opponent}, 5);
+        game.initialize();
+        BeliefTracker tracker = new BeliefTracker(owner);
+        tracker.roundStarted(game);
+        place(tracker, game, owner, owner.getStones().get(0));
+
+        long fitting = game.getBoard().getPlayableStones(tracker.getUnseenMask());
+        long other = tracker.getUnseenMask() & ~fitting;
+        Assertions.assertNotEquals(0, fitting);
+        Assertions.assertNotEquals(0, other);
+        double before = average(tracker, opponent, fitting);
+        Assertions.assertEquals(before, average(tracker, opponent, other), DELTA);
+
+        // The opponent did not place a stone, so it is unlikely to hold one that fits, apart from the one it drew.
+        draw(tracker, game, opponent);
+        assertConsistent(tracker, game, owner);
+        Assertions.assertTrue(average(tracker, opponent, fitting) < before / 3, "fitting " + average(tracker,
+            opponent, fitting) + " before " + before);
+        Assertions.assertTrue(average(tracker, opponent, other) > before);
+
+        // The stones that fit are most likely on the stack, and rarely dealt to the opponent.
+        for (long mask = fitting; mask != 0; mask &= mask - 1) {
+            int id = Long.numberOfTrailingZeros(mask);
+            Assertions.assertTrue(tracker.getStackProbability(id) > 3 * tracker.getProbability(opponent, id));
+        }
+        Random random = new Random(2);
+        int dealt = 0;
+        for (int i = 0; i < 100; i++) {
+            dealt += Long.bitCount(tracker.sampleHands(random)[0] & fitting);
+        }
+        Assertions.assertTrue(dealt < 100 * Long.bitCount(fitting) * before, "dealt " + dealt);
+    }
+
+    @Test
+    public void testPassInference() throws PlacementException {
+        Player owner = new EasyPlayer();
+        Player first = new EasyPlayer();
+        Player second = new EasyPlayer();
+        Game game = new Game(new Player[]{owner, first, second}, 9);
+        game.initialize();
+        BeliefTracker tracker = new BeliefTracker(owner);
+        place(tracker, game, owner, owner.getStones().get(0));
+
+        // Empty the stack into the hand of the owner, after which the stones of the opponents are all unseen stones.
+        for (Stone stone = game.getBoard().getFromStack(); stone != null; stone = game.getBoard().getFromStack()) {
+            owner.addStone(stone);
+        }
+        tracker.roundStarted(game);
+        assertConsistent(tracker, game, owner);
+        long fitting = game.getBoard().getPlayableStones(tracker.getUnseenMask());
+        Assertions.assertNotEquals(0, fitting);
+        Assertions.assertEquals(average(tracker, first, fitting), average(tracker, second, fitting), DELTA);
+
+        // The first opponent could not place a stone, so the stones that fit are in the hand of the second.
+        pass(tracker, game, first);
+        assertConsistent(tracker, game, owner);
+        long possible = tracker.getPossibleMask(second);
+        Assertions.assertEquals(fitting, fitting & possible);
+        Assertions.assertTrue(average(tracker, first, fitting) < 0.1);
+        Assertions.assertTrue(average(tracker, second, fitting) > 0.9);
+        Assertions.assertEquals(0, tracker.getStackProbability(Long.numberOfTrailingZeros(fitting)), DELTA);
+    }
+
+    @Test
+    public void testExpectedReply() throws PlacementException {
+        Player owner = new EasyPlayer();
+        Player opponent = new EasyPlayer();
+        Game game = new Game(new Player[]{owner, opponent}, 3);
+        game.initialize();
+        BeliefTracker tracker = new BeliefTracker(owner);
+        tracker.roundStarted(game);
+        Board board = game.getBoard();
+        place(tracker, game, owner, owner.getStones().get(0));
+
+        // The reply is at most the best placement of any unseen stone, and drawing costs at least that much.
+        double expected = tracker.getExpectedReply(board, opponent);
+        Assertions.assertTrue(expected > -5 && expected < 100, "expected " + expected);
+        Assertions.assertEquals(0, tracker.getExpectedReply(board, owner));
+
+        // Once the opponent drew, the stones that fit are unlikely, and so is a good reply.
+        draw(tracker, game, opponent);
+        Assertions.assertTrue(tracker.getExpectedReply(board, opponent) < expected);
+
+        // A tracker of a player that is not seated in the game does not track anyone.
+        BeliefTracker outsider = new BeliefTracker(new HardPlayer(0));
+        outsider.roundStarted(game);
+        Assertions.assertEquals(0, outsider.getOpponents().length);
+        Assertions.assertEquals(0, outsider.getExpectedReply(board, opponent));
+    }
+}
@@ -0,0 +1,112 @@
+package nl.supertom01.triominos.test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.styles.Style;
+import nl.supertom01.triominos.view.BoardRenderer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class BoardRendererTest {
+
+    private static final int WHITE = 0xFFFFFF;
+    private static final int BLUE = 0x0000FF;
+
+    @BeforeAll
+    public static void setHeadless() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    private static int rgb(BufferedImage image, double x, double y) {
+        return image.getRGB((int) x, (int) y) & 0xFFFFFF;
+    }
+
+    /**
+     * Checks that the stone of a cell is filled in the middle, between its numbers.
+     */
+    private static void assertStone(BufferedImage image, Board board, int x, int y, double scale) {
+        double left = (x - board.getOriginX()) * Style.CENTER * scale;
+        double top = (y - board.getOriginY()) * Style.HEIGHT * scale;
+        double height = Style.HEIGHT * scale;
+        double center = left + Style.CENTER * scale;
+        String cell = x + "," + y;
+        if(board.getStoneAt(x, y).getOrientation() == Orientation.TOP) {
+            Assertions.assertEquals(WHITE, rgb(image, center, top + height / 3), cell);
+            Assertions.assertEquals(WHITE, rgb(image, center, top + height / 2), cell);
+        } else {
+            Assertions.assertEquals(WHITE, rgb(image, center, top + height * 2 / 3), cell);
+            Assertions.assertEquals(WHITE, rgb(image, center, top + height / 2), cell);
+        }
+    }
+
+    private static Board board() throws PlacementException {
+        Board board = new Board(0);
+        Stone first = board.getStone(Stone.idOf(1, 2, 3));
+        Stone second = board.getStone(Stone.idOf(2, 3, 4));
+        board.placeStone(Placement.toMove(Placement.of(Board.NR_STONES, Board.NR_STONES, first.getId(), 0), first));
+        board.placeStone(Placement.toMove(Placement.of(Board.NR_STONES + 1, Board.NR_STONES, second.getId(), 1),
+            second));
+        return board;
+    }
+
+    @Test
+    public void testRender() throws PlacementException {
+        Board board = board();
+        Assertions.assertNotEquals(board.getStoneAt(Board.NR_STONES, Board.NR_STONES).getOrientation(),
+            board.getStoneAt(Board.NR_STONES + 1, Board.NR_STONES).getOrientation());
+
+        // Two stones next to each other overlap by half a stone.
+        BufferedImage image = new BoardRenderer(1).render(board);
+        Assertions.assertEquals(Style.CENTER + Style.WIDTH, image.getWidth());
+        Assertions.assertEquals(Style.HEIGHT, image.getHeight());
+        assertStone(image, board, Board.NR_STONES, Board.NR_STONES, 1);
+        assertStone(image, board, Board.NR_STONES + 1, Board.NR_STONES, 1);
+
+        // The corners of the image that are not a corner of a stone show the background: the bottom left one below a
+        // stone that points down, or else the top left one, and the opposite one on the right.
+        boolean firstTop = board.getStoneAt(Board.NR_STONES, Board.NR_STONES).getOrientation() == Orientation.TOP;
+        int corner = firstTop ? Style.HEIGHT - 2 : 1;
+        Assertions.assertEquals(BLUE, rgb(image, 1, corner));
+        Assertions.assertEquals(BLUE, rgb(image, image.getWidth() - 2, Style.HEIGHT - 1 - corner));
+
+        BufferedImage thumbnail = new BoardRenderer(0.25).render(board);
+        Assertions.assertEquals((int) Math.ceil((Style.CENTER + Style.WIDTH) * 0.25), thumbnail.getWidth());
+        Assertions.assertEquals((int) Math.ceil(Style.HEIGHT * 0.25), thumbnail.getHeight());
+        assertStone(thumbnail, board, Board.NR_STONES, Board.NR_STONES, 0.25);
+        assertStone(thumbnail, board, Board.NR_STONES + 1, Board.NR_STONES, 0.25);
+    }
+
+    @Test
+    public void testEmptyBoard() {
+        BufferedImage image = new BoardRenderer(1).render(new Board(0));
+        Assertions.assertEquals(Style.WIDTH, image.getWidth());
+        Assertions.assertEquals(Style.HEIGHT, image.getHeight());
+        Assertions.assertEquals(BLUE, rgb(image, Style.CENTER, Style.HEIGHT / 2.0));
+    }
+
+    @Test
+    public void testWritePng() throws IOException, PlacementException {
+        Board board = board();
+        BoardRenderer renderer = new BoardRenderer(0.5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.writePng(board, out);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        BufferedImage expected = renderer.render(board);
+        Assertions.assertEquals(expected.getWidth(), image.getWidth());
+        Assertions.assertEquals(expected.getHeight(), image.getHeight());
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                Assertions.assertEquals(expected.getRGB(x, y) & 0xFFFFFF, image.getRGB(x, y) & 0xFFFFFF);
+            }
+        }
+    }
+}
@@ -4,13 +4,24 @@ import nl.supertom01.triominos.controller.HumanPlayer;
 import nl.supertom01.triominos.model.Board;
 import nl.supertom01.triominos.exceptions.PlacementException;
 import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
 import nl.supertom01.triominos.model.Player;
 import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.StoneSet;
+import nl.supertom01.triominos.model.StoneVariants;
+import nl.supertom01.triominos.model.Zobrist;
+import nl.supertom01.triominos.simulation.BoardScalingBenchmark;
+import nl.supertom01.triominos.util.LongList;
+import nl.supertom01.triominos.util.Tuple;
 import org.junit.Assert;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public class BoardTest {
 
     private Board board;
@@ -90,4 +101,121 @@ public class BoardTest {
         board.placeStone(m0);
     }
 
+    @Test
+    public void testFitStones() throws PlacementException {
+        Stone s1 = new Stone(1, 2, 3);
+        Stone s2 = new Stone(1, 2, 1);
+        s2.rotateRight();
+        Stone s3 = new Stone(1, 1, 1);
+        board.placeStone(new Move(s1, 56, 56));
+        board.placeStone(new Move(s2, 57, 56));
+        board.placeStone(new Move(s3, 57, 55));
+
+        // The batch check should agree with isValidMove for every stone and rotation on every open field.
+        long[] fits = new long[StoneVariants.ROTATIONS];
+        int expectedPlacements = 0;
+        for (Tuple<Tuple<Integer, Integer>, Orientation> field : new HashSet<>(board.getOpenFields())) {
+            int x = field.getLeft().getLeft();
+            int y = field.getLeft().getRight();
+            long fitting = board.fitStones(x, y, field.getRight(), Stone.ALL, fits);
+            for (Stone stone : Stone.shuffle()) {
+                boolean valid = false;
+                for (int rotation = 0; rotation < 6; rotation++) {
+                    if(stone.getOrientation() == field.getRight()) {
+                        valid = valid || board.isValidMove(new Move(stone, x, y));
+                    }
+                    stone.rotateRight();
+                }
+                Assertions.assertEquals(valid, (fitting & stone.getMask()) != 0);
+            }
+            expectedPlacements += Long.bitCount(fits[0]) + Long.bitCount(fits[1]) + Long.bitCount(fits[2]);
+        }
+
+        // Each open field is visited and counted once.
+        Assertions.assertEquals(new HashSet<>(board.getOpenFields()).size(), board.getOpenFieldCount());
+        LongList placements = new LongList();
+        Assertions.assertEquals(expectedPlacements, board.generatePlacements(Stone.ALL, placements));
+        Assertions.assertEquals(expectedPlacements, placements.size());
+    }
+
+    @Test
+    public void testUnboundedCoordinates() throws PlacementException {
+        int expected = -1;
+        for (int[] origin : new int[][]{{0, 0}, {-1, -1}, {-100000, 3000000}}) {
+            Board board = new Board(1);
+            int x = origin[0];
+            int y = origin[1];
+            Stone s1 = new Stone(1, 2, 3);
+            Stone s2 = new Stone(1, 2, 1);
+            s2.rotateRight();
+            board.placeStone(new Move(s1, x, y));
+            Assertions.assertTrue(board.isValidMove(new Move(s2, x + 1, y)));
+            board.placeStone(new Move(s2, x + 1, y));
+            Assertions.assertEquals(Orientation.DOWN, board.getOpenFieldOrientation(x + 2, y));
+            Assertions.assertEquals(Orientation.TOP, board.getOpenFieldOrientation(x, y + 1));
+            Assertions.assertEquals(x, board.getOriginX());
+            Assertions.assertEquals(y, board.getOriginY());
+
+            // The same shape gives the same placements, wherever it lies.
+            int count = board.generatePlacements(Stone.ALL & ~board.getBoardMask(), new LongList());
+            Assertions.assertTrue(count > 0);
+            if(expected < 0) {
+                expected = count;
+            }
+            Assertions.assertEquals(expected, count);
+            Assertions.assertEquals(count, new Board(board).generatePlacements(Stone.ALL & ~board.getBoardMask(),
+                new LongList()));
+
+            board.reset(1);
+            Assertions.assertNull(board.getStoneAt(x, y));
+            Assertions.assertTrue(board.getChunkCount() > 0);
+        }
+    }
+
+    @Test
+    public void testLargerStoneSets() throws PlacementException {
+        // Stones with values above the highest value of the game have keys of their own.
+        List<Stone> stones = StoneSet.generate(7, 1);
+        Set<Long> keys = new HashSet<>();
+        for (Stone stone : stones) {
+            Assertions.assertTrue(keys.add(Zobrist.cell(3, 4, stone)));
+            // Only the keys of the stones of the game repeat every SIZE columns, the values are in ascending order.
+            boolean standard = stone.getValues()[2] <= Stone.MAX_VALUE;
+            Assertions.assertEquals(!standard, keys.add(Zobrist.cell(3 + Zobrist.SIZE, 4, stone)));
+        }
+        Assertions.assertNotEquals(Zobrist.cell(3, 4, new Stone(1, 0, 0)), Zobrist.cell(3, 4, new Stone(0, 6, 0)));
+
+        // They can be placed and taken back like the stones of the game.
+        Board board = new Board(1);
+        Stone first = new Stone(6, 7, 5);
+        Stone second = new Stone(6, 7, 6);
+        second.rotateRight();
+        board.placeStone(new Move(first, Board.NR_STONES, Board.NR_STONES));
+        long hash = board.getHash();
+        long canonical = board.getCanonicalHash();
+        Assertions.assertTrue(board.isValidMove(new Move(second, Board.NR_STONES + 1, Board.NR_STONES)));
+        board.placeStone(new Move(second, Board.NR_STONES + 1, Board.NR_STONES));
+        Assertions.assertNotEquals(hash, board.getHash());
+        Assertions.assertNotEquals(canonical, board.getCanonicalHash());
+        board.removeStone(new Move(second, Board.NR_STONES + 1, Board.NR_STONES));
+        Assertions.assertEquals(hash, board.getHash());
+        Assertions.assertEquals(canonical, board.getCanonicalHash());
+
+        // They are not dealt to the players, nor is a copy of a stone of the game.
+        Player player = new HumanPlayer("Test");
+        Stone dealt = board.getFromStack();
+        player.addStone(dealt);
+        player.addStone(dealt);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> player.addStone(first));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> player.addStone(dealt.copy()));
+        Assertions.assertEquals(List.of(dealt), player.getStones());
+
+        // A whole set is laid out without running out of keys.
+        for (int maxValue : new int[]{7, 12}) {
+            BoardScalingBenchmark.Result result = BoardScalingBenchmark.run(maxValue, 1, maxValue);
+            Assertions.assertEquals(StoneSet.size(maxValue, 1), result.stones());
+            Assertions.assertTrue(result.placed() > result.stones() / 2);
+        }
+    }
+
 }
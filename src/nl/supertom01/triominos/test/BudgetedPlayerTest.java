@@ -0,0 +1,102 @@
+package nl.supertom01.triominos.test;
+
+import java.util.function.Supplier;
+import nl.supertom01.triominos.bots.BotProvider;
+import nl.supertom01.triominos.bots.BotRegistry;
+import nl.supertom01.triominos.bots.BudgetedPlayer;
+import nl.supertom01.triominos.bots.MoveBudget;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BudgetedPlayerTest {
+
+    private static volatile boolean spinning;
+
+    private static BotProvider provider(String name, Supplier<Player> bot) {
+        return new BotProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Player create() {
+                return bot.get();
+            }
+        };
+    }
+
+    private static Player bot(Runnable think) {
+        return new Player("Slow Player") {
+            @Override
+            public Move determineMove(Board board) {
+                think.run();
+                return null;
+            }
+        };
+    }
+
+    private static Board deal(Player player) throws PlacementException {
+        Board board = new Board(1);
+        board.placeStone(new Move(board.getFromStack(), Board.NR_STONES, Board.NR_STONES));
+        for (int i = 0; i < 7; i++) {
+            player.addStone(board.getFromStack());
+        }
+        return board;
+    }
+
+    @Test
+    public void testRegistry() {
+        Assertions.assertTrue(BotRegistry.getProviders().containsKey("easy"));
+        Assertions.assertTrue(BotRegistry.getProviders().containsKey("hard"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BotRegistry.create("unknown"));
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        try (BudgetedPlayer easy = new BudgetedPlayer(BotRegistry.getProvider("easy"), MoveBudget.ofMillis(1000))) {
+            Board board = deal(easy);
+            Move move = easy.determineMove(board);
+            Assertions.assertTrue(move == null || board.isValidMove(move));
+            Assertions.assertEquals(0, easy.getStatistics().getFallbacks());
+        }
+
+        // A bot that sleeps is interrupted after the wall-clock budget and draws a stone instead.
+        try (BudgetedPlayer sleepy = new BudgetedPlayer(provider("sleepy", () -> bot(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })), MoveBudget.ofMillis(20))) {
+            Board board = deal(sleepy);
+            long start = System.nanoTime();
+            Assertions.assertNull(sleepy.determineMove(board));
+            Assertions.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            Assertions.assertEquals(8, sleepy.getStoneCount());
+            BudgetedPlayer.Statistics statistics = sleepy.getStatistics();
+            Assertions.assertEquals(1, statistics.wallOverruns());
+            Assertions.assertEquals(0, statistics.abandoned());
+        }
+
+        // A bot that ignores interrupts is abandoned and replaced.
+        spinning = true;
+        try (BudgetedPlayer spinner = new BudgetedPlayer(provider("spinner", () -> bot(() -> {
+            while (spinning) {
+                Thread.onSpinWait();
+            }
+        })), MoveBudget.ofMillis(20))) {
+            Board board = deal(spinner);
+            Assertions.assertNull(spinner.determineMove(board));
+            BudgetedPlayer.Statistics statistics = spinner.getStatistics();
+            Assertions.assertEquals(1, statistics.wallOverruns() + statistics.cpuOverruns());
+            Assertions.assertEquals(1, statistics.abandoned());
+        } finally {
+            spinning = false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package nl.supertom01.triominos.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import nl.supertom01.triominos.dataset.Column;
+import nl.supertom01.triominos.dataset.DatasetReader;
+import nl.supertom01.triominos.dataset.DatasetWriter;
+import nl.supertom01.triominos.dataset.Features;
+import nl.supertom01.triominos.dataset.Sample;
+import nl.supertom01.triominos.dataset.SelfPlayExporter;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DatasetTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = Files.createTempFile("samples", ".bin");
+        try {
+            short[] cells = new short[Features.WINDOW_CELLS];
+            cells[0] = (short) (Features.OPEN | Features.TOP);
+            cells[Features.WINDOW_CELLS - 1] = (short) (Stone.idOf(5, 5, 5) + 1);
+            try (DatasetWriter writer = new DatasetWriter(file, 2)) {
+                for (int i = 0; i < 5; i++) {
+                    writer.add(new Sample(42, 1, i % 2, 30 - i, 1L << i, 9, 10 * i, -1, 44, -3, cells, i - 1,
+                        i == 0, -i));
+                }
+            }
+            try (DatasetReader reader = DatasetReader.open(file)) {
+                Assertions.assertEquals(5, reader.getRows());
+                Assertions.assertEquals(3, reader.getBlockCount());
+                for (int i = 0; i < 5; i++) {
+                    Assertions.assertEquals(42, reader.get(i, Column.SEED));
+                    Assertions.assertEquals(i % 2, reader.get(i, Column.SEAT));
+                    Assertions.assertEquals(30 - i, reader.get(i, Column.STACK_SIZE));
+                    Assertions.assertEquals(1L << i, reader.get(i, Column.HAND));
+                    Assertions.assertEquals(10 * i, reader.get(i, Column.SCORE));
+                    Assertions.assertEquals(-1, reader.get(i, Column.OPPONENT_SCORE));
+                    Assertions.assertEquals(-3, reader.get(i, Column.WINDOW_Y));
+                    Assertions.assertEquals(i - 1, reader.get(i, Column.MOVE));
+                    Assertions.assertEquals(i == 0 ? 1 : 0, reader.get(i, Column.DREW));
+                    Assertions.assertEquals(-i, reader.get(i, Column.RESULT));
+                    Assertions.assertEquals(cells[0], reader.getCell(i, 0));
+                    Assertions.assertEquals(cells[Features.WINDOW_CELLS - 1],
+                        reader.getCell(i, Features.WINDOW_CELLS - 1));
+                }
+                // The values of a column are contiguous within a block.
+                ByteBuffer hands = reader.getColumn(1, Column.HAND);
+                Assertions.assertEquals(1L << 2, hands.getLong(0));
+                Assertions.assertEquals(1L << 3, hands.getLong(8));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSelfPlay() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("selfplay", ".bin");
+        try {
+            long samples = new SelfPlayExporter("easy", "easy").export(file, 0, 4, 2, 256);
+            try (DatasetReader reader = DatasetReader.open(file)) {
+                Assertions.assertEquals(samples, reader.getRows());
+                Assertions.assertTrue(samples > 4 * 20);
+                // Both players of a round have opposite results.
+                Map<Long, Long> results = new HashMap<>();
+                for (long row = 0; row < samples; row++) {
+                    long round = reader.get(row, Column.SEED) << 8 | reader.get(row, Column.ROUND);
+                    long result = reader.get(row, Column.RESULT) * (reader.get(row, Column.SEAT) == 0 ? 1 : -1);
+                    Assertions.assertEquals(result, (long) results.computeIfAbsent(round, key -> result));
+                    long hand = reader.get(row, Column.HAND);
+                    long move = reader.get(row, Column.MOVE);
+                    Assertions.assertTrue(move == -1 || (hand & 1L << Placement.getId(move)) != 0);
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
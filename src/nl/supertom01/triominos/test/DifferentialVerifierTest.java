@@ -0,0 +1,16 @@
+package nl.supertom01.triominos.test;
+
+import nl.supertom01.triominos.verification.DifferentialVerifier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DifferentialVerifierTest {
+
+    @Test
+    public void testNoDivergences() throws InterruptedException {
+        DifferentialVerifier.Report report = new DifferentialVerifier().run(0, 25, 2);
+        Assertions.assertEquals(25, report.games());
+        Assertions.assertTrue(report.positions() > 25);
+        Assertions.assertTrue(report.divergences().isEmpty(), report::toString);
+    }
+}
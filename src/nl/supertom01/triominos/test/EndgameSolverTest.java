@@ -0,0 +1,198 @@
+package nl.supertom01.triominos.test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.ai.SearchController;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EndgameSolverTest {
+
+    private static final long BUDGET = TimeUnit.SECONDS.toNanos(30);
+
+    /** The number of terminal positions of the minimax in which the round ended by two passes, or an empty hand. */
+    private int doublePasses;
+    private int emptyHands;
+
+    /**
+     * Plays out every line to the end of the round, without pruning or memoization.
+     * @return The most points the player to move can gain more than the opponent.
+     */
+    private int minimax(Board board, long mover, long other, int passes) throws PlacementException {
+        LongList placements = new LongList();
+        board.generatePlacements(mover, placements);
+        if(placements.size() == 0) {
+            if(passes + 1 >= 2) {
+                doublePasses++;
+                return -5;
+            }
+            return -5 - minimax(board, other, mover, passes + 1);
+        }
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < placements.size(); i++) {
+            best = Math.max(best, value(board, mover, other, placements.get(i)));
+        }
+        return best;
+    }
+
+    /**
+     * Plays out every line after a placement.
+     */
+    private int value(Board board, long mover, long other, long placement) throws PlacementException {
+        Move move = Placement.toMove(placement, board);
+        int gained = board.determinePoints(move, Long.bitCount(mover));
+        long rest = mover & ~(1L << Placement.getId(placement));
+        if(rest == 0) {
+            emptyHands++;
+            return gained;
+        }
+        board.placeStone(move);
+        int value = gained - minimax(board, other, rest, 0);
+        board.removeStone(move);
+        return value;
+    }
+
+    /**
+     * Builds an endgame: all the stones are taken from the stack, stones that fit are placed at random until only a
+     * few are left, and those are divided over the two hands. Should none of the stones fit, one is left out.
+     * @return The hand of the player to move and that of the opponent.
+     */
+    private static long[] deal(Board board, long seed, int handSize) throws PlacementException {
+        Random random = new Random(seed);
+        long pool = 0;
+        for (Stone stone = board.getFromStack(); stone != null; stone = board.getFromStack()) {
+            pool |= stone.getMask();
+        }
+        LongList placements = new LongList();
+        while (Long.bitCount(pool) > 2 * handSize) {
+            placements.clear();
+            if(board.generatePlacements(pool, placements) == 0) {
+                // None of the stones fits anymore, leave one out of the round.
+                pool &= pool - 1;
+                continue;
+            }
+            long placement = placements.get(random.nextInt(placements.size()));
+            board.placeStone(Placement.toMove(placement, board));
+            pool &= ~(1L << Placement.getId(placement));
+        }
+        long hand = 0;
+        for (int i = 0; i < handSize; i++) {
+            long mask = pool;
+            for (int skip = random.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+                mask &= mask - 1;
+            }
+            hand |= Long.lowestOneBit(mask);
+            pool &= ~Long.lowestOneBit(mask);
+        }
+        return new long[]{hand, pool};
+    }
+
+    @Test
+    public void testAgainstMinimax() throws PlacementException {
+        EndgameSolver solver = new EndgameSolver(16);
+        for (long seed = 1; seed <= 30; seed++) {
+            Board board = new Board(seed);
+            long[] hands = deal(board, seed, seed <= 24 ? 3 : 4);
+            int passes = (int) (seed % 2);
+            long hash = board.getHash();
+            String position = "seed " + seed;
+
+            SearchController.Result result = solver.solve(board, hands[0], hands[1], passes, BUDGET);
+            Assertions.assertNotNull(result, position);
+            Assertions.assertTrue(result.exact(), position);
+            Assertions.assertEquals(hash, board.getHash(), position);
+
+            int expected = minimax(board, hands[0], hands[1], passes);
+            Assertions.assertEquals(expected, result.score(), position);
+            if(result.placement() == EndgameSolver.PASS) {
+                LongList placements = new LongList();
+                Assertions.assertEquals(0, board.generatePlacements(hands[0], placements), position);
+            } else {
+                Assertions.assertTrue(board.isValidMove(Placement.toMove(result.placement(), board)), position);
+                Assertions.assertEquals(expected, value(board, hands[0], hands[1], result.placement()), position);
+            }
+        }
+        Assertions.assertTrue(doublePasses > 0);
+        Assertions.assertTrue(emptyHands > 0);
+    }
+
+    @Test
+    public void testEndings() throws PlacementException {
+        EndgameSolver solver = new EndgameSolver(10);
+        Board board = new Board(0);
+        board.placeStone(new Move(board.getStone(Stone.idOf(0, 0, 0)), Board.NR_STONES, Board.NR_STONES));
+        int fits = Stone.idOf(0, 0, 1);
+        int other = Stone.idOf(5, 5, 5);
+
+        // Placing the last stone gains its points and the bonus of 25 for the empty hand.
+        SearchController.Result last = solver.solve(board, 1L << fits, 1L << other, 0, BUDGET);
+        Assertions.assertEquals(1 + 25, last.score());
+        Assertions.assertEquals(fits, Placement.getId(last.placement()));
+
+        // When neither player can place a stone, both pass and lose 5 points.
+        SearchController.Result stuck = solver.solve(board, 1L << other, 1L << Stone.idOf(4, 4, 4), 0, BUDGET);
+        Assertions.assertEquals(EndgameSolver.PASS, stuck.placement());
+        Assertions.assertEquals(0, stuck.score());
+        SearchController.Result passed = solver.solve(board, 1L << other, 1L << Stone.idOf(4, 4, 4), 1, BUDGET);
+        Assertions.assertEquals(-5, passed.score());
+
+        // A player that cannot place a stone passes, after which the opponent places their last one.
+        SearchController.Result behind = solver.solve(board, 1L << other, 1L << fits, 0, BUDGET);
+        Assertions.assertEquals(EndgameSolver.PASS, behind.placement());
+        Assertions.assertEquals(-5 - (1 + 25), behind.score());
+    }
+
+    @Test
+    public void testGameUnchanged() throws PlacementException {
+        // An endgame of a game: the opponent took all the stones of the stack.
+        try (HardPlayer hard = new HardPlayer(0)) {
+            Player opponent = new EasyPlayer();
+            Game game = new Game(new Player[]{hard, opponent}, 6);
+            game.initialize();
+            Board board = game.getBoard();
+            Stone first = hard.getStones().get(0);
+            board.placeStone(new Move(first, Board.NR_STONES, Board.NR_STONES));
+            hard.removeStone(first);
+            for (Stone stone = board.getFromStack(); stone != null; stone = board.getFromStack()) {
+                opponent.addStone(stone);
+            }
+
+            // The opponent turned its stones while thinking about its last move.
+            int[] rotations = new int[Board.NR_STONES];
+            for (Player player : game.getPlayers()) {
+                for (Stone stone : player.getStones()) {
+                    stone.setRotations(stone.getId() % 6);
+                    rotations[stone.getId()] = stone.getRotations();
+                }
+            }
+            long hash = board.getHash();
+            int placements = board.getPlacementCount();
+            Move move = hard.determineMove(board);
+            Assertions.assertNotNull(move);
+
+            // Searching the endgame did not touch the board or the stones in the hands, apart from turning the stone
+            // that is played.
+            Assertions.assertEquals(hash, board.getHash());
+            Assertions.assertEquals(placements, board.getPlacementCount());
+            Assertions.assertEquals(first, board.getStoneAt(Board.NR_STONES, Board.NR_STONES));
+            for (Player player : game.getPlayers()) {
+                for (Stone stone : player.getStones()) {
+                    if(stone != move.getStone()) {
+                        Assertions.assertEquals(rotations[stone.getId()], stone.getRotations(), stone.toString());
+                    }
+                }
+            }
+        }
+    }
+}
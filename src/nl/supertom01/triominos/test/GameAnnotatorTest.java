@@ -0,0 +1,90 @@
+package nl.supertom01.triominos.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.analysis.Annotation;
+import nl.supertom01.triominos.analysis.GameAnnotator;
+import nl.supertom01.triominos.analysis.GameRecorder;
+import nl.supertom01.triominos.analysis.RecordedGame;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameAnnotatorTest {
+
+    private static RecordedGame record(long seed) {
+        Game game = new Game(new Player[]{new HardPlayer(0), new EasyPlayer()}, seed);
+        GameRecorder recorder = new GameRecorder();
+        game.addListener(recorder);
+        game.play();
+        return recorder.getGame();
+    }
+
+    @Test
+    public void testRecording() throws IOException {
+        RecordedGame game = record(3);
+        Assertions.assertEquals(List.of("Hard Player", "Easy Player"), game.players());
+        Assertions.assertFalse(game.turns().isEmpty());
+
+        StringWriter out = new StringWriter();
+        game.write(out);
+        Assertions.assertEquals(game, RecordedGame.read(new BufferedReader(new StringReader(out.toString()))));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> RecordedGame.read(new BufferedReader(new StringReader("turn 1 0 ff"))));
+    }
+
+    @Test
+    public void testAnnotation() throws InterruptedException {
+        List<RecordedGame> games = List.of(record(1), record(2));
+        List<List<Annotation>> sequential = new GameAnnotator(1, 0).annotate(games);
+        List<List<Annotation>> parallel = new GameAnnotator(4, 0).annotate(games);
+        Assertions.assertEquals(sequential, parallel);
+
+        for (int i = 0; i < games.size(); i++) {
+            List<Annotation> annotations = sequential.get(i);
+            Assertions.assertEquals(games.get(i).turns().size(), annotations.size());
+            for (Annotation annotation : annotations) {
+                // Without solving endgames, the best placement is the one with the most points.
+                Assertions.assertTrue(annotation.getPointsLost() >= 0, annotation.toLine());
+                Assertions.assertFalse(annotation.solved());
+                if(annotation.played().isPlacement()) {
+                    Assertions.assertTrue(annotation.best() != EndgameSolver.PASS, annotation.toLine());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSolvedAnnotation() throws InterruptedException {
+        List<RecordedGame> games = List.of(record(1), record(2), record(3));
+        List<List<Annotation>> annotations = new GameAnnotator(4, TimeUnit.SECONDS.toNanos(10)).annotate(games);
+        int solved = 0;
+        int other = 0;
+        for (List<Annotation> game : annotations) {
+            for (Annotation annotation : game) {
+                Assertions.assertTrue(annotation.getPointsLost() >= 0, annotation.toLine());
+                if(!annotation.solved()) {
+                    continue;
+                }
+                solved++;
+                Assertions.assertEquals(0, annotation.played().stackSize(), annotation.toLine());
+                if(annotation.played().placement() == annotation.best()) {
+                    Assertions.assertEquals(0, annotation.getPointsLost(), annotation.toLine());
+                } else {
+                    // The turn was solved as well, a placement with fewer points now may still be as good.
+                    other++;
+                }
+            }
+        }
+        Assertions.assertTrue(solved > 0);
+        Assertions.assertTrue(other > 0);
+    }
+}
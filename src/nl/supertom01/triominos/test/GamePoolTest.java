@@ -0,0 +1,67 @@
+package nl.supertom01.triominos.test;
+
+import nl.supertom01.triominos.analysis.GameRecorder;
+import nl.supertom01.triominos.analysis.RecordedGame;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.simulation.GamePool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GamePoolTest {
+
+    private static Player[] players() {
+        return new Player[]{new HardPlayer(0), new EasyPlayer()};
+    }
+
+    private static RecordedGame play(Game game) {
+        GameRecorder recorder = new GameRecorder();
+        game.addListener(recorder);
+        game.play();
+        game.removeListener(recorder);
+        return recorder.getGame();
+    }
+
+    @Test
+    public void testResetGameIsFresh() {
+        GamePool pool = new GamePool(GamePoolTest::players);
+        for (long seed = 1; seed <= 4; seed++) {
+            RecordedGame fresh = play(new Game(players(), seed));
+
+            // A pooled game that has just played another game plays the same as a new one.
+            Game game = pool.acquire(seed + 100);
+            play(game);
+            pool.release(game);
+            Game reset = pool.acquire(seed);
+            Assertions.assertSame(game, reset);
+            Assertions.assertEquals(fresh, play(reset));
+            pool.release(reset);
+        }
+    }
+
+    @Test
+    public void testResetBoardIsFresh() {
+        Game game = new Game(players(), 5);
+        game.play();
+        Board board = game.getBoard();
+        Assertions.assertFalse(board.isEmpty());
+
+        board.reset(9);
+        Board fresh = new Board(9);
+        Assertions.assertTrue(board.isEmpty());
+        Assertions.assertEquals(0, board.getBoardMask());
+        Assertions.assertEquals(fresh.getHash(), board.getHash());
+        Assertions.assertEquals(fresh.getPlacementCount(), board.getPlacementCount());
+        Assertions.assertEquals(fresh.getStackSize(), board.getStackSize());
+        for (Stone stone = fresh.getFromStack(); stone != null; stone = fresh.getFromStack()) {
+            Stone other = board.getFromStack();
+            Assertions.assertEquals(stone, other);
+            Assertions.assertEquals(stone.getOrientation(), other.getOrientation());
+        }
+        Assertions.assertNull(board.getFromStack());
+    }
+}
@@ -0,0 +1,70 @@
+package nl.supertom01.triominos.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nl.supertom01.triominos.tournament.Leaderboard;
+import nl.supertom01.triominos.tournament.Standing;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LeaderboardTest {
+
+    private static final String[] PLAYERS = {"a", "b", "c", "d"};
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        Leaderboard leaderboard = new Leaderboard(PLAYERS);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    int a = random.nextInt(PLAYERS.length);
+                    int b = (a + 1 + random.nextInt(PLAYERS.length - 1)) % PLAYERS.length;
+                    // The player that comes first in the alphabet is stronger.
+                    int points = random.nextInt(400) + (a < b ? 150 : 0);
+                    leaderboard.record(PLAYERS[a], PLAYERS[b], points, random.nextInt(400));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        // Every snapshot that is read while the games are recorded is consistent.
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            assertConsistent(leaderboard.snapshot());
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Leaderboard.Snapshot snapshot = leaderboard.snapshot();
+        Assertions.assertEquals(16000, snapshot.getGames());
+        assertConsistent(snapshot);
+        List<Standing> standings = snapshot.getStandings();
+        Assertions.assertEquals("a", standings.get(0).player());
+        Assertions.assertEquals("d", standings.get(3).player());
+        Assertions.assertTrue(standings.get(0).margin() < 50);
+    }
+
+    private static void assertConsistent(Leaderboard.Snapshot snapshot) {
+        long games = 0;
+        long difference = 0;
+        double ratings = 0;
+        for (String player : PLAYERS) {
+            Standing standing = snapshot.getStanding(player);
+            Assertions.assertEquals(standing.games(), standing.wins() + standing.losses() + standing.draws());
+            games += standing.games();
+            difference += standing.scoreDifference();
+            ratings += standing.rating();
+        }
+        // Each game counts for both of its players, and Elo only moves points from one player to the other.
+        Assertions.assertEquals(2 * snapshot.getGames(), games);
+        Assertions.assertEquals(0, difference);
+        Assertions.assertEquals(PLAYERS.length * Leaderboard.DEFAULT_RATING, ratings, 1e-6);
+        long[] ab = snapshot.getHeadToHead("a", "b");
+        long[] ba = snapshot.getHeadToHead("b", "a");
+        Assertions.assertEquals(ab[0], ba[1]);
+        Assertions.assertEquals(ab[3], -ba[3]);
+    }
+}
@@ -0,0 +1,117 @@
+package nl.supertom01.triominos.test;
+
+import java.util.Arrays;
+import java.util.Random;
+import nl.supertom01.triominos.ai.LegalMoveCache;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveCacheTest {
+
+    @Test
+    public void testSameAsBoard() throws PlacementException {
+        Random random = new Random(42);
+        Board board = new Board(0);
+        LegalMoveCache cache = new LegalMoveCache();
+        LongList expected = new LongList();
+        LongList actual = new LongList();
+        for (int round = 0; round < 50; round++) {
+            // Every other round also tries moves and takes them back, which only changes the order.
+            boolean search = round % 2 == 1;
+            board.reset(round);
+            long hand = 0;
+            for (int i = 0; i < 7; i++) {
+                hand |= board.getFromStack().getMask();
+            }
+            while (hand != 0) {
+                cache.update(board, hand);
+                expected.clear();
+                actual.clear();
+                board.generatePlacements(hand, expected);
+                cache.generatePlacements(actual);
+                long[] expectedArray = expected.toArray();
+                long[] actualArray = actual.toArray();
+                if(search) {
+                    Arrays.sort(expectedArray);
+                    Arrays.sort(actualArray);
+                }
+                Assertions.assertArrayEquals(expectedArray, actualArray);
+                Assertions.assertEquals(board.getPlayableStones(hand), cache.getPlayableStones());
+
+                if(expected.isEmpty()) {
+                    Stone stone = board.getFromStack();
+                    if(stone == null) {
+                        break;
+                    }
+                    hand |= stone.getMask();
+                    continue;
+                }
+
+                // Like a search, try a few moves and take them back before the next update.
+                for (int i = 0; search && i < 3; i++) {
+                    Move move = Placement.toMove(expected.get(random.nextInt(expected.size())), board);
+                    board.placeStone(move);
+                    board.removeStone(move);
+                }
+                long placement = expected.get(random.nextInt(expected.size()));
+                board.placeStone(Placement.toMove(placement, board));
+                hand &= ~(1L << Placement.getId(placement));
+                if(random.nextInt(4) == 0 && board.getStackSize() > 0) {
+                    hand |= board.getFromStack().getMask();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRemovedAndPlacedElsewhere() throws PlacementException {
+        Board board = new Board(7);
+        LegalMoveCache cache = new LegalMoveCache();
+        LongList placements = new LongList();
+        long hand = 0;
+        for (int i = 0; i < 20; i++) {
+            hand |= board.getFromStack().getMask();
+        }
+        for (int i = 0; i < 4; i++) {
+            placements.clear();
+            board.generatePlacements(hand, placements);
+            long placement = placements.get(0);
+            board.placeStone(Placement.toMove(placement, board));
+            hand &= ~(1L << Placement.getId(placement));
+        }
+        cache.update(board, hand);
+
+        // Take back the last stone and place another one elsewhere, which leaves the number of placements the same.
+        int x = board.getPlacementX(board.getPlacementCount() - 1);
+        int y = board.getPlacementY(board.getPlacementCount() - 1);
+        Stone last = board.getStoneAt(x, y);
+        board.removeStone(new Move(last, x, y));
+        placements.clear();
+        board.generatePlacements(hand, placements);
+        long other = -1;
+        for (int i = 0; i < placements.size() && other == -1; i++) {
+            if(Placement.getX(placements.get(i)) != x || Placement.getY(placements.get(i)) != y) {
+                other = placements.get(i);
+            }
+        }
+        Assertions.assertNotEquals(-1, other);
+        board.placeStone(Placement.toMove(other, board));
+        hand &= ~(1L << Placement.getId(other));
+        hand |= last.getMask();
+
+        cache.update(board, hand);
+        LongList expected = new LongList();
+        LongList actual = new LongList();
+        board.generatePlacements(hand, expected);
+        cache.generatePlacements(actual);
+        Assertions.assertArrayEquals(expected.toArray(), actual.toArray());
+        Assertions.assertEquals(board.getPlayableStones(hand), cache.getPlayableStones());
+        Assertions.assertEquals(0, cache.getStones(Placement.getX(other), Placement.getY(other)));
+    }
+}
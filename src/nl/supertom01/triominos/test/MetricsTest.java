@@ -0,0 +1,77 @@
+package nl.supertom01.triominos.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.metrics.LatencyHistogram;
+import nl.supertom01.triominos.metrics.Metrics;
+import nl.supertom01.triominos.metrics.MetricsReporter;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MetricsTest {
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram("Test");
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(50));
+
+        // Small values have a bucket of their own.
+        for (int i = 0; i < 32; i++) {
+            histogram.record(i);
+        }
+        Assertions.assertEquals(32, histogram.getCount());
+        Assertions.assertEquals(15, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(31, histogram.getValueAtPercentile(100));
+        histogram.record(-5);
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(0));
+
+        // Larger values are rounded down to their bucket, which is at most about 3% below the value.
+        histogram.reset();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1_000_000);
+        }
+        Assertions.assertEquals(1000, histogram.getCount());
+        Assertions.assertEquals(1_000_000, histogram.getMax());
+        Assertions.assertEquals(500_500, histogram.getMean(), 1e-6);
+        for (int percentile : new int[]{1, 50, 90, 99}) {
+            double expected = percentile * 10_000_000.0;
+            long actual = histogram.getValueAtPercentile(percentile);
+            Assertions.assertTrue(actual <= expected && actual >= expected * 0.96, percentile + ": " + actual);
+        }
+        Assertions.assertEquals(1_000_000_000L, histogram.getValueAtPercentile(100), 1_000_000_000L * 0.04);
+        Assertions.assertTrue(histogram.getValueAtPercentile(100) <= 1_000_000_000L);
+
+        // Absurdly long durations end up in the last bucket, but the maximum is still exact.
+        histogram.reset();
+        histogram.record(Long.MAX_VALUE);
+        Assertions.assertEquals(Long.MAX_VALUE / 1000, histogram.getMax());
+        Assertions.assertTrue(histogram.getValueAtPercentile(100) > 0);
+    }
+
+    @Test
+    public void testReporter() {
+        Game game = new Game(new Player[]{new EasyPlayer(), new EasyPlayer()}, 3);
+        game.play();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MetricsReporter reporter = new MetricsReporter(new PrintStream(bytes, true, StandardCharsets.UTF_8),
+            1, TimeUnit.HOURS)) {
+            reporter.report();
+        }
+        String report = bytes.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(report.startsWith("[METRICS] last "), report);
+        Assertions.assertTrue(report.contains("games/s"), report);
+        Assertions.assertTrue(report.contains("validMoveChecks="), report);
+
+        // The two players have the same name, but their decisions are recorded per seat.
+        Assertions.assertTrue(report.contains("Easy Player (seat 0): n="), report);
+        Assertions.assertTrue(report.contains("Easy Player (seat 1): n="), report);
+        Assertions.assertTrue(Metrics.get().getDecisionLatency("Easy Player", 0).getCount() > 0);
+        Assertions.assertTrue(Metrics.get().getDecisionLatency("Easy Player", 1).getCount() > 0);
+    }
+}
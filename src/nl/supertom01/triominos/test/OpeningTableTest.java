@@ -0,0 +1,75 @@
+package nl.supertom01.triominos.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import nl.supertom01.triominos.ai.OpeningBuilder;
+import nl.supertom01.triominos.ai.OpeningTable;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OpeningTableTest {
+
+    private static Move move(Board board, int x, int y, int id, int rotations) {
+        return Placement.toMove(Placement.of(x, y, id, rotations), board.getStone(id));
+    }
+
+    @Test
+    public void testTakeBack() throws PlacementException {
+        Board board = new Board(0);
+        board.placeStone(move(board, 56, 56, Stone.idOf(1, 2, 3), 0));
+        long hash = board.getCanonicalHash();
+
+        // A stone that is placed and taken back again, twice on the same cell, leaves no trace.
+        Move move = move(board, 57, 56, Stone.idOf(2, 3, 4), 1);
+        for (int i = 0; i < 2; i++) {
+            board.placeStone(move);
+            board.removeStone(move);
+        }
+        Assertions.assertEquals(hash, board.getCanonicalHash());
+        Assertions.assertEquals(1, board.getPlacementCount());
+    }
+
+    @Test
+    public void testBuildAndPlay() throws IOException, InterruptedException, PlacementException {
+        OpeningBuilder builder = new OpeningBuilder(1, 4);
+        OpeningBuilder.Entries entries = builder.build(2);
+        Assertions.assertEquals(builder.enumerate().size(), entries.keys().length);
+
+        Path file = Files.createTempFile("openings", ".bin");
+        try {
+            OpeningTable.write(file, 1, entries.keys(), entries.values());
+            OpeningTable table = OpeningTable.open(file);
+            Assertions.assertEquals(1, table.getPlies());
+            Assertions.assertEquals(entries.keys().length, table.size());
+            for (int i = 0; i < table.size(); i++) {
+                Assertions.assertEquals(entries.values()[i], table.get(entries.keys()[i]));
+            }
+            // Positions after more plies than the table covers are not in it.
+            Board deeper = new Board(0);
+            deeper.placeStone(move(deeper, 56, 56, Stone.idOf(1, 2, 3), 0));
+            deeper.placeStone(move(deeper, 57, 56, Stone.idOf(2, 3, 4), 1));
+            Assertions.assertEquals(OpeningTable.MISSING, table.get(deeper));
+
+            // The first move of a player with the table is a legal placement from its hand.
+            Board board = new Board(7);
+            HardPlayer player = new HardPlayer(0);
+            player.setOpenings(table);
+            for (int i = 0; i < 9; i++) {
+                player.addStone(board.getFromStack());
+            }
+            Move move = player.determineMove(board);
+            Assertions.assertNotNull(move);
+            Assertions.assertTrue(player.hasStone(move.getStone()));
+            Assertions.assertTrue(board.isValidMove(move));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package nl.supertom01.triominos.test;
+
+import nl.supertom01.triominos.verification.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PerftTest {
+
+    /** The move sequences of the deal with seed 1, per depth. */
+    private static final long[] SEED_1 = {52, 106, 260, 698, 1796, 5936, 14210, 45296};
+
+    @Test
+    public void testKnownCounts() throws InterruptedException {
+        Perft.Result result = new Perft(1, false).run(SEED_1.length, 2);
+        Assertions.assertArrayEquals(SEED_1, result.nodes());
+
+        // The lines per root move add up to the count of the full depth.
+        long divided = 0;
+        for (Perft.Division division : result.divisions()) {
+            divided += division.nodes();
+        }
+        Assertions.assertEquals(SEED_1[SEED_1.length - 1], divided);
+        Assertions.assertEquals(SEED_1[0], result.divisions().size());
+    }
+
+    @Test
+    public void testReference() throws InterruptedException {
+        for (long seed = 2; seed < 6; seed++) {
+            Assertions.assertArrayEquals(new Perft(seed, true).run(6, 2).nodes(),
+                new Perft(seed, false).run(6, 2).nodes(), "seed " + seed);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package nl.supertom01.triominos.test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.GameListener;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.view.PlacementHints;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PlacementHintsTest {
+
+    private static void await(Future<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Checks that the hints match those that are computed from scratch, for the whole hand and for every stone.
+     */
+    private static void assertFresh(PlacementHints hints, Board board, long hand, String position) {
+        try (PlacementHints fresh = new PlacementHints(() -> {})) {
+            await(fresh.update(board, hand));
+            Assertions.assertEquals(new HashSet<>(fresh.getHints()), new HashSet<>(hints.getHints()), position);
+            for (int id = 0; id < Board.NR_STONES; id++) {
+                List<PlacementHints.Hint> stone = hints.getHints(id);
+                Assertions.assertEquals(new HashSet<>(fresh.getHints(id)), new HashSet<>(stone), position);
+                for (int i = 1; i < stone.size(); i++) {
+                    Assertions.assertTrue(stone.get(i - 1).points() >= stone.get(i).points(), position);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        for (long seed = 1; seed <= 3; seed++) {
+            Player owner = new EasyPlayer();
+            Game game = new Game(new Player[]{owner, new EasyPlayer()}, seed);
+            String name = "seed " + seed;
+            try (PlacementHints hints = new PlacementHints(() -> {})) {
+                int[] moves = new int[1];
+                game.addListener(new GameListener() {
+                    @Override
+                    public void roundStarted(Game game) {
+                        update(game);
+                    }
+
+                    @Override
+                    public void movePlayed(Game game, Player player, Move move, int points) {
+                        moves[0]++;
+                        update(game);
+                    }
+
+                    private void update(Game game) {
+                        await(hints.update(game.getBoard(), owner.getHandMask()));
+                        assertFresh(hints, game.getBoard(), owner.getHandMask(), name + ", move " + moves[0]);
+                    }
+                });
+                game.play();
+                Assertions.assertTrue(moves[0] > 20, name);
+            }
+        }
+    }
+
+    @Test
+    public void testHandChanges() throws PlacementException {
+        Player owner = new EasyPlayer();
+        Game game = new Game(new Player[]{owner, new EasyPlayer()}, 4);
+        game.initialize();
+        Board board = game.getBoard();
+        board.placeStone(new Move(board.getStone(Stone.idOf(0, 0, 0)), Board.NR_STONES, Board.NR_STONES));
+        long hand = owner.getHandMask() & ~(1L << Stone.idOf(0, 0, 0));
+
+        try (PlacementHints hints = new PlacementHints(() -> {})) {
+            await(hints.update(board, hand));
+            assertFresh(hints, board, hand, "dealt");
+            Assertions.assertFalse(hints.getHints().isEmpty());
+
+            // A stone that fits leaves the hand, another one that fits is added to it.
+            long playable = board.getPlayableStones(Stone.ALL & ~hand & ~board.getBoardMask());
+            long removed = Long.lowestOneBit(board.getPlayableStones(hand));
+            long added = Long.lowestOneBit(playable);
+            Assertions.assertNotEquals(0, removed);
+            Assertions.assertNotEquals(0, added);
+            long next = hand & ~removed;
+            await(hints.update(board, next));
+            assertFresh(hints, board, next, "removed");
+            Assertions.assertTrue(hints.getHints(Long.numberOfTrailingZeros(removed)).isEmpty());
+
+            next |= added;
+            await(hints.update(board, next));
+            assertFresh(hints, board, next, "added");
+            Assertions.assertFalse(hints.getHints(Long.numberOfTrailingZeros(added)).isEmpty());
+
+            // Down to a single stone, every placement gains the bonus for an empty hand.
+            await(hints.update(board, added));
+            assertFresh(hints, board, added, "last stone");
+        }
+    }
+}
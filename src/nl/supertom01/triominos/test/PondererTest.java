@@ -0,0 +1,75 @@
+package nl.supertom01.triominos.test;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.supertom01.triominos.ai.Ponderer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PondererTest {
+
+    private static final long WAIT = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void testTakeResult() throws PlacementException {
+        // The search answers with the number of stones on the board it was given, so a result shows which reply it
+        // belongs to.
+        AtomicInteger searches = new AtomicInteger();
+        Board board = new Board(0);
+        long own = 0x3FFL << 20;
+        long opponent = Stone.ALL & ~own & ~(1L << Stone.idOf(0, 0, 0));
+        board.placeStone(Placement.toMove(Placement.of(Board.NR_STONES, Board.NR_STONES, Stone.idOf(0, 0, 0), 0),
+            board));
+        try (Ponderer ponderer = new Ponderer((position, hand, budget) -> {
+            searches.incrementAndGet();
+            return Long.bitCount(position.getBoardMask());
+        }, 2, 4, WAIT)) {
+            LongList replies = new LongList();
+            board.generatePlacements(opponent, replies);
+            Assertions.assertTrue(replies.size() > 4);
+
+            // The opponent passes, which leaves the board as it was.
+            ponderer.ponder(board, own, opponent);
+            Assertions.assertEquals(OptionalLong.of(1), ponderer.takeResult(board, own, WAIT));
+
+            // The opponent makes the reply with the most points, which has been pondered on.
+            long best = replies.get(0);
+            for (int i = 1; i < replies.size(); i++) {
+                if(board.determinePoints(Placement.toMove(replies.get(i), board), 10)
+                    > board.determinePoints(Placement.toMove(best, board), 10)) {
+                    best = replies.get(i);
+                }
+            }
+            ponderer.ponder(board, own, opponent);
+            board.placeStone(Placement.toMove(best, board));
+            Assertions.assertEquals(OptionalLong.of(2), ponderer.takeResult(board, own, WAIT));
+            // The other searches were cancelled, the result can only be taken once.
+            Assertions.assertEquals(OptionalLong.empty(), ponderer.takeResult(board, own, WAIT));
+            board.removeStone(Placement.toMove(best, board));
+
+            // A result is only used for the hand it was searched for.
+            ponderer.ponder(board, own, opponent);
+            Assertions.assertEquals(OptionalLong.empty(), ponderer.takeResult(board, own & own - 1, WAIT));
+
+            // The opponent places a stone that was not expected: one with the fewest points.
+            long worst = replies.get(0);
+            for (int i = 1; i < replies.size(); i++) {
+                if(board.determinePoints(Placement.toMove(replies.get(i), board), 10)
+                    < board.determinePoints(Placement.toMove(worst, board), 10)) {
+                    worst = replies.get(i);
+                }
+            }
+            int before = searches.get();
+            ponderer.ponder(board, own, opponent);
+            board.placeStone(Placement.toMove(worst, board));
+            Assertions.assertEquals(OptionalLong.empty(), ponderer.takeResult(board, own, WAIT));
+            Assertions.assertTrue(searches.get() - before <= 5);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package nl.supertom01.triominos.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.ai.PositionDatabase;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.LongList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PositionDatabaseTest {
+
+    private static Board boardAt(int x, int y) throws PlacementException {
+        Board board = new Board();
+        Stone first = board.getStone(Stone.idOf(1, 2, 3));
+        Stone second = board.getStone(Stone.idOf(2, 3, 4));
+        board.placeStone(Placement.toMove(Placement.of(x, y, first.getId(), 0), first));
+        board.placeStone(Placement.toMove(Placement.of(x + 1, y, second.getId(), 1), second));
+        return board;
+    }
+
+    @Test
+    public void testCanonicalHash() throws PlacementException {
+        Board board = boardAt(56, 56);
+        Board moved = boardAt(40, 71);
+        Assertions.assertNotEquals(board.getHash(), moved.getHash());
+        Assertions.assertEquals(board.getCanonicalHash(), moved.getCanonicalHash());
+        Assertions.assertEquals(40, moved.getOriginX());
+        Assertions.assertEquals(71, moved.getOriginY());
+
+        moved.placeStone(new Move(new Stone(0, 0, 0), 39, 71));
+        Assertions.assertNotEquals(board.getCanonicalHash(), moved.getCanonicalHash());
+    }
+
+    @Test
+    public void testCanonicalHashAfterRemoval() throws PlacementException {
+        Board board = boardAt(56, 56);
+        Board expected = boardAt(56, 56);
+        Stone third = board.getStone(Stone.idOf(3, 4, 5));
+        Move last = Placement.toMove(Placement.of(58, 56, third.getId(), 2), third);
+        board.placeStone(last);
+        expected.placeStone(Placement.toMove(Placement.of(58, 56, third.getId(), 2),
+            expected.getStone(third.getId())));
+
+        // Taking the last stone back and placing it again on the same cell lists the cell once.
+        board.removeStone(last);
+        Assertions.assertEquals(2, board.getPlacementCount());
+        board.placeStone(last);
+        Assertions.assertEquals(3, board.getPlacementCount());
+        Assertions.assertEquals(expected.getCanonicalHash(), board.getCanonicalHash());
+        Assertions.assertEquals(expected.getHash(), board.getHash());
+
+        // So does a stone that is taken back out of order.
+        Stone second = board.getStoneAt(57, 56);
+        Move middle = new Move(second, 57, 56);
+        board.removeStone(middle);
+        Assertions.assertEquals(2, board.getPlacementCount());
+        Assertions.assertEquals(58, board.getPlacementX(1));
+        board.placeStone(middle);
+        Assertions.assertEquals(3, board.getPlacementCount());
+        Assertions.assertEquals(expected.getCanonicalHash(), board.getCanonicalHash());
+        Assertions.assertEquals(expected.getHash(), board.getHash());
+    }
+
+    @Test
+    public void testStoreAndProbe() throws IOException, PlacementException {
+        Path file = Files.createTempFile("positions", ".db");
+        Files.delete(file);
+        try {
+            Board board = boardAt(56, 56);
+            Board moved = boardAt(20, 30);
+            long hand = 1L << Stone.idOf(3, 4, 5);
+            long placement = Placement.of(58, 56, Stone.idOf(3, 4, 5), 2);
+            try (PositionDatabase database = PositionDatabase.open(file, 8)) {
+                Assertions.assertEquals(PositionDatabase.MISSING, database.get(PositionDatabase.key(board, hand)));
+                Assertions.assertTrue(database.put(PositionDatabase.key(board, hand),
+                    PositionDatabase.entry(board, placement, -12)));
+                Assertions.assertTrue(database.put(PositionDatabase.key(board, 1),
+                    PositionDatabase.entry(board, EndgameSolver.PASS, 7)));
+                Assertions.assertEquals(2, database.size());
+            }
+
+            // The entry applies to the same shape elsewhere on the board, also after opening the file again.
+            try (PositionDatabase database = PositionDatabase.open(file, 4)) {
+                Assertions.assertEquals(256, database.capacity());
+                long entry = database.get(PositionDatabase.key(moved, hand));
+                Assertions.assertEquals(-12, PositionDatabase.getValue(entry));
+                Assertions.assertEquals(Placement.of(22, 30, Stone.idOf(3, 4, 5), 2),
+                    PositionDatabase.getPlacement(entry, moved));
+                entry = database.get(PositionDatabase.key(moved, 1));
+                Assertions.assertEquals(EndgameSolver.PASS, PositionDatabase.getPlacement(entry, moved));
+                Assertions.assertEquals(7, PositionDatabase.getValue(entry));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOnlyEndgamesAreProbed() throws IOException, PlacementException {
+        Path file = Files.createTempFile("positions", ".db");
+        Files.delete(file);
+        try (HardPlayer hard = new HardPlayer(0); PositionDatabase database = PositionDatabase.open(file, 8)) {
+            Player opponent = new EasyPlayer();
+            Game game = new Game(new Player[]{hard, opponent}, 3);
+            game.initialize();
+            Board board = game.getBoard();
+            Stone first = board.getStone(Stone.idOf(0, 0, 0));
+            board.placeStone(new Move(first, Board.NR_STONES, Board.NR_STONES));
+            if(hard.hasStone(first)) {
+                hard.removeStone(first);
+            }
+            hard.setDatabase(database);
+
+            // Store the placement with the fewest points, which the player would never make by itself.
+            LongList placements = new LongList();
+            board.generatePlacements(hard.getHandMask(), placements);
+            long worst = placements.get(0);
+            int best = Integer.MIN_VALUE;
+            for (int i = 0; i < placements.size(); i++) {
+                long placement = placements.get(i);
+                int points = board.determinePoints(Placement.toMove(placement, board), hard);
+                best = Math.max(best, points);
+                if(points < board.determinePoints(Placement.toMove(worst, board), hard)) {
+                    worst = placement;
+                }
+            }
+            Assertions.assertTrue(board.determinePoints(Placement.toMove(worst, board), hard) < best);
+            database.put(PositionDatabase.key(board, hard.getHandMask()), PositionDatabase.entry(board, worst, 100));
+
+            // While there are stones on the stack, the same key may belong to a different position.
+            Move move = hard.determineMove(board);
+            Assertions.assertEquals(best, board.determinePoints(move, hard));
+
+            // Once the stack is empty, the position is known.
+            for (Stone stone = board.getFromStack(); stone != null; stone = board.getFromStack()) {
+                opponent.addStone(stone);
+            }
+            move = hard.determineMove(board);
+            Assertions.assertEquals(Placement.getX(worst), move.getX());
+            Assertions.assertEquals(Placement.getY(worst), move.getY());
+            Assertions.assertEquals(Placement.getId(worst), move.getStone().getId());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package nl.supertom01.triominos.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.controller.HardPlayer;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ProfilingEventsTest {
+
+    private static final String PREFIX = "nl.supertom01.triominos.";
+
+    private static final String[] EVENTS = {"Turn", "MoveGeneration", "Scoring", "StackDraw", "SearchIteration",
+        "BoardRedraw"};
+
+    private static void assertAny(Map<String, List<RecordedEvent>> events, String name,
+                                  Predicate<RecordedEvent> populated) {
+        List<RecordedEvent> recorded = events.getOrDefault(name, List.of());
+        Assertions.assertFalse(recorded.isEmpty(), "No " + name + " events");
+        Assertions.assertTrue(recorded.stream().anyMatch(populated), name + ": " + recorded.get(0));
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        // Redrawing the board loads JavaFX, which should not look for a graphics card in a test.
+        System.setProperty("prism.order", "sw");
+        Path file = Files.createTempFile("triominos", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : EVENTS) {
+                recording.enable(PREFIX + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            // Not every game has a round of which the stack runs out, which the hard player searches.
+            Game game = null;
+            for (long seed = 1; seed <= 3; seed++) {
+                game = new Game(new Player[]{new HardPlayer(0), new EasyPlayer()}, seed);
+                game.play();
+            }
+            game.getBoard().update(false);
+            recording.stop();
+            recording.dump(file);
+
+            Map<String, List<RecordedEvent>> events = new HashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                String name = event.getEventType().getName();
+                if(name.startsWith(PREFIX)) {
+                    events.computeIfAbsent(name.substring(PREFIX.length()), type -> new ArrayList<>()).add(event);
+                }
+            }
+
+            assertAny(events, "Turn", event -> event.getString("player").equals("Easy Player")
+                && event.getInt("stonesInHand") > 0 && event.getInt("openFields") > 0
+                && event.getInt("stackSize") > 0 && event.getInt("points") > 0);
+            // Between two turns, only the fields around the new stones are checked again.
+            assertAny(events, "MoveGeneration", event -> event.getString("player").equals("Easy Player")
+                && event.getInt("openFields") > 0 && event.getInt("legalMoves") > 0
+                && event.getInt("candidates") > 0 && event.getInt("candidates") < event.getInt("openFields"));
+            assertAny(events, "Scoring", event -> event.getInt("points") > 0 && !event.getBoolean("draw"));
+            assertAny(events, "Scoring", event -> event.getBoolean("draw"));
+            assertAny(events, "StackDraw", event -> event.getInt("remaining") > 0);
+            assertAny(events, "SearchIteration", event -> event.getString("player") != null
+                && event.getInt("depth") > 0 && event.getLong("nodes") > 0);
+            assertAny(events, "BoardRedraw", event -> event.getInt("columns") > 0 && event.getInt("rows") > 0
+                && !event.getBoolean("move"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package nl.supertom01.triominos.test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import nl.supertom01.triominos.ai.GameClock;
+import nl.supertom01.triominos.ai.SearchController;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SearchControllerTest {
+
+    /**
+     * A search of which the best placement at each depth is given by a function, that is exact at a given depth and
+     * that takes a given time per iteration, checking the controller while it waits.
+     */
+    private static SearchController.IterativeSearch search(SearchController controller, IntUnaryOperator best,
+                                                           int exactDepth, IntUnaryOperator millis) {
+        return new SearchController.IterativeSearch() {
+            private long nodes;
+
+            @Override
+            public SearchController.Iteration iterate(int depth) {
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis.applyAsInt(depth));
+                while (System.nanoTime() < end) {
+                    nodes++;
+                    if(controller.isTimeUp()) {
+                        return null;
+                    }
+                }
+                nodes++;
+                return new SearchController.Iteration(best.applyAsInt(depth), depth * 10, depth >= exactDepth);
+            }
+
+            @Override
+            public long getNodes() {
+                return nodes;
+            }
+        };
+    }
+
+    @Test
+    public void testStops() {
+        SearchController controller = new SearchController("Test", SearchController.NEVER);
+        long second = TimeUnit.SECONDS.toNanos(1);
+
+        SearchController.Result exact = controller.search(search(controller, depth -> depth, 5, depth -> 0), 20, second);
+        Assertions.assertEquals(SearchController.Stop.EXACT, exact.stop());
+        Assertions.assertEquals(5, exact.depth());
+        Assertions.assertEquals(5, exact.placement());
+        Assertions.assertTrue(exact.exact());
+
+        SearchController.Result deep = controller.search(search(controller, depth -> depth, 99, depth -> 0), 8, second);
+        Assertions.assertEquals(SearchController.Stop.MAX_DEPTH, deep.stop());
+        Assertions.assertEquals(8, deep.depth());
+        Assertions.assertFalse(deep.exact());
+
+        SearchController stable = new SearchController("Test", 3);
+        SearchController.Result result = stable.search(search(stable, depth -> Math.min(depth, 4), 99, depth -> 0),
+            20, second);
+        Assertions.assertEquals(SearchController.Stop.STABLE, result.stop());
+        Assertions.assertEquals(7, result.depth());
+        Assertions.assertEquals(4, result.placement());
+    }
+
+    @Test
+    public void testDeadline() {
+        // Every iteration takes four times as long as the previous one: 1, 4, 16, 64, 256 ms.
+        SearchController controller = new SearchController("Test", SearchController.NEVER);
+        long budget = TimeUnit.MILLISECONDS.toNanos(120);
+        long start = System.nanoTime();
+        SearchController.Result result = controller.search(
+            search(controller, depth -> depth, 99, depth -> 1 << (2 * depth - 2)), 20, budget);
+        long elapsed = System.nanoTime() - start;
+        Assertions.assertNotNull(result);
+        Assertions.assertTrue(elapsed < budget + TimeUnit.MILLISECONDS.toNanos(50), "took " + elapsed / 1e6 + " ms");
+        // The best-so-far placement is that of the deepest completed iteration.
+        Assertions.assertEquals(result.depth(), result.placement());
+        Assertions.assertTrue(result.stop() == SearchController.Stop.OUT_OF_TIME
+            || result.stop() == SearchController.Stop.DEADLINE, result.stop().toString());
+        Assertions.assertTrue(result.nodes() > 0 && result.getNodesPerSecond() > 0);
+
+        // A search that cannot complete its first iteration has no result.
+        Assertions.assertNull(controller.search(search(controller, depth -> depth, 99, depth -> 1000), 20,
+            TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    public void testClock() {
+        GameClock clock = new GameClock(TimeUnit.SECONDS.toNanos(60), TimeUnit.SECONDS.toNanos(1));
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(7), clock.allocate(10));
+        // A single move never gets more than a quarter of the remaining time.
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(16), clock.allocate(1));
+        clock.spend(TimeUnit.SECONDS.toNanos(7));
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(54), clock.getRemainingNanos());
+        clock.spend(TimeUnit.SECONDS.toNanos(100));
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(1), clock.getRemainingNanos());
+    }
+}
@@ -0,0 +1,76 @@
+package nl.supertom01.triominos.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nl.supertom01.triominos.simulation.GameResult;
+import nl.supertom01.triominos.simulation.SimulationReport;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SimulationReportTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testRoundTrip() {
+        GameResult[] results = {
+            new GameResult(1, 12_345_678, new int[]{412, 97}),
+            new GameResult(-7, 0, new int[]{-5, -30, 1250}),
+            new GameResult(Long.MAX_VALUE, Long.MAX_VALUE, new int[]{0, 0, 0, 0}),
+        };
+        for (GameResult result : results) {
+            GameResult parsed = GameResult.parse(result.toLine());
+            Assertions.assertEquals(result.seed(), parsed.seed());
+            Assertions.assertEquals(result.nanos(), parsed.nanos());
+            Assertions.assertArrayEquals(result.points(), parsed.points());
+            Assertions.assertEquals(result.getWinner(), parsed.getWinner());
+            Assertions.assertEquals(result.toLine(), parsed.toLine());
+        }
+        Assertions.assertEquals(0, results[0].getWinner());
+        Assertions.assertEquals(2, results[1].getWinner());
+        Assertions.assertEquals(-1, results[2].getWinner());
+
+        // Lines that a worker garbled are rejected, rather than counted as a game.
+        for (String line : new String[]{"", "1 2", "1 2 x", "1 2 3.5", "1 2  3", "DON", "12345678901234567890 1 2"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> GameResult.parse(line), line);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(3);
+        List<GameResult> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int first = random.nextInt(1200) - 20;
+            // Every tenth game is a tie.
+            int second = i % 10 == 0 ? first : random.nextInt(1200) - 20;
+            results.add(new GameResult(i, random.nextInt(1_000_000), new int[]{first, second}));
+        }
+
+        SimulationReport all = new SimulationReport("hard", "easy");
+        SimulationReport[] shards = {new SimulationReport("hard", "easy"), new SimulationReport("hard", "easy"),
+            new SimulationReport("hard", "easy")};
+        for (GameResult result : results) {
+            all.add(result);
+            shards[(int) (result.seed() % 3)].add(result);
+        }
+        SimulationReport merged = new SimulationReport("hard", "easy");
+        for (SimulationReport shard : shards) {
+            merged.merge(shard);
+        }
+        // An empty report does not change the minimum and maximum scores.
+        merged.merge(new SimulationReport("hard", "easy"));
+        all.setElapsedNanos(2_000_000_000L);
+        merged.setElapsedNanos(2_000_000_000L);
+
+        Assertions.assertEquals(200, merged.getGames());
+        Assertions.assertEquals(100, merged.getGamesPerSecond(), DELTA);
+        for (int seat = 0; seat < 2; seat++) {
+            Assertions.assertEquals(all.getWinRate(seat), merged.getWinRate(seat), DELTA);
+            Assertions.assertEquals(all.getMeanScore(seat), merged.getMeanScore(seat), DELTA);
+        }
+        Assertions.assertEquals(1, all.getWinRate(0) + all.getWinRate(1) + 0.1, DELTA);
+        Assertions.assertEquals(all.toString(), merged.toString());
+    }
+}
@@ -0,0 +1,86 @@
+package nl.supertom01.triominos.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.spectator.GameEvent;
+import nl.supertom01.triominos.spectator.SpectatorFeed;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SpectatorFeedTest {
+
+    /** Collects the events, but only requests them when asked to. */
+    private static class Spectator implements Flow.Subscriber<GameEvent> {
+
+        private final List<GameEvent> events = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private boolean complete;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(GameEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            Assertions.fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+
+    @Test
+    public void testOverflowPolicies() {
+        // Deliver on the game thread, such that the test is deterministic.
+        SpectatorFeed feed = new SpectatorFeed(Runnable::run);
+        Spectator all = new Spectator();
+        Spectator oldest = new Spectator();
+        Spectator newest = new Spectator();
+        Spectator latest = new Spectator();
+        feed.subscribe(all, 1 << 20, SpectatorFeed.Overflow.DROP_NEWEST);
+        feed.subscribe(oldest, 3, SpectatorFeed.Overflow.DROP_OLDEST);
+        feed.subscribe(newest, 3, SpectatorFeed.Overflow.DROP_NEWEST);
+        feed.subscribe(latest, 3, SpectatorFeed.Overflow.LATEST);
+        all.subscription.request(Long.MAX_VALUE);
+
+        Game game = new Game(new Player[]{new EasyPlayer(), new EasyPlayer()}, 1);
+        game.addListener(feed);
+        game.play();
+        feed.close();
+
+        // The subscriber that keeps up sees every event in order.
+        Assertions.assertTrue(all.complete);
+        for (int i = 0; i < all.events.size(); i++) {
+            Assertions.assertEquals(i, all.events.get(i).sequence());
+        }
+        Assertions.assertEquals(GameEvent.Type.ROUND_STARTED, all.events.get(0).type());
+        GameEvent last = all.events.get(all.events.size() - 1);
+        Assertions.assertEquals(GameEvent.Type.GAME_FINISHED, last.type());
+
+        // The others did not request anything during the game.
+        for (Spectator spectator : List.of(oldest, newest, latest)) {
+            Assertions.assertTrue(spectator.events.isEmpty());
+            Assertions.assertFalse(spectator.complete);
+            spectator.subscription.request(Long.MAX_VALUE);
+            Assertions.assertTrue(spectator.complete);
+        }
+        Assertions.assertEquals(all.events.subList(all.events.size() - 3, all.events.size()), oldest.events);
+        Assertions.assertEquals(all.events.subList(0, 3), newest.events);
+        Assertions.assertEquals(List.of(last), latest.events);
+        Assertions.assertArrayEquals(new int[]{game.getPlayers()[0].getPoints(), game.getPlayers()[1].getPoints()},
+            last.scores());
+        Assertions.assertEquals(0, feed.getSubscriberCount());
+    }
+}
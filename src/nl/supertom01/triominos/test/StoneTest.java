@@ -6,8 +6,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class StoneTest {
 
@@ -66,4 +68,36 @@ public class StoneTest {
         assertStoneEquals(expected, stone);
     }
 
+    @Test
+    public void idTest() {
+        // Each of the stones in the game has its own id.
+        List<Stone> stones = Stone.shuffle();
+        long mask = 0;
+        for (Stone s : stones) {
+            assertTrue(s.getId() >= 0);
+            mask |= s.getMask();
+        }
+        assertEquals(Stone.ALL, mask);
+
+        // Rotating a stone does not change its id.
+        int id = stone.getId();
+        for (int i = 0; i < 5; i++) {
+            stone.rotateRight();
+            assertEquals(id, stone.getId());
+            assertEquals(id, Stone.idOf(stone.getValues()[0], stone.getValues()[1], stone.getValues()[2]));
+        }
+        assertEquals(-1, new Stone(-1, -1, -1).getId());
+    }
+
+    @Test
+    public void rotationsTest() {
+        // Setting the rotations a stone already has does not change it, whichever rotation it is in.
+        for (int rotations = 0; rotations < 6; rotations++) {
+            stone.setRotations(rotations);
+            Stone copy = stone.copy();
+            stone.setRotations(stone.getRotations());
+            assertStoneEquals(copy, stone);
+        }
+    }
+
 }
@@ -0,0 +1,108 @@
+package nl.supertom01.triominos.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import nl.supertom01.triominos.ai.EndgameSolver;
+import nl.supertom01.triominos.ai.TranspositionTable;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.Zobrist;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testZobrist() throws PlacementException {
+        long first = Placement.of(56, 56, Stone.idOf(0, 0, 0), 0);
+        long second = Placement.of(57, 56, Stone.idOf(0, 0, 1), 1);
+        Board board = new Board(0);
+        Board reversed = new Board(0);
+        board.placeStone(Placement.toMove(first, board));
+        Assertions.assertNotEquals(0, board.getHash());
+        Assertions.assertNotEquals(0, board.getCanonicalHash());
+        board.placeStone(Placement.toMove(second, board));
+        reversed.placeStone(Placement.toMove(second, reversed));
+        reversed.placeStone(Placement.toMove(first, reversed));
+        Assertions.assertEquals(board.getHash(), reversed.getHash());
+
+        long hand = 1L << 3 | 1L << 40;
+        Assertions.assertEquals(Zobrist.stone(1, 3) ^ Zobrist.stone(1, 40), Zobrist.hand(1, hand));
+        Assertions.assertNotEquals(Zobrist.hand(0, hand), Zobrist.hand(1, hand));
+    }
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(4);
+        long move = Placement.of(60, 51, 55, 5);
+        long data = TranspositionTable.pack(move, -321, 17, TranspositionTable.LOWER, true);
+        Assertions.assertEquals(move, TranspositionTable.getMove(data));
+        Assertions.assertEquals(-321, TranspositionTable.getValue(data));
+        Assertions.assertEquals(17, TranspositionTable.getDepth(data));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(data));
+        Assertions.assertTrue(TranspositionTable.getFlag(data));
+        Assertions.assertEquals(EndgameSolver.PASS,
+            TranspositionTable.getMove(TranspositionTable.pack(EndgameSolver.PASS, 0, 1, 0, false)));
+
+        Assertions.assertEquals(TranspositionTable.MISSING, table.probe(42));
+        table.store(42, data);
+        Assertions.assertEquals(-321, TranspositionTable.getValue(table.probe(42)));
+        Assertions.assertEquals(TranspositionTable.MISSING, table.probe(43));
+
+        // Keys 42, 50, 58 and so on share a bucket with room for two entries: a third replaces the shallowest.
+        table.store(50, TranspositionTable.pack(move, 1, 30, TranspositionTable.EXACT, false));
+        Assertions.assertNotEquals(TranspositionTable.MISSING, table.probe(42));
+        table.store(58, TranspositionTable.pack(move, 2, 5, TranspositionTable.EXACT, false));
+        Assertions.assertEquals(TranspositionTable.MISSING, table.probe(42));
+        table.store(66, TranspositionTable.pack(move, 3, 1, TranspositionTable.EXACT, false));
+        Assertions.assertEquals(TranspositionTable.MISSING, table.probe(58));
+        Assertions.assertEquals(1, TranspositionTable.getValue(table.probe(50)));
+        Assertions.assertEquals(3, TranspositionTable.getValue(table.probe(66)));
+
+        // After a new search, the entries of the earlier one are replaced first, however deep they are.
+        table.newSearch();
+        table.store(74, TranspositionTable.pack(move, 4, 1, TranspositionTable.EXACT, false));
+        table.store(82, TranspositionTable.pack(move, 5, 1, TranspositionTable.EXACT, false));
+        Assertions.assertEquals(TranspositionTable.MISSING, table.probe(50));
+        Assertions.assertEquals(4, TranspositionTable.getValue(table.probe(74)));
+        Assertions.assertEquals(5, TranspositionTable.getValue(table.probe(82)));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        // Every thread stores values that are derived from the key, a probe should never see a mixed entry.
+        TranspositionTable table = new TranspositionTable(6);
+        AtomicLong corrupted = new AtomicLong();
+        AtomicLong found = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong(1, 512) * 0x9E3779B97F4A7C15L;
+                    int value = (int) (key >>> 50);
+                    long data = table.probe(key);
+                    if(data != TranspositionTable.MISSING) {
+                        found.incrementAndGet();
+                        if(TranspositionTable.getValue(data) != value) {
+                            corrupted.incrementAndGet();
+                        }
+                    }
+                    table.store(key, TranspositionTable.pack(EndgameSolver.PASS, value, i & 0x7F,
+                        TranspositionTable.EXACT, false));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertTrue(found.get() > 0);
+        Assertions.assertEquals(0, corrupted.get());
+    }
+}
@@ -0,0 +1,248 @@
+package nl.supertom01.triominos.tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The Elo ratings and results of the players of a tournament, which can be updated from many threads at once.
+ * All the standings are held in a single immutable {@link Snapshot}. Recording a game builds the next snapshot and
+ * swaps it in with a compare-and-set, retrying if another game was recorded in between. No thread ever waits for a
+ * lock, and a snapshot that has been read is always consistent: every game counts in the ratings, the totals and the
+ * head-to-head tables at the same time.
+ */
+public class Leaderboard {
+
+    public static final double DEFAULT_RATING = 1500;
+    public static final double DEFAULT_K_FACTOR = 16;
+
+    /** The z-value of a 95% confidence interval. */
+    private static final double Z = 1.96;
+
+    private final String[] players;
+    private final Map<String, Integer> indices;
+    private final double kFactor;
+    private final AtomicReference<Snapshot> snapshot;
+
+    /**
+     * Creates a leaderboard with every player at the default rating.
+     * @param players The names of the players.
+     */
+    public Leaderboard(String... players) {
+        this(DEFAULT_RATING, DEFAULT_K_FACTOR, players);
+    }
+
+    /**
+     * Creates a leaderboard.
+     * @param initialRating The rating of every player at the start.
+     * @param kFactor       The largest change in rating that a single game can cause.
+     * @param players       The names of the players, which should be unique.
+     */
+    public Leaderboard(double initialRating, double kFactor, String... players) {
+        this.players = players.clone();
+        this.kFactor = kFactor;
+        this.indices = new HashMap<>();
+        for (int i = 0; i < players.length; i++) {
+            if(this.indices.put(players[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate player: " + players[i]);
+            }
+        }
+        int n = players.length;
+        double[] ratings = new double[n];
+        Arrays.fill(ratings, initialRating);
+        this.snapshot = new AtomicReference<>(new Snapshot(0, ratings, new long[n][n], new long[n][n],
+            new long[n][n], new long[n][n]));
+    }
+
+    /**
+     * Records the outcome of a game between two players.
+     * @param player   The name of the first player.
+     * @param opponent The name of the second player.
+     * @param points   The points of the first player.
+     * @param opponentPoints The points of the second player.
+     */
+    public void record(String player, String opponent, int points, int opponentPoints) {
+        int a = indexOf(player);
+        int b = indexOf(opponent);
+        if(a == b) {
+            throw new IllegalArgumentException("A player cannot play against itself.");
+        }
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            next = current.with(a, b, points, opponentPoints, kFactor);
+        } while (!snapshot.compareAndSet(current, next));
+    }
+
+    private int indexOf(String player) {
+        Integer index = indices.get(player);
+        if(index == null) {
+            throw new IllegalArgumentException("Unknown player: " + player);
+        }
+        return index;
+    }
+
+    /**
+     * Get the current standings. The snapshot does not change anymore, later games go into a new snapshot.
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * An immutable state of the leaderboard. The tables are indexed by the position of the players in the
+     * constructor of the leaderboard; a table entry [a][b] is about the games of a against b.
+     */
+    public final class Snapshot {
+
+        private final long games;
+        private final double[] ratings;
+        private final long[][] wins;
+        private final long[][] losses;
+        private final long[][] draws;
+        private final long[][] scoreDifference;
+
+        private Snapshot(long games, double[] ratings, long[][] wins, long[][] losses, long[][] draws,
+                         long[][] scoreDifference) {
+            this.games = games;
+            this.ratings = ratings;
+            this.wins = wins;
+            this.losses = losses;
+            this.draws = draws;
+            this.scoreDifference = scoreDifference;
+        }
+
+        /**
+         * Creates the snapshot after a game. Only the rows of the two players are copied, the other rows are shared
+         * with this snapshot, since they never change.
+         */
+        private Snapshot with(int a, int b, int pointsA, int pointsB, double kFactor) {
+            double expected = 1 / (1 + Math.pow(10, (ratings[b] - ratings[a]) / 400));
+            double actual = pointsA > pointsB ? 1 : pointsA < pointsB ? 0 : 0.5;
+            double[] nextRatings = ratings.clone();
+            nextRatings[a] += kFactor * (actual - expected);
+            nextRatings[b] -= kFactor * (actual - expected);
+
+            long[][] nextWins = copyRows(wins, a, b);
+            long[][] nextLosses = copyRows(losses, a, b);
+            long[][] nextDraws = copyRows(draws, a, b);
+            long[][] nextDifference = copyRows(scoreDifference, a, b);
+            if(actual == 1) {
+                nextWins[a][b]++;
+                nextLosses[b][a]++;
+            } else if(actual == 0) {
+                nextLosses[a][b]++;
+                nextWins[b][a]++;
+            } else {
+                nextDraws[a][b]++;
+                nextDraws[b][a]++;
+            }
+            nextDifference[a][b] += pointsA - pointsB;
+            nextDifference[b][a] += pointsB - pointsA;
+            return new Snapshot(games + 1, nextRatings, nextWins, nextLosses, nextDraws, nextDifference);
+        }
+
+        private static long[][] copyRows(long[][] table, int a, int b) {
+            long[][] copy = table.clone();
+            copy[a] = table[a].clone();
+            copy[b] = table[b].clone();
+            return copy;
+        }
+
+        /**
+         * Get the number of games that have been recorded.
+         * @return The number of games.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Get the standing of a player.
+         * @param player The name of the player.
+         * @return The standing.
+         */
+        public Standing getStanding(String player) {
+            int a = indexOf(player);
+            long won = 0;
+            long lost = 0;
+            long tied = 0;
+            long difference = 0;
+            for (int b = 0; b < players.length; b++) {
+                won += wins[a][b];
+                lost += losses[a][b];
+                tied += draws[a][b];
+                difference += scoreDifference[a][b];
+            }
+            long played = won + lost + tied;
+            return new Standing(player, ratings[a], margin(played, won + tied / 2.0), played, won, lost, tied,
+                difference);
+        }
+
+        /**
+         * Get the standings of all the players, the highest rating first.
+         * @return The standings.
+         */
+        public List<Standing> getStandings() {
+            List<Standing> standings = new ArrayList<>(players.length);
+            for (String player : players) {
+                standings.add(getStanding(player));
+            }
+            standings.sort(Comparator.comparingDouble(Standing::rating).reversed());
+            return standings;
+        }
+
+        /**
+         * Get the results of one player against another.
+         * @param player   The name of the player.
+         * @param opponent The name of the opponent.
+         * @return The wins, losses, ties and the score difference of the player in these games.
+         */
+        public long[] getHeadToHead(String player, String opponent) {
+            int a = indexOf(player);
+            int b = indexOf(opponent);
+            return new long[]{wins[a][b], losses[a][b], draws[a][b], scoreDifference[a][b]};
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("games=%d%n", games));
+            int rank = 1;
+            for (Standing standing : getStandings()) {
+                builder.append(String.format("%2d. %-16s %7.1f +/-%-6.1f games=%d +%d -%d =%d diff=%+d%n", rank++,
+                    standing.player(), standing.rating(), standing.margin(), standing.games(), standing.wins(),
+                    standing.losses(), standing.draws(), standing.scoreDifference()));
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Converts the standard error of a score into a margin in Elo points. The score s of n games has a standard error
+     * of sqrt(s(1 - s) / n); both ends of the confidence interval of the score are mapped to the rating difference
+     * that predicts them.
+     */
+    private static double margin(long games, double score) {
+        if(games == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double s = score / games;
+        double error = Math.sqrt(s * (1 - s) / games);
+        double low = s - Z * error;
+        double high = s + Z * error;
+        if(error == 0 || low <= 0 || high >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (elo(high) - elo(low)) / 2;
+    }
+
+    private static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package nl.supertom01.triominos.tournament;
+
+/**
+ * The standing of a single player in a {@link Leaderboard.Snapshot}.
+ * @param player          The name of the player.
+ * @param rating          The Elo rating.
+ * @param margin          Half the width of the 95% confidence interval of the rating, derived from the score of the
+ *                        player in its games. Infinite until the player has both won and lost.
+ * @param games           The number of games played.
+ * @param wins            The number of games won.
+ * @param losses          The number of games lost.
+ * @param draws           The number of games that ended in a tie.
+ * @param scoreDifference The total of the points of the player minus those of its opponents.
+ */
+public record Standing(String player, double rating, double margin, long games, long wins, long losses, long draws,
+                       long scoreDifference) {
+
+    /**
+     * Get the fraction of the games that was won, counting a tie as half a win.
+     * @return The score, between 0 and 1.
+     */
+    public double getScore() {
+        return games == 0 ? 0 : (wins + draws / 2.0) / games;
+    }
+}
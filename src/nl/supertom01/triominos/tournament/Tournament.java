@@ -0,0 +1,100 @@
+package nl.supertom01.triominos.tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import nl.supertom01.triominos.simulation.GameResult;
+import nl.supertom01.triominos.simulation.Simulator;
+
+/**
+ * A round-robin tournament between bots: every pair of bots plays the same seeds twice, once with each bot in the
+ * first seat. The games are played on several threads, and each finished game is recorded in the {@link Leaderboard}
+ * right away, so the standings can be followed while the tournament runs.
+ */
+public class Tournament {
+
+    private final String[] bots;
+    private final Leaderboard leaderboard;
+
+    /**
+     * Creates a tournament.
+     * @param bots The names of the bots, see {@link Simulator#createPlayer(String)}.
+     */
+    public Tournament(String... bots) {
+        this.bots = bots.clone();
+        this.leaderboard = new Leaderboard(bots);
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Plays the tournament.
+     * @param firstSeed The seed of the first game of each pairing.
+     * @param games     The number of seeds that each pair of bots plays, in both seat orders.
+     * @param threads   The number of threads.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the games.
+     */
+    public void run(long firstSeed, int games, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int a = 0; a < bots.length; a++) {
+                for (int b = 0; b < bots.length; b++) {
+                    if(a == b) {
+                        continue;
+                    }
+                    String first = bots[a];
+                    String second = bots[b];
+                    Simulator simulator = new Simulator(first, second);
+                    for (int thread = 0; thread < threads; thread++) {
+                        long from = firstSeed + (long) games * thread / threads;
+                        long to = firstSeed + (long) games * (thread + 1) / threads;
+                        futures.add(executor.submit(() -> simulator.run(from, to - from, result -> record(first,
+                            second, result))));
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void record(String first, String second, GameResult result) {
+        leaderboard.record(first, second, result.points()[0], result.points()[1]);
+    }
+
+    /**
+     * Usage: {@code Tournament <games per pairing> <bot> <bot> [bot...]}
+     * Prints the standings every second while the tournament runs.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 3) {
+            System.err.println("Usage: Tournament <games per pairing> <bot> <bot> [bot...]");
+            System.exit(2);
+        }
+        Tournament tournament = new Tournament(Arrays.copyOfRange(args, 1, args.length));
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournament-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> System.out.print(tournament.getLeaderboard().snapshot()), 1, 1,
+            TimeUnit.SECONDS);
+        tournament.run(0, Integer.parseInt(args[0]), Runtime.getRuntime().availableProcessors());
+        reporter.shutdownNow();
+        System.out.print(tournament.getLeaderboard().snapshot());
+    }
+}
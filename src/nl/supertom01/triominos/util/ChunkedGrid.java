@@ -0,0 +1,134 @@
+package nl.supertom01.triominos.util;
+
+/**
+ * A two-dimensional grid that can be addressed by any int coordinate. The cells are stored in chunks of
+ * {@value #CHUNK} x {@value #CHUNK} cells, which are only allocated once a value is stored in them, so the memory
+ * follows the cells that are actually used instead of the largest area that could be used.
+ *
+ * The chunks are found through a directory that covers the bounding box of the allocated chunks and grows (doubling
+ * its size) when a value is stored outside of it. A lookup is therefore two array reads, without hashing. Reading a
+ * cell outside the directory simply gives null, so there is no edge to guard against.
+ *
+ * Chunks are kept when their cells are cleared, such that a grid can be refilled without allocating.
+ * @param <T> The type of the values in the cells.
+ */
+public class ChunkedGrid<T> {
+
+    /** The width and height of a chunk, as a power of two. */
+    public static final int CHUNK_BITS = 4;
+    public static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+
+    /** The chunks, by (chunk x - left) * height + (chunk y - top), or null where nothing has been stored yet. */
+    private Object[][] chunks;
+    private int left;
+    private int top;
+    private int width;
+    private int height;
+    private int chunkCount;
+
+    public ChunkedGrid() {
+        this.chunks = new Object[0][];
+    }
+
+    /**
+     * Get the value of a cell.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The value, or null if nothing is stored in the cell.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int x, int y) {
+        int column = (x >> CHUNK_BITS) - left;
+        int row = (y >> CHUNK_BITS) - top;
+        if((column | row) < 0 || column >= width || row >= height) {
+            return null;
+        }
+        Object[] chunk = chunks[column * height + row];
+        return chunk == null ? null : (T) chunk[((x & MASK) << CHUNK_BITS) | (y & MASK)];
+    }
+
+    /**
+     * Stores a value in a cell, allocating its chunk if needed.
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param value The value, or null to clear the cell.
+     * @return The value that was stored in the cell before, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public T set(int x, int y, T value) {
+        int chunkX = x >> CHUNK_BITS;
+        int chunkY = y >> CHUNK_BITS;
+        if(chunkX < left || chunkY < top || chunkX >= left + width || chunkY >= top + height) {
+            if(value == null) {
+                return null;
+            }
+            grow(chunkX, chunkY);
+        }
+        int index = (chunkX - left) * height + chunkY - top;
+        Object[] chunk = chunks[index];
+        if(chunk == null) {
+            if(value == null) {
+                return null;
+            }
+            chunk = new Object[CHUNK * CHUNK];
+            chunks[index] = chunk;
+            chunkCount++;
+        }
+        int cell = ((x & MASK) << CHUNK_BITS) | (y & MASK);
+        T previous = (T) chunk[cell];
+        chunk[cell] = value;
+        return previous;
+    }
+
+    /**
+     * Enlarges the directory such that it covers the provided chunk, with room to grow in each direction in which it
+     * had to be extended.
+     */
+    private void grow(int chunkX, int chunkY) {
+        int newLeft;
+        int newTop;
+        int newWidth;
+        int newHeight;
+        if(width == 0) {
+            newLeft = chunkX - 1;
+            newTop = chunkY - 1;
+            newWidth = 3;
+            newHeight = 3;
+        } else {
+            newLeft = chunkX < left ? Math.min(chunkX, left - width) : left;
+            newTop = chunkY < top ? Math.min(chunkY, top - height) : top;
+            int right = chunkX >= left + width ? Math.max(chunkX + 1, left + 2 * width) : left + width;
+            int bottom = chunkY >= top + height ? Math.max(chunkY + 1, top + 2 * height) : top + height;
+            newWidth = right - newLeft;
+            newHeight = bottom - newTop;
+        }
+        Object[][] grown = new Object[Math.multiplyExact(newWidth, newHeight)][];
+        for (int column = 0; column < width; column++) {
+            for (int row = 0; row < height; row++) {
+                grown[(column + left - newLeft) * newHeight + row + top - newTop] = chunks[column * height + row];
+            }
+        }
+        chunks = grown;
+        left = newLeft;
+        top = newTop;
+        width = newWidth;
+        height = newHeight;
+    }
+
+    /**
+     * Get the number of chunks that have been allocated.
+     * @return The number of chunks, each holding {@value #CHUNK} x {@value #CHUNK} cells.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Get the number of slots in the directory of chunks.
+     * @return The number of slots, which covers the bounding box of the chunks.
+     */
+    public int getDirectorySize() {
+        return chunks.length;
+    }
+}
@@ -0,0 +1,58 @@
+package nl.supertom01.triominos.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive longs, which can be cleared and refilled without allocating.
+ */
+public class LongList {
+
+    private long[] items;
+    private int size;
+
+    public LongList() {
+        this(64);
+    }
+
+    public LongList(int capacity) {
+        this.items = new long[Math.max(1, capacity)];
+        this.size = 0;
+    }
+
+    public void add(long item) {
+        if(size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = item;
+    }
+
+    public long get(int index) {
+        if(index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return items[index];
+    }
+
+    public void set(int index, long item) {
+        if(index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        items[index] = item;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+}
@@ -0,0 +1,337 @@
+package nl.supertom01.triominos.verification;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.StoneVariants;
+import nl.supertom01.triominos.util.LongList;
+import nl.supertom01.triominos.util.Tuple;
+
+/**
+ * Plays random seeded games and compares, in every position, the answers of the optimised {@link Board} with those
+ * of the {@link ReferenceBoard}: the open fields, the legality of every stone of the hand in every rotation on every
+ * open field, the generated placements and the points of each legal placement.
+ * A divergence is shrunk to a smallest record that still diverges, by leaving out placements and stones of the hand
+ * for as long as the engines keep disagreeing.
+ */
+public class DifferentialVerifier {
+
+    /** The maximum number of stones in the random hand of a position. */
+    public static final int HAND_SIZE = 8;
+
+    /** The number of hands in a row without a legal placement after which a game ends. */
+    public static final int MAX_DRAWS = 5;
+
+    /** The maximum number of divergences that are collected by a run, the others are only counted. */
+    public static final int MAX_DIVERGENCES = 10;
+
+    /**
+     * A position in which the engines do not agree.
+     * @param record      The position.
+     * @param description What the engines disagree on.
+     */
+    public record Divergence(GameRecord record, String description) {
+    }
+
+    /**
+     * The outcome of a run.
+     * @param games       The number of games that have been played.
+     * @param positions   The number of positions that have been compared.
+     * @param comparisons The number of moves of which the legality has been compared.
+     * @param nanos       The time the run took.
+     * @param divergences The first divergences that were found, shrunk.
+     */
+    public record Report(long games, long positions, long comparisons, long nanos, List<Divergence> divergences) {
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format(
+                "games=%d positions=%d comparisons=%d (%.0f/s) divergences=%d%n", games, positions, comparisons,
+                comparisons / (nanos / 1e9), divergences.size()));
+            for (Divergence divergence : divergences) {
+                builder.append(divergence.description()).append(System.lineSeparator())
+                    .append("  ").append(divergence.record()).append(System.lineSeparator());
+            }
+            return builder.toString();
+        }
+    }
+
+    private final LongAdder positions = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+
+    /**
+     * Plays the games of a range of seeds on several threads.
+     * @param firstSeed The seed of the first game.
+     * @param games     The number of games.
+     * @param threads   The number of threads.
+     * @return The report, with at most {@link #MAX_DIVERGENCES} divergences.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the games.
+     */
+    public Report run(long firstSeed, long games, int threads) throws InterruptedException {
+        positions.reset();
+        comparisons.reset();
+        AtomicLong next = new AtomicLong(firstSeed);
+        LongAdder played = new LongAdder();
+        Queue<Divergence> divergences = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (long seed = next.getAndIncrement(); seed < firstSeed + games; seed = next.getAndIncrement()) {
+                        Divergence divergence = verify(seed);
+                        played.increment();
+                        if(divergence != null && divergences.size() < MAX_DIVERGENCES) {
+                            divergences.add(shrink(divergence));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Report(played.sum(), positions.sum(), comparisons.sum(), System.nanoTime() - start,
+            new ArrayList<>(divergences));
+    }
+
+    /**
+     * Plays a single random game, comparing the engines in every position.
+     * Each turn a random hand is taken from the stones that are not on the board yet, and one of its legal
+     * placements is played. The game ends when {@link #MAX_DRAWS} hands in a row have no legal placements.
+     * @param seed The seed of the game.
+     * @return The first divergence, or null if the engines agreed on the whole game.
+     */
+    public Divergence verify(long seed) {
+        Random random = new Random(seed);
+        Board board = new Board();
+        ReferenceBoard reference = new ReferenceBoard();
+        LongList played = new LongList();
+        LongList placements = new LongList();
+        int stuck = 0;
+        while (board.getBoardMask() != Stone.ALL && stuck < MAX_DRAWS) {
+            long hand = randomHand(random, Stone.ALL & ~board.getBoardMask());
+            String description = check(board, reference, hand);
+            if(description != null) {
+                return new Divergence(new GameRecord(seed, played.toArray(), hand), description);
+            }
+
+            placements.clear();
+            if(board.generatePlacements(hand, placements) == 0) {
+                stuck++;
+                continue;
+            }
+            stuck = 0;
+            long placement = placements.get(random.nextInt(placements.size()));
+            Move move = Placement.toMove(placement, board);
+            try {
+                board.placeStone(move);
+            } catch (PlacementException e) {
+                return new Divergence(new GameRecord(seed, played.toArray(), hand),
+                    "Generated a placement on a taken cell: " + e.getMessage());
+            }
+            reference.placeStone(move);
+            played.add(placement);
+        }
+        return null;
+    }
+
+    private static long randomHand(Random random, long stones) {
+        int size = 1 + random.nextInt(Math.min(HAND_SIZE, Long.bitCount(stones)));
+        long hand = 0;
+        for (int i = 0; i < size; i++) {
+            long left = stones & ~hand;
+            int skip = random.nextInt(Long.bitCount(left));
+            for (int j = 0; j < skip; j++) {
+                left &= left - 1;
+            }
+            hand |= Long.lowestOneBit(left);
+        }
+        return hand;
+    }
+
+    /**
+     * Compares the engines on the position of a record.
+     * @param record The position.
+     * @return A description of the first disagreement, or null if the engines agree.
+     */
+    public String check(GameRecord record) {
+        Board board = new Board();
+        ReferenceBoard reference = new ReferenceBoard();
+        record.replay(board, reference);
+        return check(board, reference, record.hand());
+    }
+
+    private String check(Board board, ReferenceBoard reference, long hand) {
+        positions.increment();
+
+        // The open fields, and their orientation.
+        Map<Long, Orientation> fields = new HashMap<>();
+        for (Tuple<Tuple<Integer, Integer>, Orientation> field : reference.getOpenFields()) {
+            fields.put(Placement.of(field.getLeft().getLeft(), field.getLeft().getRight(), 0, 0), field.getRight());
+        }
+        Set<Long> open = new HashSet<>();
+        for (Tuple<Tuple<Integer, Integer>, Orientation> field : board.getOpenFields()) {
+            open.add(Placement.of(field.getLeft().getLeft(), field.getLeft().getRight(), 0, 0));
+        }
+        if(!open.equals(fields.keySet())) {
+            return String.format("getOpenFields: expected %d fields, was %d", fields.size(), open.size());
+        }
+        for (Map.Entry<Long, Orientation> field : fields.entrySet()) {
+            int x = Placement.getX(field.getKey());
+            int y = Placement.getY(field.getKey());
+            if(board.getOpenFieldOrientation(x, y) != field.getValue()) {
+                return String.format("getOpenFieldOrientation(%d,%d): expected %s, was %s", x, y, field.getValue(),
+                    board.getOpenFieldOrientation(x, y));
+            }
+        }
+
+        // On an empty board, the first stone goes in the middle.
+        List<Tuple<Long, Orientation>> probes = new ArrayList<>();
+        if(reference.isEmpty()) {
+            for (Orientation orientation : Orientation.values()) {
+                probes.add(new Tuple<>(Placement.of(Board.NR_STONES, Board.NR_STONES, 0, 0), orientation));
+            }
+        } else {
+            for (Map.Entry<Long, Orientation> field : fields.entrySet()) {
+                probes.add(new Tuple<>(field.getKey(), field.getValue()));
+            }
+        }
+
+        // The legality and the points of every stone in every rotation on every field.
+        int stonesInHand = Long.bitCount(hand);
+        long[] fits = new long[StoneVariants.ROTATIONS];
+        Set<Long> expected = new HashSet<>();
+        long playable = 0;
+        long compared = 0;
+        for (Tuple<Long, Orientation> probe : probes) {
+            int x = Placement.getX(probe.getLeft());
+            int y = Placement.getY(probe.getLeft());
+            Orientation orientation = probe.getRight();
+            board.fitStones(x, y, orientation, hand, fits);
+            for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+                int rotations = StoneVariants.rightRotations(orientation, rotation);
+                long unique = StoneVariants.unique(orientation, rotation);
+                for (long mask = hand; mask != 0; mask &= mask - 1) {
+                    int id = Long.numberOfTrailingZeros(mask);
+                    Move move = Placement.toMove(Placement.of(x, y, id, rotations), board.getStone(id));
+                    boolean legal = reference.isValidMove(move);
+                    compared++;
+                    if(board.isValidMove(move) != legal) {
+                        return String.format("isValidMove(#%d r%d at %d,%d): expected %b", id, rotations, x, y, legal);
+                    }
+                    boolean fit = (fits[rotation] & (1L << id)) != 0;
+                    if(fit != (legal && (unique & (1L << id)) != 0)) {
+                        return String.format("fitStones(#%d r%d at %d,%d): expected %b", id, rotations, x, y, !fit);
+                    }
+                    if(legal) {
+                        playable |= 1L << id;
+                        int points = reference.determinePoints(move, stonesInHand);
+                        if(board.determinePoints(move, stonesInHand) != points) {
+                            return String.format("determinePoints(#%d r%d at %d,%d): expected %d, was %d", id,
+                                rotations, x, y, points, board.determinePoints(move, stonesInHand));
+                        }
+                        if(fit) {
+                            expected.add(Placement.of(x, y, id, rotations));
+                        }
+                    }
+                }
+            }
+        }
+        comparisons.add(compared);
+
+        LongList placements = new LongList();
+        board.generatePlacements(hand, placements);
+        Set<Long> generated = new HashSet<>();
+        for (int i = 0; i < placements.size(); i++) {
+            generated.add(placements.get(i));
+        }
+        if(generated.size() != placements.size() || !generated.equals(expected)) {
+            return String.format("generatePlacements: expected %d placements, was %d", expected.size(),
+                placements.size());
+        }
+        if(board.getPlayableStones(hand) != playable) {
+            return String.format("getPlayableStones: expected %x, was %x", playable, board.getPlayableStones(hand));
+        }
+        if(board.determinePoints(null, stonesInHand) != reference.determinePoints(null, stonesInHand)) {
+            return "determinePoints(draw)";
+        }
+        return null;
+    }
+
+    /**
+     * Shrinks a divergence by leaving out placements and stones of the hand, as long as the engines keep disagreeing.
+     * @param divergence The divergence.
+     * @return A divergence of which no single placement or stone can be left out.
+     */
+    public Divergence shrink(Divergence divergence) {
+        GameRecord record = divergence.record();
+        String description = divergence.description();
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (int i = record.size() - 1; i >= 0; i--) {
+                GameRecord smaller = record.withoutPlacement(i);
+                String smallerDescription = check(smaller);
+                if(smallerDescription != null) {
+                    record = smaller;
+                    description = smallerDescription;
+                    shrunk = true;
+                }
+            }
+            for (long mask = record.hand(); mask != 0; mask &= mask - 1) {
+                long hand = record.hand() & ~Long.lowestOneBit(mask);
+                if(hand == 0) {
+                    continue;
+                }
+                GameRecord smaller = record.withHand(hand);
+                String smallerDescription = check(smaller);
+                if(smallerDescription != null) {
+                    record = smaller;
+                    description = smallerDescription;
+                    shrunk = true;
+                }
+            }
+        }
+        return new Divergence(record, description);
+    }
+
+    /**
+     * Usage: {@code DifferentialVerifier <games> [first seed]}
+     * Exits with status 1 if the engines disagreed in any position.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 1) {
+            System.err.println("Usage: DifferentialVerifier <games> [first seed]");
+            System.exit(2);
+        }
+        long games = Long.parseLong(args[0]);
+        long firstSeed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        Report report = new DifferentialVerifier().run(firstSeed, games, Runtime.getRuntime().availableProcessors());
+        System.out.print(report);
+        System.exit(report.divergences().isEmpty() ? 0 : 1);
+    }
+}
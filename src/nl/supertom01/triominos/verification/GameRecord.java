@@ -0,0 +1,83 @@
+package nl.supertom01.triominos.verification;
+
+import java.util.Arrays;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Placement;
+
+/**
+ * A position that can be rebuilt from scratch: the stones that were placed, in order, and the hand of the player to
+ * move. The placements are not checked while replaying, so any subset of a record is a record as well, which is what
+ * the {@link DifferentialVerifier} relies on to shrink a divergence.
+ * @param seed       The seed of the game the record was taken from.
+ * @param placements The placements, see {@link Placement}.
+ * @param hand       The stones in the hand of the player to move, as a bit mask.
+ */
+public record GameRecord(long seed, long[] placements, long hand) {
+
+    /**
+     * Places the stones of this record on an empty board and an empty reference board.
+     * @param board     An empty board.
+     * @param reference An empty reference board.
+     */
+    public void replay(Board board, ReferenceBoard reference) {
+        for (long placement : placements) {
+            Move move = Placement.toMove(placement, board);
+            try {
+                board.placeStone(move);
+            } catch (PlacementException e) {
+                throw new IllegalStateException("Two placements on the same cell: " + this, e);
+            }
+            reference.placeStone(move);
+        }
+    }
+
+    public int size() {
+        return placements.length;
+    }
+
+    /**
+     * Get a copy of this record without one of the placements.
+     * @param index The index of the placement to leave out.
+     * @return The smaller record.
+     */
+    public GameRecord withoutPlacement(int index) {
+        long[] smaller = new long[placements.length - 1];
+        System.arraycopy(placements, 0, smaller, 0, index);
+        System.arraycopy(placements, index + 1, smaller, index, smaller.length - index);
+        return new GameRecord(seed, smaller, hand);
+    }
+
+    public GameRecord withHand(long hand) {
+        return new GameRecord(seed, placements, hand);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GameRecord other && seed == other.seed && hand == other.hand
+            && Arrays.equals(placements, other.placements);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed) * 31 * 31 + Arrays.hashCode(placements) * 31 + Long.hashCode(hand);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("seed ").append(seed).append(", hand ids [");
+        for (long mask = hand; mask != 0; mask &= mask - 1) {
+            builder.append(Long.numberOfTrailingZeros(mask));
+            if((mask & (mask - 1)) != 0) {
+                builder.append(' ');
+            }
+        }
+        builder.append("], placements:");
+        for (long placement : placements) {
+            builder.append(String.format(" (%d,%d) #%d r%d", Placement.getX(placement), Placement.getY(placement),
+                Placement.getId(placement), Placement.getRotations(placement)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,334 @@
+package nl.supertom01.triominos.verification;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.supertom01.triominos.exceptions.PlacementException;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.model.StoneVariants;
+import nl.supertom01.triominos.util.LongList;
+import nl.supertom01.triominos.util.Tuple;
+
+/**
+ * Counts the move sequences of a seeded two-player round up to a depth, like perft in chess engines. The counts check
+ * the move generation against known values, and the number of positions per second measures its speed.
+ *
+ * The stones are dealt as in a {@link Game}: {@value Game#STOCK_SIZE} to each player, the rest stays on the stack.
+ * The moves of a player are its distinct placements (a stone that looks the same in two rotations is counted once).
+ * A player without placements draws the next stone of the stack, which is a move of its own, or passes if the stack
+ * is empty. A line ends when a player has placed its last stone, or when both players passed in a row.
+ *
+ * The placements are either taken from {@link Board#generatePlacements(long, LongList)}, or found the slow way by
+ * trying every stone of the hand in every rotation on every {@link Board#getOpenFields() open field} with
+ * {@link Board#isValidMove(Move)}. The two should always give the same counts.
+ */
+public class Perft {
+
+    /** The root move of a player that draws a stone, see {@link Division}. */
+    public static final long DRAW = -2;
+
+    /** The root move of a player that passes, see {@link Division}. */
+    public static final long PASS = -1;
+
+    /**
+     * The number of lines that start with a root move, as listed in divide mode.
+     * @param move  The placement (see {@link Placement}), {@link #DRAW} or {@link #PASS}.
+     * @param nodes The number of lines of the full depth that start with the move.
+     */
+    public record Division(long move, long nodes) {
+
+        @Override
+        public String toString() {
+            if(move == DRAW) {
+                return "draw: " + nodes;
+            }
+            if(move == PASS) {
+                return "pass: " + nodes;
+            }
+            return String.format("#%d r%d at %d,%d: %d", Placement.getId(move), Placement.getRotations(move),
+                Placement.getX(move), Placement.getY(move), nodes);
+        }
+    }
+
+    /**
+     * The outcome of a count.
+     * @param nodes     The number of move sequences of each length, the first element is for a depth of one.
+     * @param nanos     The time the count took.
+     * @param divisions The lines per root move.
+     */
+    public record Result(long[] nodes, long nanos, List<Division> divisions) {
+
+        public long getTotalNodes() {
+            long total = 0;
+            for (long count : nodes) {
+                total += count;
+            }
+            return total;
+        }
+
+        public long getNodesPerSecond() {
+            return nanos <= 0 ? 0 : (long) (getTotalNodes() * 1e9 / nanos);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int depth = 1; depth <= nodes.length; depth++) {
+                builder.append(String.format("depth %d: %d%n", depth, nodes[depth - 1]));
+            }
+            builder.append(String.format("nodes=%d in %.2f s (%d/s)%n", getTotalNodes(), nanos / 1e9,
+                getNodesPerSecond()));
+            return builder.toString();
+        }
+    }
+
+    private final long seed;
+    private final boolean reference;
+
+    /**
+     * Creates a counter.
+     * @param seed      The seed of the deal.
+     * @param reference True to find the placements with {@link Board#getOpenFields()} and
+     *                  {@link Board#isValidMove(Move)}, false to use {@link Board#generatePlacements(long, LongList)}.
+     */
+    public Perft(long seed, boolean reference) {
+        this.seed = seed;
+        this.reference = reference;
+    }
+
+    /**
+     * Counts the move sequences, dividing the root moves over several threads.
+     * @param depth   The length of the longest sequences.
+     * @param threads The number of threads.
+     * @return The counts per depth and per root move.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the counts.
+     */
+    public Result run(int depth, int threads) throws InterruptedException {
+        if(depth < 1) {
+            throw new IllegalArgumentException("The depth of perft should be at least 1.");
+        }
+        long start = System.nanoTime();
+        Position root = new Position(seed);
+        LongList moves = new LongList();
+        root.generateMoves(moves, reference);
+        long[][] counts = new long[moves.size()][depth];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < counts.length; i = next.getAndIncrement()) {
+                        Position position = new Position(root);
+                        position.play(moves.get(i));
+                        counts[i][0] = 1;
+                        if(depth > 1 && !position.isOver()) {
+                            count(position, 2, counts[i], newBuffers(depth));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] nodes = new long[depth];
+        List<Division> divisions = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            for (int d = 0; d < depth; d++) {
+                nodes[d] += counts[i][d];
+            }
+            divisions.add(new Division(moves.get(i), counts[i][depth - 1]));
+        }
+        return new Result(nodes, System.nanoTime() - start, divisions);
+    }
+
+    private static LongList[] newBuffers(int depth) {
+        LongList[] buffers = new LongList[depth + 1];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new LongList();
+        }
+        return buffers;
+    }
+
+    /**
+     * Counts the moves of a position, which are at a depth, and everything below them.
+     */
+    private void count(Position position, int depth, long[] counts, LongList[] buffers) {
+        LongList moves = buffers[depth];
+        moves.clear();
+        position.generateMoves(moves, reference);
+        counts[depth - 1] += moves.size();
+        if(depth == counts.length) {
+            return;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            long undo = position.play(move);
+            if(!position.isOver()) {
+                count(position, depth + 1, counts, buffers);
+            }
+            position.undo(move, undo);
+        }
+    }
+
+    /**
+     * The state of a round: the board, the hands, the stack and whose turn it is.
+     */
+    private static final class Position {
+        private final Board board;
+        private final long[] hands;
+        private final int[] stack;
+        private int stackIndex;
+        private int mover;
+        private int passes;
+
+        Position(long seed) {
+            this.board = new Board(seed);
+            this.hands = new long[2];
+            for (int player = 0; player < hands.length; player++) {
+                for (int i = 0; i < Game.STOCK_SIZE; i++) {
+                    hands[player] |= 1L << board.getFromStack().getId();
+                }
+            }
+            this.stack = new int[board.getStackSize()];
+            for (int i = 0; i < stack.length; i++) {
+                stack[i] = board.getFromStack().getId();
+            }
+        }
+
+        Position(Position other) {
+            this.board = new Board(other.board);
+            this.hands = other.hands.clone();
+            this.stack = other.stack;
+            this.stackIndex = other.stackIndex;
+            this.mover = other.mover;
+            this.passes = other.passes;
+        }
+
+        /**
+         * True if the player who just moved has no stones left, or if both players passed.
+         */
+        boolean isOver() {
+            return hands[1 - mover] == 0 || passes >= hands.length;
+        }
+
+        void generateMoves(LongList moves, boolean reference) {
+            long hand = hands[mover];
+            int added = reference ? generateReference(hand, moves) : board.generatePlacements(hand, moves);
+            if(added == 0) {
+                moves.add(stackIndex < stack.length ? DRAW : PASS);
+            }
+        }
+
+        private int generateReference(long hand, LongList moves) {
+            List<Tuple<Tuple<Integer, Integer>, Orientation>> fields = new ArrayList<>();
+            if(board.isEmpty()) {
+                for (Orientation orientation : Orientation.values()) {
+                    fields.add(new Tuple<>(new Tuple<>(Board.NR_STONES, Board.NR_STONES), orientation));
+                }
+            } else {
+                fields = board.getOpenFields();
+            }
+            // A field next to several stones is listed once for each of them.
+            Set<Long> seen = new HashSet<>();
+            int added = 0;
+            for (Tuple<Tuple<Integer, Integer>, Orientation> field : fields) {
+                int x = field.getLeft().getLeft();
+                int y = field.getLeft().getRight();
+                if(!seen.add(Placement.of(x, y, 0, field.getRight().ordinal()))) {
+                    continue;
+                }
+                Orientation orientation = field.getRight();
+                for (int rotation = 0; rotation < StoneVariants.ROTATIONS; rotation++) {
+                    int rotations = StoneVariants.rightRotations(orientation, rotation);
+                    for (long mask = hand & StoneVariants.unique(orientation, rotation); mask != 0; mask &= mask - 1) {
+                        long placement = Placement.of(x, y, Long.numberOfTrailingZeros(mask), rotations);
+                        if(board.isValidMove(toMove(placement))) {
+                            moves.add(placement);
+                            added++;
+                        }
+                    }
+                }
+            }
+            return added;
+        }
+
+        /**
+         * Plays a move and passes the turn.
+         * @return What is needed to take the move back: the number of passes before it.
+         */
+        long play(long move) {
+            int before = passes;
+            if(move == PASS) {
+                passes++;
+            } else if(move == DRAW) {
+                hands[mover] |= 1L << stack[stackIndex++];
+            } else {
+                try {
+                    board.placeStone(toMove(move));
+                } catch (PlacementException e) {
+                    throw new IllegalStateException(e);
+                }
+                hands[mover] &= ~(1L << Placement.getId(move));
+                passes = 0;
+            }
+            mover = 1 - mover;
+            return before;
+        }
+
+        void undo(long move, long undo) {
+            mover = 1 - mover;
+            passes = (int) undo;
+            if(move == DRAW) {
+                hands[mover] &= ~(1L << stack[--stackIndex]);
+            } else if(move != PASS) {
+                board.removeStone(toMove(move));
+                hands[mover] |= 1L << Placement.getId(move);
+            }
+        }
+
+        private Move toMove(long placement) {
+            return Placement.toMove(placement, board);
+        }
+    }
+
+    /**
+     * Usage: {@code Perft <depth> [seed] [divide] [reference]}
+     * With "divide", the number of lines of the full depth is listed per root move. With "reference", the placements
+     * are found with the open fields and {@link Board#isValidMove(Move)} instead of the move generator.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length < 1) {
+            System.err.println("Usage: Perft <depth> [seed] [divide] [reference]");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        List<String> options = List.of(args).subList(Math.min(2, args.length), args.length);
+        Result result = new Perft(seed, options.contains("reference"))
+            .run(depth, Runtime.getRuntime().availableProcessors());
+        if(options.contains("divide")) {
+            for (Division division : result.divisions()) {
+                System.out.println(division);
+            }
+        }
+        System.out.print(result);
+    }
+}
@@ -0,0 +1,234 @@
+package nl.supertom01.triominos.verification;
+
+import java.util.ArrayList;
+import java.util.List;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.util.Tuple;
+
+/**
+ * The rules of the game as they were first written: a plain matrix of stones, scanned in full whenever a question is
+ * asked. This is far too slow to play with, but its simplicity makes it the oracle against which the optimised
+ * {@link Board} is checked by the {@link DifferentialVerifier}.
+ * DO NOT OPTIMISE THIS CLASS, its only purpose is to stay obviously correct.
+ */
+public class ReferenceBoard {
+
+    private final Stone[][] board;
+
+    public ReferenceBoard() {
+        this.board = new Stone[Board.NR_STONES * 2][Board.NR_STONES * 2];
+    }
+
+    /**
+     * Places a copy of a stone on the board, without checking whether the move is valid.
+     * @param move The move to perform.
+     */
+    public void placeStone(Move move) {
+        this.board[move.getX()][move.getY()] = move.getStone().copy();
+    }
+
+    /**
+     * Checks if the current board is empty.
+     * @return True if the board is empty, otherwise false.
+     */
+    public boolean isEmpty() {
+        for(Stone[] row : board) {
+            for(Stone stone : row) {
+                if(stone != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a stone can be placed on the provided location on the board.
+     * @param move  The move to do on the board.
+     * @return      True if the stone can be placed, otherwise false.
+     */
+    public boolean isValidMove(Move move) {
+        int x = move.getX();
+        int y = move.getY();
+        Stone stone = move.getStone();
+
+        // If the current board is empty, any stone is valid as a placement.
+        if(isEmpty()) {
+            return true;
+        }
+
+        // Determine the neighbours of the stone, when placed on the board.
+        Stone[] neighbours = new Stone[3];
+        if(stone.getOrientation() == Orientation.TOP) {
+            neighbours[0] = this.board[x][y - 1];
+        } else {
+            neighbours[0] = this.board[x][y + 1];
+        }
+        neighbours[1] = this.board[x - 1][y];
+        neighbours[2] = this.board[x + 1][y];
+
+        // The stone should have at least a single neighbour and each
+        // neighbouring stone should have the opposite orientation.
+        boolean hasNeighbour = false;
+        boolean orientation = true;
+        for(Stone neighbour : neighbours) {
+            if (neighbour != null) {
+                hasNeighbour = true;
+                orientation = orientation && neighbour.getOrientation() != stone.getOrientation();
+            }
+        }
+        if(!(hasNeighbour && orientation)) {
+            return false;
+        }
+
+        // The numbers of the neighbours should match with this stone.
+        boolean matchingNumbers = true;
+        if(stone.getOrientation() == Orientation.TOP) {
+            for (int i = 0; i < 3; i++) {
+                if(neighbours[i] != null) {
+                    if(i == 0) {
+                        matchingNumbers = stone.getValues()[0] == neighbours[0].getValues()[2];
+                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[0].getValues()[1];
+                    } else if (i == 1) {
+                        matchingNumbers = matchingNumbers && stone.getValues()[0] == neighbours[1].getValues()[0];
+                        matchingNumbers = matchingNumbers && stone.getValues()[2] == neighbours[1].getValues()[1];
+                    } else {
+                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[2].getValues()[0];
+                        matchingNumbers = matchingNumbers && stone.getValues()[2] == neighbours[2].getValues()[2];
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < 3; i++) {
+                if(neighbours[i] != null) {
+                    if(i == 0) {
+                        matchingNumbers = stone.getValues()[2] == neighbours[0].getValues()[0];
+                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[0].getValues()[1];
+                    } else if (i == 1) {
+                        matchingNumbers = matchingNumbers && stone.getValues()[0] == neighbours[1].getValues()[1];
+                        matchingNumbers = matchingNumbers && stone.getValues()[2] == neighbours[1].getValues()[2];
+                    } else {
+                        matchingNumbers = matchingNumbers && stone.getValues()[0] == neighbours[2].getValues()[0];
+                        matchingNumbers = matchingNumbers && stone.getValues()[1] == neighbours[2].getValues()[2];
+                    }
+                }
+            }
+        }
+        return matchingNumbers;
+    }
+
+    /**
+     * Determines the number of points one gains by performing a given move.
+     * @param move         The move to determine the points of, or null for drawing a stone.
+     * @param stonesInHand The number of stones in the hand of the player, including the stone of the move.
+     * @return The number of points that are given for this move.
+     */
+    public int determinePoints(Move move, int stonesInHand) {
+        // Drawing a stone costs 5 points.
+        if(move == null) {
+            return -5;
+        }
+
+        // Each stone is worth the points of its sum.
+        int points = move.getStone().getSum();
+
+        if(this.isEmpty() && move.getStone().isTriple()) {
+            // Start the game of with a triple 0.
+            if(points == 0) {
+                points = 40;
+            }
+            // Start the game of with a triple (not 0).
+            else {
+                points += 10;
+            }
+        }
+
+        // Check if a hexagon was completed.
+        int x = move.getX();
+        int y = move.getY();
+        boolean hexagonComplete = false;
+        if(board[x][y - 1] == null) {
+            if(board[x - 1][y] != null && board[x + 1][y] != null) {
+                // 2
+                hexagonComplete = board[x - 1][y + 1] != null &&
+                    board[x][y + 1] != null && board[x + 1][y + 1] != null;
+            } else if (board[x - 1][y] != null) {
+                // 3
+                hexagonComplete = board[x - 2][y] != null && board[x][y + 1] != null &&
+                    board[x - 1][y + 1] != null && board[x - 2][y + 1] != null;
+            } else if (board[x + 1][y] != null) {
+                // 1
+                hexagonComplete = board[x + 2][y] != null && board[x][y + 1] != null &&
+                    board[x + 1][y + 1] != null && board[x + 2][y + 1] != null;
+            }
+        } else {
+            if(board[x - 1][y] != null && board[x + 1][y] != null) {
+                // 5
+                hexagonComplete = board[x][y - 1] != null &&
+                    board[x - 1][y - 1] != null && board[x + 1][y - 1] != null;
+            } else if (board[x - 1][y] != null) {
+                // 6
+                hexagonComplete = board[x - 2][y] != null && board[x][y - 1] != null &&
+                    board[x - 1][y - 1] != null && board[x - 2][y - 1] != null;
+            } else if (board[x + 1][y] != null) {
+                // 4
+                hexagonComplete = board[x + 2][y] != null && board[x][y - 1] != null &&
+                    board[x + 1][y - 1] != null && board[x + 2][y - 1] != null;
+            }
+        }
+
+        if(hexagonComplete) {
+            points += 50;
+        }
+
+        // Clearing all the tiles from your hand is 25 points worth.
+        if(stonesInHand == 1) {
+            points += 25;
+        }
+        return points;
+    }
+
+    /**
+     * Get all the indices of the fields that are just next to the already existing structure.
+     * @return A list with the coordinates of the open fields and their orientation, a field can occur more than once.
+     */
+    public List<Tuple<Tuple<Integer, Integer>, Orientation>> getOpenFields() {
+        List<Tuple<Tuple<Integer, Integer>, Orientation>> coordinates = new ArrayList<>();
+        for (int x = 1; x < this.board.length - 1; x++) {
+            for (int y = 1; y < this.board[x].length - 1; y++) {
+                Stone stone = this.board[x][y];
+                if(stone != null) {
+                    // Check the location above or under the stone, depending on the orientation.
+                    if(stone.getOrientation() == Orientation.TOP) {
+                        if(this.board[x][y - 1] == null) {
+                            coordinates.add(new Tuple<>(new Tuple<>(x, y - 1), Orientation.DOWN));
+                        }
+                    } else {
+                        if(this.board[x][y + 1] == null) {
+                            coordinates.add(new Tuple<>(new Tuple<>(x, y + 1), Orientation.TOP));
+                        }
+                    }
+
+                    Orientation orientation;
+                    if (stone.getOrientation() == Orientation.TOP) {
+                        orientation = Orientation.DOWN;
+                    } else {
+                        orientation = Orientation.TOP;
+                    }
+                    // Check the left side of the stone.
+                    if(this.board[x - 1][y] == null) {
+                        coordinates.add(new Tuple<>(new Tuple<>(x - 1, y), orientation));
+                    }
+                    // Check the right side of the stone.
+                    if(this.board[x + 1][y] == null) {
+                        coordinates.add(new Tuple<>(new Tuple<>(x + 1, y), orientation));
+                    }
+                }
+            }
+        }
+        return coordinates;
+    }
+}
@@ -0,0 +1,199 @@
+package nl.supertom01.triominos.view;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+import nl.supertom01.triominos.controller.EasyPlayer;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Game;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Player;
+import nl.supertom01.triominos.model.Stone;
+import nl.supertom01.triominos.styles.Style;
+
+/**
+ * Draws a board into an image with Java2D, without the JavaFX toolkit, so it also works on a machine without a
+ * display. The lay-out is the same as that of {@link Board#update(boolean)}: the stones are {@link Triangle}s of
+ * {@link Style#WIDTH} wide, placed on a grid of half a stone wide and a stone high, with the numbers near the corners.
+ *
+ * A renderer only holds its scale and fonts, so a single renderer can be used by many threads at once.
+ */
+public class BoardRenderer {
+
+    private static final Color BACKGROUND = new Color(0, 0, 255);
+
+    private final double scale;
+    private final Font font;
+
+    /**
+     * Creates a renderer.
+     * @param scale The size of the image relative to the board on screen, for instance 0.25 for thumbnails.
+     */
+    public BoardRenderer(double scale) {
+        this.scale = scale;
+        this.font = new Font(Style.FONT_FAMILY, Font.PLAIN, Style.FONT_SIZE_STONE);
+    }
+
+    /**
+     * Draws the stones on a board.
+     * @param board The board.
+     * @return The image, which just fits the stones. An empty board gives an image of a single cell.
+     */
+    public BufferedImage render(Board board) {
+        int minX = board.getOriginX();
+        int minY = board.getOriginY();
+        int maxX = minX;
+        int maxY = minY;
+        for (int i = 0; i < board.getPlacementCount(); i++) {
+            int x = board.getPlacementX(i);
+            int y = board.getPlacementY(i);
+            if(board.getStoneAt(x, y) != null) {
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+        }
+
+        // Each stone is a whole width wide but only takes half a width of the grid, like the columns of the board.
+        int width = (int) Math.ceil(((maxX - minX) * Style.CENTER + Style.WIDTH) * scale);
+        int height = (int) Math.ceil((maxY - minY + 1) * Style.HEIGHT * scale);
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            graphics.setColor(BACKGROUND);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.scale(scale, scale);
+            graphics.setFont(font);
+            graphics.setStroke(new BasicStroke(1));
+            for (int i = 0; i < board.getPlacementCount(); i++) {
+                int x = board.getPlacementX(i);
+                int y = board.getPlacementY(i);
+                Stone stone = board.getStoneAt(x, y);
+                if(stone != null) {
+                    drawStone(graphics, stone, (x - minX) * Style.CENTER, (y - minY) * Style.HEIGHT);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Draws a stone in the box of a whole stone, with its top left corner at (left, top).
+     */
+    private static void drawStone(Graphics2D graphics, Stone stone, int left, int top) {
+        int right = left + Style.WIDTH;
+        int bottom = top + Style.HEIGHT;
+        int center = left + Style.CENTER;
+        Polygon triangle = stone.getOrientation() == Orientation.TOP
+            ? new Polygon(new int[]{left, right, center}, new int[]{top, top, bottom}, 3)
+            : new Polygon(new int[]{center, left, right}, new int[]{top, bottom, bottom}, 3);
+        graphics.setColor(Color.WHITE);
+        graphics.fillPolygon(triangle);
+        graphics.setColor(Color.BLACK);
+        graphics.drawPolygon(triangle);
+
+        // The same alignment and margins as the texts of Stone.toJavaFX().
+        FontMetrics metrics = graphics.getFontMetrics();
+        int[] values = stone.getValues();
+        int margin = Style.FONT_MARGIN;
+        if(stone.getOrientation() == Orientation.TOP) {
+            drawValue(graphics, metrics, values[0], left + margin, top, -1, -1);
+            drawValue(graphics, metrics, values[1], right - margin, top, 1, -1);
+            drawValue(graphics, metrics, values[2], center, bottom - margin, 0, 1);
+        } else {
+            drawValue(graphics, metrics, values[0], center, top + margin, 0, -1);
+            drawValue(graphics, metrics, values[1], right - margin, bottom, 1, 1);
+            drawValue(graphics, metrics, values[2], left + margin, bottom, -1, 1);
+        }
+    }
+
+    /**
+     * Draws a value against an anchor point.
+     * @param horizontal -1 to put the text to the right of the anchor, 0 to center it and 1 to put it to the left.
+     * @param vertical   -1 to put the text below the anchor and 1 to put it above.
+     */
+    private static void drawValue(Graphics2D graphics, FontMetrics metrics, int value, int x, int y, int horizontal,
+                                  int vertical) {
+        String text = String.valueOf(value);
+        int width = metrics.stringWidth(text);
+        int left = horizontal < 0 ? x : horizontal == 0 ? x - width / 2 : x - width;
+        int baseline = vertical < 0 ? y + metrics.getAscent() : y - metrics.getDescent();
+        graphics.drawString(text, left, baseline);
+    }
+
+    /**
+     * Draws a board and writes it as a PNG image.
+     * @param board The board.
+     * @param out   The stream to write the image to, it is not closed.
+     * @throws IOException If the image cannot be written.
+     */
+    public void writePng(Board board, OutputStream out) throws IOException {
+        ImageIO.write(render(board), "png", out);
+    }
+
+    /**
+     * Renders the final board of a number of games between two easy players, in parallel.
+     * Usage: {@code BoardRenderer <games> <directory> [scale]}
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: BoardRenderer <games> <directory> [scale]");
+            System.exit(2);
+        }
+        System.setProperty("java.awt.headless", "true");
+        int games = Integer.parseInt(args[0]);
+        Path directory = Files.createDirectories(Path.of(args[1]));
+        BoardRenderer renderer = new BoardRenderer(args.length > 2 ? Double.parseDouble(args[2]) : 0.25);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int first = games * thread / threads;
+                int last = games * (thread + 1) / threads;
+                futures.add(executor.submit(() -> {
+                    Game game = new Game(new Player[]{new EasyPlayer(), new EasyPlayer()});
+                    for (int seed = first; seed < last; seed++) {
+                        game.reset(seed);
+                        game.play();
+                        try (OutputStream out = Files.newOutputStream(directory.resolve("board-" + seed + ".png"))) {
+                            renderer.writePng(game.getBoard(), out);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("Rendered %d boards in %.1fs%n", games, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -1,5 +1,6 @@
 package nl.supertom01.triominos.view;
 
+import java.util.List;
 import javafx.scene.Cursor;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
@@ -17,6 +18,9 @@ public class EmptyLocation extends Triangle {
     private final int x;
     private final int y;
 
+    /** The placements of the selected stone(s) on this location, or an empty list if they are not known. */
+    private final List<PlacementHints.Hint> hints;
+
     /**
      * Creates a new empty location.
      * @param orientation The orientation of this location, this follows the same principle as a normal Stone, so this
@@ -25,6 +29,17 @@ public class EmptyLocation extends Triangle {
      * @param y The y-coordinate on the board of this piece.
      */
     public EmptyLocation(Orientation orientation, int x, int y) {
+        this(orientation, x, y, List.of());
+    }
+
+    /**
+     * Creates a new empty location on which the provided placements are legal.
+     * @param orientation The orientation of this location.
+     * @param x The x-coordinate on the board of this piece.
+     * @param y The y-coordinate on the board of this piece.
+     * @param hints The legal placements on this location, the best one first.
+     */
+    public EmptyLocation(Orientation orientation, int x, int y, List<PlacementHints.Hint> hints) {
         super(Style.WIDTH, orientation);
         setFill(Color.TRANSPARENT);
 
@@ -40,6 +55,11 @@ public class EmptyLocation extends Triangle {
         });
         this.x = x;
         this.y = y;
+        this.hints = hints;
+    }
+
+    public List<PlacementHints.Hint> getHints() {
+        return hints;
     }
 
     /**
@@ -0,0 +1,246 @@
+package nl.supertom01.triominos.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nl.supertom01.triominos.model.Board;
+import nl.supertom01.triominos.model.Move;
+import nl.supertom01.triominos.model.Orientation;
+import nl.supertom01.triominos.model.Placement;
+import nl.supertom01.triominos.util.LongList;
+
+/**
+ * Keeps, for every stone in the hand of a player, the placements on which it is legal and the points each of them
+ * would score. The hints are computed on a background thread, on a copy of the board, so selecting a stone shows its
+ * hints right away.
+ * After the first computation only the fields around the stones that have been placed since the previous update are
+ * recomputed, together with the placements of the stones that were added to the hand.
+ */
+public class PlacementHints implements AutoCloseable {
+
+    /**
+     * A legal placement of a stone from the hand.
+     * @param placement The packed placement, see {@link Placement}.
+     * @param points    The points that the placement scores.
+     */
+    public record Hint(long placement, int points) {
+
+        public int getX() {
+            return Placement.getX(placement);
+        }
+
+        public int getY() {
+            return Placement.getY(placement);
+        }
+
+        public int getId() {
+            return Placement.getId(placement);
+        }
+
+        public int getRotations() {
+            return Placement.getRotations(placement);
+        }
+
+        /**
+         * Get the orientation of the stone, an even number of rotations from the initial state points down.
+         * @return The orientation.
+         */
+        public Orientation getOrientation() {
+            return getRotations() % 2 == 0 ? Orientation.DOWN : Orientation.TOP;
+        }
+    }
+
+    private static final Comparator<Hint> BY_POINTS = Comparator.comparingInt(Hint::points).reversed();
+
+    private final ExecutorService executor;
+    private final Runnable onUpdate;
+
+    // Only used by the background thread.
+    private Board board;
+    private long hand;
+    private final Map<Long, List<Hint>> fields = new HashMap<>();
+    private final LongList placements = new LongList();
+
+    private volatile long latest;
+    private volatile Map<Integer, List<Hint>> hints = Map.of();
+    private volatile List<Hint> allHints = List.of();
+
+    /**
+     * Creates the hints, with a single background thread that computes them.
+     * @param onUpdate Called on the background thread whenever new hints are available.
+     */
+    public PlacementHints(Runnable onUpdate) {
+        this.onUpdate = onUpdate;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "placement-hints");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the hints to be brought up to date with the board and the hand. The board is copied on the calling
+     * thread, so the game can continue right away. Updates that are overtaken by a newer one are skipped.
+     * @param board The board.
+     * @param hand  The stones in the hand, as a bit mask.
+     * @return The future of the update.
+     */
+    public Future<?> update(Board board, long hand) {
+        Board copy = new Board(board);
+        long generation = ++latest;
+        return executor.submit(() -> {
+            if(generation == latest) {
+                compute(copy, hand);
+                onUpdate.run();
+            }
+        });
+    }
+
+    /**
+     * Get the hints of a single stone, the best placement first.
+     * @param id The id of the stone.
+     * @return The hints, empty if the stone is not in the hand or cannot be placed.
+     */
+    public List<Hint> getHints(int id) {
+        return hints.getOrDefault(id, List.of());
+    }
+
+    /**
+     * Get the hints of all the stones in the hand, the best placement first.
+     * @return The hints.
+     */
+    public List<Hint> getHints() {
+        return allHints;
+    }
+
+    private void compute(Board next, long nextHand) {
+        int stones = Long.bitCount(nextHand);
+        // The points of every placement change with an empty board (triple bonus) or a last stone (clearing bonus).
+        boolean full = board == null || board.isEmpty() || next.isEmpty()
+            || !isContinuation(next, board)
+            || (stones == 1) != (Long.bitCount(hand) == 1);
+
+        if(full) {
+            fields.clear();
+            if(next.isEmpty()) {
+                computeField(next, Board.NR_STONES, Board.NR_STONES, nextHand, stones);
+            }
+            for (int i = 0; i < next.getPlacementCount(); i++) {
+                int x = next.getPlacementX(i);
+                int y = next.getPlacementY(i);
+                computeFieldOnce(next, x - 1, y, nextHand, stones);
+                computeFieldOnce(next, x + 1, y, nextHand, stones);
+                computeFieldOnce(next, x, y - 1, nextHand, stones);
+                computeFieldOnce(next, x, y + 1, nextHand, stones);
+            }
+        } else {
+            // The hexagon bonus of a field depends on the cells up to two columns and one row away.
+            Set<Long> dirty = new HashSet<>();
+            for (int i = board.getPlacementCount(); i < next.getPlacementCount(); i++) {
+                int x = next.getPlacementX(i);
+                int y = next.getPlacementY(i);
+                for (int dx = -2; dx <= 2; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        if(dirty.add(Placement.of(x + dx, y + dy, 0, 0))) {
+                            computeField(next, x + dx, y + dy, nextHand, stones);
+                        }
+                    }
+                }
+            }
+
+            long removed = hand & ~nextHand;
+            long added = nextHand & ~hand;
+            if(removed != 0 || added != 0) {
+                for (Map.Entry<Long, List<Hint>> field : fields.entrySet()) {
+                    if(dirty.contains(field.getKey())) {
+                        continue;
+                    }
+                    List<Hint> list = field.getValue();
+                    list.removeIf(hint -> (removed & (1L << hint.getId())) != 0);
+                    if(added != 0) {
+                        long key = field.getKey();
+                        addHints(next, Placement.getX(key), Placement.getY(key), added, stones, list);
+                    }
+                }
+            }
+        }
+        board = next;
+        hand = nextHand;
+        publish();
+    }
+
+    /**
+     * Checks whether a board is the result of placing more stones on an earlier board.
+     */
+    private static boolean isContinuation(Board next, Board previous) {
+        int count = previous.getPlacementCount();
+        if(next.getPlacementCount() < count) {
+            return false;
+        }
+        return count == 0 || (next.getPlacementX(count - 1) == previous.getPlacementX(count - 1)
+            && next.getPlacementY(count - 1) == previous.getPlacementY(count - 1));
+    }
+
+    private void computeFieldOnce(Board next, int x, int y, long stones, int stonesInHand) {
+        if(!fields.containsKey(Placement.of(x, y, 0, 0))) {
+            computeField(next, x, y, stones, stonesInHand);
+        }
+    }
+
+    /**
+     * Recomputes the hints of a single cell, or forgets the cell if it is no longer an open field.
+     */
+    private void computeField(Board next, int x, int y, long stones, int stonesInHand) {
+        long key = Placement.of(x, y, 0, 0);
+        boolean open = next.isEmpty() ? x == Board.NR_STONES && y == Board.NR_STONES
+            : next.getOpenFieldOrientation(x, y) != null;
+        if(!open) {
+            fields.remove(key);
+            return;
+        }
+        List<Hint> list = new ArrayList<>();
+        addHints(next, x, y, stones, stonesInHand, list);
+        fields.put(key, list);
+    }
+
+    private void addHints(Board next, int x, int y, long stones, int stonesInHand, List<Hint> list) {
+        placements.clear();
+        next.generatePlacements(x, y, stones, placements);
+        for (int i = 0; i < placements.size(); i++) {
+            long placement = placements.get(i);
+            Move move = Placement.toMove(placement, next);
+            list.add(new Hint(placement, next.determinePoints(move, stonesInHand)));
+        }
+    }
+
+    private void publish() {
+        Map<Integer, List<Hint>> byStone = new HashMap<>();
+        List<Hint> all = new ArrayList<>();
+        for (List<Hint> list : fields.values()) {
+            for (Hint hint : list) {
+                byStone.computeIfAbsent(hint.getId(), id -> new ArrayList<>()).add(hint);
+                all.add(hint);
+            }
+        }
+        for (Map.Entry<Integer, List<Hint>> entry : byStone.entrySet()) {
+            entry.getValue().sort(BY_POINTS);
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        all.sort(BY_POINTS);
+        hints = byStone;
+        allHints = Collections.unmodifiableList(all);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}